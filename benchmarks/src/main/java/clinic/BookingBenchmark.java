@@ -0,0 +1,151 @@
+package clinic;
+
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Booking, cancellation and reporting hot paths of AssignmentOne.
+ *
+ * Each trial registers 'doctors' professionals, seeds 'appointments' bookings
+ * straight into the store, and then calls the public static API exactly as main
+ * does. Console output goes through the application's background log writer
+ * to a discarding stream, so the benchmarks measure the calling thread's work
+ * (including queueing the messages) but not the terminal.
+ *
+ * Calendars cover one day of quarter-hour slots, so a schedule holds at most 96
+ * appointments per doctor. Parameter combinations with more appointments than
+ * that, e.g. 10 doctors with 90000 appointments, cannot be seeded without double
+ * bookings; their setup fails with an explanation and JMH moves on to the next one.
+ *
+ * The API works on shared static state, so every benchmark runs single-threaded.
+ * Large parameter combinations need a big heap; the forks run with -Xmx8g.
+ * Reports stream to the log writer in bounded chunks, so printExistingAppointments
+ * renders even the largest schedule without holding the whole report in memory.
+ * Narrow the matrix from the command line, e.g. -p doctors=1000 -p appointments=90000.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 2, jvmArgsAppend = {"-Xms2g", "-Xmx8g"})
+@Threads(1)
+public class BookingBenchmark {
+
+    @Param({"10", "1000", "100000"})
+    public int doctors;
+
+    @Param({"900", "90000", "9000000"})
+    public int appointments;
+
+    // Doctor kept out of the seeded schedule, so its slots are free for round trips.
+    private int probeDoctorId;
+    // A seeded doctor and one of its booked times, used for rejected bookings.
+    private int busyDoctorId;
+    private String busyTime;
+    // Mobile number that never has a booking.
+    private String unknownMobile;
+    // Mobile numbers and times used by the round-trip benchmark, cycled per call.
+    private String[] probeMobiles;
+    private String[] probeTimes;
+    private int next;
+
+    private PrintStream console;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        if (!SyntheticData.fits(doctors, appointments)) {
+            throw new IllegalStateException("Skipped: " + appointments + " appointments do not fit into the "
+                    + SyntheticData.SLOTS_PER_DAY + " daily slots of " + doctors + " doctors");
+        }
+        DoctorRegistry registry = new DoctorRegistry();
+        SyntheticData.registerDoctors(registry, doctors);
+        probeDoctorId = doctors + 1;
+        registry.register(new GeneralPractitioner(probeDoctorId, "Dr. Probe", 40, "General Practitioner",
+                SlotCalendar.DEFAULT_CONSULTATION_MINUTES, true));
+
+        AppointmentStore store = AssignmentOne.resetState(registry);
+        store.addAll(SyntheticData.appointments(registry, doctors, appointments));
+
+        Appointment busy = store.iterator().next();
+        busyDoctorId = busy.getDoctor().getId();
+        busyTime = busy.getTimeSlot();
+        unknownMobile = SyntheticData.mobileOf(99_999_999L);
+
+        int probes = 64;
+        probeMobiles = new String[probes];
+        probeTimes = new String[probes];
+        for (int i = 0; i < probes; i++) {
+            probeMobiles[i] = SyntheticData.mobileOf(90_000_000L + i);
+            probeTimes[i] = SlotCalendar.formatTime(i * SlotCalendar.DEFAULT_CONSULTATION_MINUTES);
+        }
+
+        console = System.out;
+        System.setOut(new PrintStream(OutputStream.nullOutputStream()));
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        AssignmentOne.flushLog();
+        System.setOut(console);
+    }
+
+    /**
+     * Books a free slot and cancels it again, leaving the schedule unchanged.
+     */
+    @Benchmark
+    public void bookingRoundTrip() {
+        int i = next;
+        next = (i + 1) & (probeMobiles.length - 1);
+        AssignmentOne.createAppointment(probeDoctorId, "Probe Patient", probeMobiles[i], probeTimes[i]);
+        AssignmentOne.cancelBooking(probeMobiles[i]);
+    }
+
+    /**
+     * Requests a slot that is already booked: validation, lookup and calendar check only.
+     */
+    @Benchmark
+    public void createAppointmentRejected() {
+        AssignmentOne.createAppointment(busyDoctorId, "Probe Patient", unknownMobile, busyTime);
+    }
+
+    /**
+     * Cancels with a mobile number that has no booking.
+     */
+    @Benchmark
+    public void cancelBookingMiss() {
+        AssignmentOne.cancelBooking(unknownMobile);
+    }
+
+    /**
+     * Renders the roster report.
+     */
+    @Benchmark
+    public void printDoctorsInfo() {
+        AssignmentOne.printDoctorsInfo();
+    }
+
+    /**
+     * Renders the full appointment report.
+     */
+    @Benchmark
+    public void printExistingAppointments() {
+        AssignmentOne.printExistingAppointments();
+    }
+}
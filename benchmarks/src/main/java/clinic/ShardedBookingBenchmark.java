@@ -0,0 +1,105 @@
+package clinic;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Multi-threaded booking throughput of ShardedBookingService for different shard counts.
+ *
+ * Eight caller threads each book and cancel on a doctor of their own, so the
+ * callers never compete for a slot and the score shows how well the shards
+ * spread the work over the cores. A round trip's cancellation is routed through
+ * the patient's mobile index to the one shard holding the booking, and
+ * createAppointmentRejected is routed to a single shard only.
+ * Compare scores across 'shards' on a machine with at least as many cores.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 2, jvmArgsAppend = {"-Xms1g", "-Xmx2g"})
+@Threads(8)
+public class ShardedBookingBenchmark {
+
+    @Param({"1", "2", "4", "8"})
+    public int shards;
+
+    @Param({"1000"})
+    public int doctors;
+
+    private ShardedBookingService service;
+    // Hands each caller thread its own doctor.
+    private final AtomicInteger nextCaller = new AtomicInteger();
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        DoctorRegistry registry = new DoctorRegistry();
+        SyntheticData.registerDoctors(registry, doctors);
+        service = new ShardedBookingService(registry, shards);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        service.close();
+    }
+
+    /**
+     * One caller thread's doctor, patient and cycle of free times.
+     */
+    @State(Scope.Thread)
+    public static class Caller {
+        private int doctorId;
+        private String mobile;
+        private String[] times;
+        private int next;
+
+        @Setup(Level.Trial)
+        public void setUp(ShardedBookingBenchmark benchmark) {
+            int caller = benchmark.nextCaller.getAndIncrement();
+            doctorId = 1 + caller % benchmark.doctors;
+            mobile = SyntheticData.mobileOf(80_000_000L + caller);
+            times = new String[64];
+            for (int i = 0; i < times.length; i++) {
+                times[i] = SlotCalendar.formatTime(i * SlotCalendar.DEFAULT_CONSULTATION_MINUTES);
+            }
+            // Occupy the first time so rejected bookings have a busy slot to hit; round trips use the rest.
+            next = 1;
+            benchmark.service.createAppointment(doctorId, "Busy Patient", mobile + "0", times[0]);
+        }
+    }
+
+    /**
+     * Books a free slot on the caller's doctor and cancels it again.
+     */
+    @Benchmark
+    public void bookingRoundTrip(Caller caller) {
+        int i = caller.next;
+        caller.next = i + 1 == caller.times.length ? 1 : i + 1;
+        service.createAppointment(caller.doctorId, "Probe Patient", caller.mobile, caller.times[i]);
+        service.cancelBooking(caller.mobile);
+    }
+
+    /**
+     * Requests the caller's busy slot: routed to one shard, validated and rejected there.
+     */
+    @Benchmark
+    public BookingStatus createAppointmentRejected(Caller caller) {
+        return service.createAppointment(caller.doctorId, "Probe Patient", caller.mobile, caller.times[0]);
+    }
+}
@@ -0,0 +1,105 @@
+package clinic;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+
+/**
+ * Generates reproducible rosters and schedules for the benchmarks.
+ * The roster alternates General Practitioners and Cardiologists with IDs 1..n,
+ * and appointments are spread uniformly over doctors, quarter-hour start times
+ * and a pool of patients, so most patients have about two bookings.
+ * Calendars cover a single day, so every appointment gets a (doctor, start time)
+ * pair of its own: a schedule holds at most SLOTS_PER_DAY appointments per doctor.
+ */
+final class SyntheticData {
+
+    // Fixed seed so every fork measures the same data.
+    private static final long SEED = 0x5EED_C11_1C5L;
+    // Quarter-hour start times in a day.
+    static final int SLOTS_PER_DAY = SlotCalendar.MINUTES_PER_DAY / SlotCalendar.DEFAULT_CONSULTATION_MINUTES;
+
+    private static final String[] SUBSPECIALTIES = {"Interventional", "Electrophysiology", "Heart Failure", "Imaging"};
+
+    private SyntheticData() {
+    }
+
+    /**
+     * Registers 'doctors' professionals with IDs 1 to 'doctors'.
+     * @param registry The registry to fill.
+     * @param doctors The number of professionals.
+     */
+    static void registerDoctors(DoctorRegistry registry, int doctors) {
+        SplittableRandom random = new SplittableRandom(SEED);
+        for (int id = 1; id <= doctors; id++) {
+            String name = "Dr. " + Integer.toString(id, 36);
+            int age = 30 + random.nextInt(35);
+            if ((id & 1) == 1) {
+                registry.register(new GeneralPractitioner(id, name, age, "General Practitioner",
+                        SlotCalendar.DEFAULT_CONSULTATION_MINUTES, random.nextBoolean()));
+            } else {
+                registry.register(new Cardiologist(id, name, age, "Cardiologist",
+                        SUBSPECIALTIES[random.nextInt(SUBSPECIALTIES.length)], random.nextBoolean()));
+            }
+        }
+    }
+
+    /**
+     * Checks whether a schedule fits into the doctors' calendars without double bookings.
+     * @param doctors The number of doctors.
+     * @param appointments The number of appointments.
+     * @return True if every appointment can get a free slot.
+     */
+    static boolean fits(int doctors, int appointments) {
+        return appointments <= (long) doctors * SLOTS_PER_DAY;
+    }
+
+    /**
+     * Creates appointments for the registered doctors, reserving each slot in the doctor's calendar.
+     * Draws that hit an already booked slot are drawn again, so no two appointments
+     * share a doctor and start time.
+     * @param registry The registry holding doctors 1 to 'doctors', with empty calendars.
+     * @param doctors The number of doctors to spread the appointments over.
+     * @param appointments The number of appointments to create.
+     * @return The appointments in booking order.
+     * @throws IllegalArgumentException if the appointments do not fit, see fits().
+     */
+    static List<Appointment> appointments(DoctorRegistry registry, int doctors, int appointments) {
+        if (!fits(doctors, appointments)) {
+            throw new IllegalArgumentException(appointments + " appointments do not fit into the "
+                    + SLOTS_PER_DAY + " daily slots of " + doctors + " doctors");
+        }
+        SplittableRandom random = new SplittableRandom(SEED + 1);
+        int patients = Math.max(1, appointments / 2);
+        Patient[] patientPool = new Patient[patients];
+        String[] times = new String[SLOTS_PER_DAY];
+        for (int slot = 0; slot < SLOTS_PER_DAY; slot++) {
+            times[slot] = SlotCalendar.formatTime(slot * SlotCalendar.DEFAULT_CONSULTATION_MINUTES);
+        }
+
+        List<Appointment> schedule = new ArrayList<>(appointments);
+        for (int i = 0; i < appointments; i++) {
+            int doctorId;
+            int slot;
+            do {
+                doctorId = 1 + random.nextInt(doctors);
+                slot = random.nextInt(SLOTS_PER_DAY);
+            } while (!registry.calendarOf(doctorId).reserve(slot * SlotCalendar.DEFAULT_CONSULTATION_MINUTES));
+            int p = random.nextInt(patients);
+            if (patientPool[p] == null) {
+                patientPool[p] = new Patient("Patient " + p, mobileOf(p));
+            }
+            schedule.add(new Appointment(patientPool[p], times[slot], registry.findById(doctorId)));
+        }
+        return schedule;
+    }
+
+    /**
+     * Returns the mobile number of a generated patient.
+     * @param patient The patient index.
+     * @return A ten-digit mobile number starting with "04".
+     */
+    static String mobileOf(long patient) {
+        return String.format("04%08d", patient);
+    }
+}
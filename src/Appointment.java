@@ -41,9 +41,19 @@ public class Appointment {
 
     /**
      * Prints all detailed information related to this specific appointment.
-     * It retrieves data from the aggregated Patient and Doctor objects.
+     * The lines are rendered by appendAppointmentDetails and written in a single call.
      */
     public void printAppointmentDetails() {
+        System.out.print(appendAppointmentDetails(new StringBuilder()));
+    }
+
+    /**
+     * Writes all detailed information related to this specific appointment into a buffer.
+     * It retrieves data from the aggregated Patient and Doctor objects.
+     * @param out The buffer to write to.
+     * @return The same buffer, for chaining.
+     */
+    public StringBuilder appendAppointmentDetails(StringBuilder out) {
 
         // 使用 Patient 对象获取信息
         String patientName = "N/A";
@@ -57,27 +67,21 @@ public class Appointment {
             patientMobile = this.patient.getMobile();
         }
 
-        System.out.println("Patient Name: " + patientName);
-        System.out.println("Patient Phone Number: " + patientMobile);
-        System.out.println("Appointment Time: " + this.timeSlot);
+        RowRenderer.line(out.append("Patient Name: "), patientName);
+        RowRenderer.line(out.append("Patient Phone Number: "), patientMobile);
+        RowRenderer.line(out.append("Appointment Time: "), this.timeSlot);
 
         // Check for null Doctor object.
         if (this.doctor != null) {
             //Obtain the doctor's name through the HealthProfessional interface.
             doctorName = this.doctor.getName();
-            //Check if the Doctor object is an instance of GeneralPractitioner.
-            if (this.doctor instanceof GeneralPractitioner) {
-                doctorType = "General Practitioner";
-                //Check if the Doctor object is an instance of Cardiologist.
-            } else if (this.doctor instanceof Cardiologist) {
-                doctorType = "Cardiologist";
-            } else {
-                doctorType = "Unknown Health Professional";
-            }
+            //Obtain the doctor's type from its registered specialty, if any.
+            SpecialtyDescriptor<?> specialty = this.doctor.getSpecialty();
+            doctorType = specialty != null ? specialty.getDisplayName() : "Unknown Health Professional";
         }
 
-        System.out.println("Doctor Name: " + doctorName);
-        System.out.println("Doctor Type: " + doctorType);
+        RowRenderer.line(out.append("Doctor Name: "), doctorName);
+        return RowRenderer.line(out.append("Doctor Type: "), doctorType);
     }
 
     /**
@@ -90,4 +94,28 @@ public class Appointment {
         return patient.getMobile();
     }
 
+    /**
+     * Getter for the aggregated Patient object.
+     * @return The patient of this appointment.
+     */
+    public Patient getPatient() {
+        return patient;
+    }
+
+    /**
+     * Getter for the reserved time slot.
+     * @return The appointment time, e.g. "09:30".
+     */
+    public String getTimeSlot() {
+        return timeSlot;
+    }
+
+    /**
+     * Getter for the selected doctor.
+     * @return The HealthProfessional associated with the booking.
+     */
+    public HealthProfessional getDoctor() {
+        return doctor;
+    }
+
 }
\ No newline at end of file
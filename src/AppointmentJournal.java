@@ -0,0 +1,611 @@
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.zip.CRC32;
+
+/**
+ * Append-only binary journal of appointment create, cancel and complete events.
+ * Attached to an AppointmentStore, it records every change made to the store
+ * so that the appointments survive a restart.
+ *
+ * Writes are group-committed: callers only enqueue encoded records, and a
+ * single writer thread appends whatever has accumulated and issues one fsync
+ * for the whole batch. Recovery replays the file through memory-mapped reads
+ * and stops at the first torn or corrupt record. Once the journal holds far
+ * more records than there are live appointments, it is compacted into a
+ * snapshot of the live appointments so replay time stays bounded.
+ *
+ * Record layout: int length | byte type | payload | int CRC32(type + payload),
+ * where length counts the type byte and payload. Strings are stored as an
+ * unsigned short byte count followed by UTF-8 bytes.
+ */
+public class AppointmentJournal implements AppointmentListener, AutoCloseable {
+
+    // Record type of an appointment creation: doctor ID, patient name, patient mobile, time slot.
+    private static final byte CREATE = 1;
+    // Record type of a cancellation of the patient's earliest booking: patient mobile.
+    // No longer written, since it cannot tell which booking was cancelled; still replayed.
+    private static final byte CANCEL_EARLIEST = 2;
+    // Record type of a completion: doctor ID, patient mobile, time slot.
+    private static final byte COMPLETE = 3;
+    // Record type of a cancellation: doctor ID, patient mobile, time slot.
+    private static final byte CANCEL = 4;
+    // Largest accepted record body, used to detect corrupt length fields.
+    private static final int MAX_RECORD_LENGTH = 1 + 4 + 3 * (2 + 0xFFFF);
+    // Size of each memory-mapped window used during replay.
+    private static final long MAPPING_WINDOW = 64L << 20;
+    // Maximum number of queued requests written in one group commit.
+    private static final int MAX_BATCH = 4096;
+    // Journals with fewer records than this are never compacted.
+    private static final long MIN_COMPACTION_RECORDS = 1024;
+
+    /**
+     * Receives the events read back from a journal during recovery, in the order they were written.
+     * A handler that cannot apply an event throws, which aborts the recovery: skipping it
+     * would leave every later event applied to a different set of appointments.
+     */
+    public interface ReplayHandler {
+
+        /**
+         * Called for every journalled appointment creation.
+         * @param doctorId The ID of the selected doctor.
+         * @param patientName The patient's name.
+         * @param patientMobile The patient's mobile number.
+         * @param timeSlot The appointment time.
+         * @throws IOException if the appointment cannot be recreated.
+         */
+        void created(int doctorId, String patientName, String patientMobile, String timeSlot) throws IOException;
+
+        /**
+         * Called for every journalled cancellation.
+         * A doctor's time slot holds at most one live appointment, so it identifies the booking.
+         * @param doctorId The ID of the doctor.
+         * @param patientMobile The patient's mobile number.
+         * @param timeSlot The appointment time.
+         * @throws IOException if no such appointment is live.
+         */
+        void cancelled(int doctorId, String patientMobile, String timeSlot) throws IOException;
+
+        /**
+         * Called for every cancellation journalled by older versions, which only recorded
+         * the mobile number and always cancelled that patient's earliest booking.
+         * @param patientMobile The mobile number whose earliest booking was cancelled.
+         * @throws IOException if the patient has no booking to cancel.
+         */
+        void cancelledEarliest(String patientMobile) throws IOException;
+
+        /**
+         * Called for every journalled completion, e.g. an appointment archived once it was over.
+         * A doctor's time slot holds at most one live appointment, so it identifies the booking.
+         * @param doctorId The ID of the doctor.
+         * @param patientMobile The patient's mobile number.
+         * @param timeSlot The appointment time.
+         * @throws IOException if no such appointment is live.
+         */
+        void completed(int doctorId, String patientMobile, String timeSlot) throws IOException;
+    }
+
+    // --- Instance Variables ---
+
+    // Location of the journal file.
+    private final Path file;
+    // Requests waiting for the writer thread.
+    private final LinkedBlockingQueue<Request> queue;
+    // The single thread that writes and syncs the file.
+    private final Thread writer;
+    // Open channel positioned at the end of the file. Only used by the writer thread.
+    private FileChannel channel;
+    // First write failure; once set, every later request fails with it.
+    private volatile IOException failure;
+    // Store whose appointments are snapshotted during compaction, or null if not attached.
+    private AppointmentStore store;
+    // Number of records in the journal, maintained by the thread that owns the store.
+    private long recordCount;
+    // Completion of the most recently queued record, owned by the same thread as recordCount.
+    private CompletableFuture<Void> lastAppend;
+
+    // --- Constructors ---
+
+    /**
+     * Private constructor. Use open() instead.
+     */
+    private AppointmentJournal(Path file, FileChannel channel, long recordCount) {
+        this.file = file;
+        this.channel = channel;
+        this.recordCount = recordCount;
+        this.lastAppend = CompletableFuture.completedFuture(null);
+        this.queue = new LinkedBlockingQueue<>();
+        this.writer = new Thread(this::writeLoop, "appointment-journal-writer");
+        this.writer.setDaemon(true);
+        this.writer.start();
+    }
+
+    /**
+     * Replays an existing journal (if any) and opens it for appending.
+     * A torn record at the end of the file, left by a crash during a write, is discarded.
+     * @param file The journal file; created if it does not exist.
+     * @param handler Receives every intact event in the file.
+     * @return The open journal.
+     * @throws IOException if the file cannot be read or opened, or the handler rejects an event.
+     */
+    public static AppointmentJournal open(Path file, ReplayHandler handler) throws IOException {
+        long[] recordCount = {0};
+        long validLength = 0;
+        if (Files.exists(file)) {
+            validLength = replay(file, handler, recordCount);
+        }
+        FileChannel channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.WRITE);
+        channel.truncate(validLength);
+        channel.position(validLength);
+        return new AppointmentJournal(file, channel, recordCount[0]);
+    }
+
+    // --- Methods ---
+
+    /**
+     * Starts journalling every change made to the store.
+     * The store should already contain the replayed appointments.
+     * @param store The store to observe.
+     */
+    public void attach(AppointmentStore store) {
+        this.store = store;
+        store.addListener(this);
+    }
+
+    /**
+     * Waits until the most recently journalled change, and so every change before it,
+     * has been synced to disk. Records are group-committed, so callers that wait
+     * together share one sync.
+     * @throws IOException if the journal has failed; the change is not durable.
+     */
+    public void awaitDurable() throws IOException {
+        await(lastAppend);
+    }
+
+    /**
+     * Getter for the first write failure.
+     * @return The error that stopped the journal, or null while it is healthy.
+     */
+    public IOException getFailure() {
+        return failure;
+    }
+
+    /**
+     * Journals a newly created appointment. The record becomes durable with the next group commit.
+     * @param appointment The new appointment.
+     */
+    @Override
+    public void appointmentCreated(Appointment appointment) {
+        append(encodeCreate(appointment));
+    }
+
+    /**
+     * Journals a cancellation and compacts the journal when it has grown too large.
+     * @param appointment The cancelled appointment.
+     */
+    @Override
+    public void appointmentCancelled(Appointment appointment) {
+        append(encodeBooking(CANCEL, appointment));
+        compactIfLarge();
+    }
+
+    /**
+     * Journals a completion, so the appointment does not come back on replay,
+     * and compacts the journal when it has grown too large.
+     * @param appointment The completed appointment.
+     */
+    @Override
+    public void appointmentCompleted(Appointment appointment) {
+        append(encodeBooking(COMPLETE, appointment));
+        compactIfLarge();
+    }
+
+    /**
+     * Compacts the journal once it holds far more records than the store holds appointments.
+     */
+    private void compactIfLarge() {
+        if (store != null && recordCount >= MIN_COMPACTION_RECORDS && recordCount > 2L * store.size()) {
+            compact();
+        }
+    }
+
+    /**
+     * Queues one encoded record for the writer thread.
+     * @param record The encoded record.
+     * @return A future completed once the record has been synced to disk.
+     */
+    private CompletableFuture<Void> append(byte[] record) {
+        recordCount++;
+        lastAppend = enqueue(new Request(Request.APPEND, record, null));
+        return lastAppend;
+    }
+
+    /**
+     * Waits until every record queued so far has been synced to disk.
+     * @throws IOException if a write or sync failed.
+     */
+    public void flush() throws IOException {
+        await(enqueue(new Request(Request.SYNC, null, null)));
+    }
+
+    /**
+     * Replaces the journal with one CREATE record per live appointment of the attached store.
+     * The snapshot is taken on the calling thread; the rewrite happens on the writer thread
+     * in order with the surrounding appends.
+     * @return A future completed once the compacted journal is in place.
+     */
+    public CompletableFuture<Void> compact() {
+        List<byte[]> snapshot = new ArrayList<>(store.size());
+        for (Appointment appointment : store) {
+            snapshot.add(encodeCreate(appointment));
+        }
+        recordCount = snapshot.size();
+        return enqueue(new Request(Request.COMPACT, null, snapshot));
+    }
+
+    /**
+     * Syncs outstanding records, stops the writer thread and closes the file.
+     * @throws IOException if the final sync or close failed.
+     */
+    @Override
+    public void close() throws IOException {
+        if (store != null) {
+            store.removeListener(this);
+        }
+        // Queue the stop request even after a failure, so the writer thread always exits.
+        Request stop = new Request(Request.STOP, null, null);
+        queue.add(stop);
+        try {
+            await(stop.done);
+        } finally {
+            try {
+                writer.join();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            channel.close();
+        }
+    }
+
+    // --- Replay ---
+
+    /**
+     * Reads every intact record of a journal through memory-mapped windows.
+     * @return The length of the intact prefix of the file.
+     */
+    private static long replay(Path file, ReplayHandler handler, long[] recordCount) throws IOException {
+        try (FileChannel in = FileChannel.open(file, StandardOpenOption.READ)) {
+            long size = in.size();
+            long windowStart = 0;
+            CRC32 crc = new CRC32();
+            while (windowStart < size) {
+                long windowSize = Math.min(MAPPING_WINDOW, size - windowStart);
+                boolean reachesEnd = windowStart + windowSize == size;
+                MappedByteBuffer window = in.map(FileChannel.MapMode.READ_ONLY, windowStart, windowSize);
+
+                int offset = 0;
+                while (true) {
+                    if (offset + 4 > windowSize) {
+                        break;
+                    }
+                    int length = window.getInt(offset);
+                    if (length <= 0 || length > MAX_RECORD_LENGTH) {
+                        return windowStart + offset;
+                    }
+                    if (offset + 4L + length + 4 > windowSize) {
+                        break;
+                    }
+                    ByteBuffer body = window.duplicate();
+                    body.limit(offset + 4 + length).position(offset + 4);
+                    crc.reset();
+                    crc.update(body.duplicate());
+                    if ((int) crc.getValue() != window.getInt(offset + 4 + length)) {
+                        return windowStart + offset;
+                    }
+                    decode(body, handler);
+                    recordCount[0]++;
+                    offset += 4 + length + 4;
+                }
+                if (reachesEnd || offset == 0) {
+                    // Either the tail of the file is a torn record, or the record cannot fit any window.
+                    return windowStart + offset;
+                }
+                // Remap so the partially covered record starts the next window.
+                windowStart += offset;
+            }
+            return size;
+        }
+    }
+
+    /**
+     * Decodes one record body (type + payload) and passes it to the handler.
+     */
+    private static void decode(ByteBuffer body, ReplayHandler handler) throws IOException {
+        byte type = body.get();
+        if (type == CREATE) {
+            int doctorId = body.getInt();
+            String name = readString(body);
+            String mobile = readString(body);
+            String time = readString(body);
+            handler.created(doctorId, name, mobile, time);
+        } else if (type == CANCEL || type == COMPLETE) {
+            int doctorId = body.getInt();
+            String mobile = readString(body);
+            String time = readString(body);
+            if (type == CANCEL) {
+                handler.cancelled(doctorId, mobile, time);
+            } else {
+                handler.completed(doctorId, mobile, time);
+            }
+        } else if (type == CANCEL_EARLIEST) {
+            handler.cancelledEarliest(readString(body));
+        }
+    }
+
+    // --- Encoding ---
+
+    /**
+     * Encodes a CREATE record for an appointment.
+     */
+    private static byte[] encodeCreate(Appointment appointment) {
+        byte[] name = utf8(appointment.getPatient().getName());
+        byte[] mobile = utf8(appointment.getPatientMobile());
+        byte[] time = utf8(appointment.getTimeSlot());
+        int doctorId = appointment.getDoctor() != null ? appointment.getDoctor().getId() : 0;
+        ByteBuffer record = startRecord(CREATE, 4 + 2 + name.length + 2 + mobile.length + 2 + time.length);
+        record.putInt(doctorId);
+        putString(record, name);
+        putString(record, mobile);
+        putString(record, time);
+        return finishRecord(record);
+    }
+
+    /**
+     * Encodes a CANCEL or COMPLETE record, identifying the appointment by doctor, patient and time.
+     */
+    private static byte[] encodeBooking(byte type, Appointment appointment) {
+        byte[] mobile = utf8(appointment.getPatientMobile());
+        byte[] time = utf8(appointment.getTimeSlot());
+        int doctorId = appointment.getDoctor() != null ? appointment.getDoctor().getId() : 0;
+        ByteBuffer record = startRecord(type, 4 + 2 + mobile.length + 2 + time.length);
+        record.putInt(doctorId);
+        putString(record, mobile);
+        putString(record, time);
+        return finishRecord(record);
+    }
+
+    /**
+     * Allocates a record buffer and writes its length and type.
+     */
+    private static ByteBuffer startRecord(byte type, int payloadLength) {
+        ByteBuffer record = ByteBuffer.allocate(4 + 1 + payloadLength + 4);
+        record.putInt(1 + payloadLength);
+        record.put(type);
+        return record;
+    }
+
+    /**
+     * Appends the CRC of the type and payload and returns the finished record.
+     */
+    private static byte[] finishRecord(ByteBuffer record) {
+        CRC32 crc = new CRC32();
+        crc.update(record.array(), 4, record.position() - 4);
+        record.putInt((int) crc.getValue());
+        return record.array();
+    }
+
+    /**
+     * Converts a string to UTF-8, rejecting strings too long for the record format.
+     */
+    private static byte[] utf8(String text) {
+        byte[] bytes = (text == null ? "" : text).getBytes(StandardCharsets.UTF_8);
+        if (bytes.length > 0xFFFF) {
+            throw new IllegalArgumentException("Journal field too long: " + bytes.length + " bytes");
+        }
+        return bytes;
+    }
+
+    /**
+     * Writes a length-prefixed UTF-8 string.
+     */
+    private static void putString(ByteBuffer out, byte[] bytes) {
+        out.putShort((short) bytes.length);
+        out.put(bytes);
+    }
+
+    /**
+     * Reads a length-prefixed UTF-8 string.
+     */
+    private static String readString(ByteBuffer in) {
+        int length = in.getShort() & 0xFFFF;
+        byte[] bytes = new byte[length];
+        in.get(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    // --- Writer Thread ---
+
+    /**
+     * Hands a request to the writer thread, failing it immediately after an earlier write error.
+     */
+    private CompletableFuture<Void> enqueue(Request request) {
+        IOException error = failure;
+        if (error != null) {
+            request.done.completeExceptionally(error);
+        } else {
+            queue.add(request);
+        }
+        return request.done;
+    }
+
+    /**
+     * Drains the queue in batches: appends are written together and synced once per batch.
+     */
+    private void writeLoop() {
+        List<Request> batch = new ArrayList<>();
+        List<Request> pending = new ArrayList<>();
+        ByteBuffer buffer = ByteBuffer.allocate(64 * 1024);
+        boolean running = true;
+        while (running) {
+            try {
+                batch.add(queue.take());
+            } catch (InterruptedException e) {
+                running = false;
+            }
+            queue.drainTo(batch, MAX_BATCH - batch.size());
+            for (Request request : batch) {
+                if (request.kind == Request.APPEND) {
+                    if (buffer.remaining() < request.record.length) {
+                        buffer = writeOut(buffer, request.record.length);
+                    }
+                    buffer.put(request.record);
+                    pending.add(request);
+                    continue;
+                }
+                // Every other request first needs the records before it on disk.
+                pending.add(request);
+                commit(buffer, pending);
+                if (request.kind == Request.COMPACT && failure == null) {
+                    rewrite(request.snapshot, request);
+                }
+                if (request.kind == Request.STOP) {
+                    running = false;
+                }
+            }
+            commit(buffer, pending);
+            batch.clear();
+        }
+        IOException error = failure != null ? failure : new IOException("Journal is closed");
+        for (Request request : queue) {
+            request.done.completeExceptionally(error);
+        }
+    }
+
+    /**
+     * Writes the buffered records, syncs once and completes every pending request.
+     */
+    private void commit(ByteBuffer buffer, List<Request> pending) {
+        if (pending.isEmpty()) {
+            return;
+        }
+        try {
+            if (failure == null) {
+                writeOut(buffer, 0);
+                channel.force(false);
+            }
+        } catch (IOException e) {
+            failure = e;
+        }
+        buffer.clear();
+        for (Request request : pending) {
+            if (failure != null) {
+                request.done.completeExceptionally(failure);
+            } else if (request.kind != Request.COMPACT) {
+                request.done.complete(null);
+            }
+        }
+        pending.clear();
+    }
+
+    /**
+     * Writes the buffer to the channel and returns a buffer with room for 'needed' more bytes.
+     */
+    private ByteBuffer writeOut(ByteBuffer buffer, int needed) {
+        buffer.flip();
+        try {
+            while (buffer.hasRemaining() && failure == null) {
+                channel.write(buffer);
+            }
+        } catch (IOException e) {
+            failure = e;
+        }
+        buffer.clear();
+        if (needed > buffer.capacity()) {
+            return ByteBuffer.allocate(needed);
+        }
+        return buffer;
+    }
+
+    /**
+     * Writes a snapshot to a temporary file and atomically swaps it in place of the journal.
+     */
+    private void rewrite(List<byte[]> snapshot, Request request) {
+        Path compacted = file.resolveSibling(file.getFileName() + ".compact");
+        try {
+            try (FileChannel out = FileChannel.open(compacted, StandardOpenOption.CREATE,
+                    StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+                for (byte[] record : snapshot) {
+                    ByteBuffer data = ByteBuffer.wrap(record);
+                    while (data.hasRemaining()) {
+                        out.write(data);
+                    }
+                }
+                out.force(false);
+            }
+            channel.close();
+            Files.move(compacted, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            channel = FileChannel.open(file, StandardOpenOption.WRITE);
+            channel.position(channel.size());
+            request.done.complete(null);
+        } catch (IOException e) {
+            failure = e;
+            request.done.completeExceptionally(e);
+        }
+    }
+
+    /**
+     * Blocks until a future completes, unwrapping an IOException failure.
+     */
+    private static void await(CompletableFuture<Void> future) throws IOException {
+        try {
+            future.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException("Interrupted while waiting for the journal", e);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof IOException) {
+                throw (IOException) e.getCause();
+            }
+            throw new IOException(e.getCause());
+        }
+    }
+
+    // --- Nested Types ---
+
+    /**
+     * A unit of work for the writer thread.
+     */
+    private static final class Request {
+        // Append 'record' to the journal.
+        private static final int APPEND = 0;
+        // Complete once everything queued before it is durable.
+        private static final int SYNC = 1;
+        // Replace the journal with 'snapshot'.
+        private static final int COMPACT = 2;
+        // Sync and stop the writer thread.
+        private static final int STOP = 3;
+
+        private final int kind;
+        private final byte[] record;
+        private final List<byte[]> snapshot;
+        private final CompletableFuture<Void> done;
+
+        private Request(int kind, byte[] record, List<byte[]> snapshot) {
+            this.kind = kind;
+            this.record = record;
+            this.snapshot = snapshot;
+            this.done = new CompletableFuture<>();
+        }
+    }
+}
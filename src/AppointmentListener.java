@@ -0,0 +1,27 @@
+/**
+ * Receives a callback whenever an AppointmentStore adds, cancels or completes an appointment.
+ * Listeners run synchronously on the thread that modified the store, after the
+ * store has been updated, so they must be quick and must not modify the store.
+ */
+public interface AppointmentListener {
+
+    /**
+     * Called after an appointment has been added to the store.
+     * @param appointment The new appointment.
+     */
+    void appointmentCreated(Appointment appointment);
+
+    /**
+     * Called after an appointment has been cancelled and removed from the store.
+     * @param appointment The cancelled appointment.
+     */
+    void appointmentCancelled(Appointment appointment);
+
+    /**
+     * Called after an appointment has taken place and been moved out of the store,
+     * e.g. into an archive. Does nothing unless overridden.
+     * @param appointment The completed appointment.
+     */
+    default void appointmentCompleted(Appointment appointment) {
+    }
+}
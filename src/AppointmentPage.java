@@ -0,0 +1,57 @@
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * One page of a paged appointment listing.
+ * Pass getNextCursor() back to the store to continue after the last appointment of this page.
+ */
+public class AppointmentPage {
+
+    // Cursor value that starts a listing from the first appointment.
+    public static final long FIRST_PAGE = 0;
+
+    // --- Instance Variables ---
+
+    // The appointments on this page, in booking order.
+    private final List<Appointment> appointments;
+    // Cursor for the following page, or -1 when this is the last page.
+    private final long nextCursor;
+
+    // --- Constructor ---
+
+    /**
+     * Parameterized constructor.
+     * @param appointments The appointments on this page, in booking order.
+     * @param nextCursor The cursor for the following page, or -1 if there is none.
+     */
+    public AppointmentPage(List<Appointment> appointments, long nextCursor) {
+        this.appointments = Collections.unmodifiableList(appointments);
+        this.nextCursor = nextCursor;
+    }
+
+    // --- Getters ---
+
+    /**
+     * Getter for the appointments on this page.
+     * @return A read-only list of appointments.
+     */
+    public List<Appointment> getAppointments() {
+        return appointments;
+    }
+
+    /**
+     * Getter for the cursor of the following page.
+     * @return The cursor, or -1 when this is the last page.
+     */
+    public long getNextCursor() {
+        return nextCursor;
+    }
+
+    /**
+     * Checks whether more matching appointments follow this page.
+     * @return True if getNextCursor() can be used to fetch another page.
+     */
+    public boolean hasNextPage() {
+        return nextCursor >= 0;
+    }
+}
@@ -0,0 +1,162 @@
+/**
+ * Describes which appointments a listing should return.
+ * Every filter is optional; an empty query matches every appointment.
+ * Filters are combined with AND and set through chainable methods, e.g.
+ * new AppointmentQuery().forDoctor(2).between("09:00", "12:00").
+ */
+public class AppointmentQuery {
+
+    // Marker for "no doctor filter".
+    public static final int ANY_DOCTOR = Integer.MIN_VALUE;
+
+    // --- Instance Variables ---
+
+    // Only appointments with this doctor ID, or ANY_DOCTOR.
+    private int doctorId;
+    // Only appointments whose doctor is an instance of this type, or null for any type.
+    private Class<? extends HealthProfessional> professionType;
+    // Only appointments starting at or after this minute of the day.
+    private int fromMinute;
+    // Only appointments starting before this minute of the day.
+    private int toMinute;
+    // Only appointments of the patient with this normalised mobile number, or null for any patient.
+    private String patientMobile;
+
+    // --- Constructors ---
+
+    /**
+     * Default constructor. Creates a query that matches every appointment.
+     */
+    public AppointmentQuery() {
+        this.doctorId = ANY_DOCTOR;
+        this.professionType = null;
+        this.fromMinute = 0;
+        this.toMinute = SlotCalendar.MINUTES_PER_DAY;
+        this.patientMobile = null;
+    }
+
+    // --- Filter Methods ---
+
+    /**
+     * Restricts the query to one doctor.
+     * @param doctorId The ID of the doctor.
+     * @return This query, for chaining.
+     */
+    public AppointmentQuery forDoctor(int doctorId) {
+        this.doctorId = doctorId;
+        return this;
+    }
+
+    /**
+     * Restricts the query to doctors of one profession type.
+     * @param professionType The HealthProfessional subclass, e.g. Cardiologist.class.
+     * @return This query, for chaining.
+     */
+    public AppointmentQuery ofType(Class<? extends HealthProfessional> professionType) {
+        this.professionType = professionType;
+        return this;
+    }
+
+    /**
+     * Restricts the query to appointments starting in [from, to).
+     * @param from The earliest start time, e.g. "09:00".
+     * @param to The time before which appointments must start, e.g. "12:00".
+     * @return This query, for chaining.
+     * @throws IllegalArgumentException if either time is not in HH:mm format.
+     */
+    public AppointmentQuery between(String from, String to) {
+        int fromParsed = SlotCalendar.parseTime(from);
+        int toParsed = SlotCalendar.parseTime(to);
+        if (fromParsed < 0 || toParsed < 0) {
+            throw new IllegalArgumentException("Invalid time range " + from + " - " + to);
+        }
+        this.fromMinute = fromParsed;
+        this.toMinute = toParsed;
+        return this;
+    }
+
+    /**
+     * Restricts the query to one patient.
+     * @param patientMobile The patient's mobile number.
+     * @return This query, for chaining.
+     */
+    public AppointmentQuery forPatient(String patientMobile) {
+        this.patientMobile = PatientRegistry.normaliseMobile(patientMobile);
+        return this;
+    }
+
+    // --- Methods ---
+
+    /**
+     * Checks whether an appointment passes every filter of this query.
+     * @param appointment The appointment to test.
+     * @return True if the appointment matches.
+     */
+    public boolean matches(Appointment appointment) {
+        HealthProfessional doctor = appointment.getDoctor();
+        if (doctorId != ANY_DOCTOR && (doctor == null || doctor.getId() != doctorId)) {
+            return false;
+        }
+        if (professionType != null && !professionType.isInstance(doctor)) {
+            return false;
+        }
+        if (hasTimeRange()) {
+            int minute = SlotCalendar.parseTime(appointment.getTimeSlot());
+            if (minute < fromMinute || minute >= toMinute) {
+                return false;
+            }
+        }
+        return patientMobile == null
+                || patientMobile.equals(PatientRegistry.normaliseMobile(appointment.getPatientMobile()));
+    }
+
+    /**
+     * Checks whether the query narrows the time of day.
+     * @return True if a time range other than the whole day is set.
+     */
+    public boolean hasTimeRange() {
+        return fromMinute > 0 || toMinute < SlotCalendar.MINUTES_PER_DAY;
+    }
+
+    // --- Getters ---
+
+    /**
+     * Getter for the doctor filter.
+     * @return The doctor ID, or ANY_DOCTOR.
+     */
+    public int getDoctorId() {
+        return doctorId;
+    }
+
+    /**
+     * Getter for the profession type filter.
+     * @return The profession type, or null for any type.
+     */
+    public Class<? extends HealthProfessional> getProfessionType() {
+        return professionType;
+    }
+
+    /**
+     * Getter for the start of the time range.
+     * @return The earliest start minute (inclusive).
+     */
+    public int getFromMinute() {
+        return fromMinute;
+    }
+
+    /**
+     * Getter for the end of the time range.
+     * @return The latest start minute (exclusive).
+     */
+    public int getToMinute() {
+        return toMinute;
+    }
+
+    /**
+     * Getter for the patient filter.
+     * @return The patient's normalised mobile number, or null for any patient.
+     */
+    public String getPatientMobile() {
+        return patientMobile;
+    }
+}
@@ -0,0 +1,252 @@
+import java.util.IdentityHashMap;
+
+/**
+ * Sends appointment reminders and retires appointments once they are over.
+ * Attached to an AppointmentStore as a listener, it files two timers per
+ * appointment on TimingWheels keyed by the parsed time slot: a reminder a fixed
+ * lead time before the start, and an expiry when the consultation ends. When
+ * the clock is advanced, reminders go to the ReminderNotifier and expired
+ * appointments are moved out of the store into a compact archive, freeing their
+ * calendar slot for the next day. Each tick costs constant time plus the timers
+ * that fire, however many appointments are booked.
+ *
+ * Time is a count of minutes: minute m is minute (m % 1440) of day (m / 1440).
+ * Time slots carry no date, so an appointment is placed at the next occurrence
+ * of its time slot that has not yet ended when it is booked.
+ * Not thread-safe; use from the thread that modifies the store.
+ */
+public class AppointmentScheduler implements AppointmentListener {
+
+    // --- Instance Variables ---
+
+    // The store whose appointments are scheduled and retired.
+    private final AppointmentStore store;
+    // Roster used to look up consultation lengths and calendars.
+    private final DoctorRegistry registry;
+    // Receives the reminders.
+    private final ReminderNotifier notifier;
+    // Minutes before the start at which the reminder is sent.
+    private final int leadMinutes;
+    // Timers firing reminders.
+    private final TimingWheel<Appointment> reminders;
+    // Timers retiring appointments once their consultation has ended.
+    private final TimingWheel<Appointment> expiries;
+    // Scheduled appointment -> its timers. Keyed by identity, like the store.
+    private final IdentityHashMap<Appointment, Timers> scheduled;
+    // Completed appointments, stored compactly.
+    private final CompactAppointmentStore archive;
+
+    // --- Constructors ---
+
+    /**
+     * Parameterized constructor. Appointments already in the store are not scheduled
+     * until passed to scheduleAll.
+     * @param store The store to retire appointments from.
+     * @param registry The roster of the store.
+     * @param notifier Receives the reminders.
+     * @param leadMinutes Minutes before the start at which reminders are sent.
+     * @param currentMinute The current time, in minutes since the start of day 0.
+     * @throws IllegalArgumentException if leadMinutes or currentMinute is negative.
+     */
+    public AppointmentScheduler(AppointmentStore store, DoctorRegistry registry, ReminderNotifier notifier,
+                                int leadMinutes, long currentMinute) {
+        if (leadMinutes < 0) {
+            throw new IllegalArgumentException("Invalid reminder lead time: " + leadMinutes);
+        }
+        if (currentMinute < 0) {
+            throw new IllegalArgumentException("Invalid current minute: " + currentMinute);
+        }
+        this.store = store;
+        this.registry = registry;
+        this.notifier = notifier;
+        this.leadMinutes = leadMinutes;
+        this.reminders = new TimingWheel<>(currentMinute);
+        this.expiries = new TimingWheel<>(currentMinute);
+        this.scheduled = new IdentityHashMap<>();
+        this.archive = new CompactAppointmentStore(registry);
+    }
+
+    // --- Methods ---
+
+    /**
+     * Schedules appointments that were booked before the scheduler was attached.
+     * @param appointments The appointments, e.g. the store itself.
+     */
+    public void scheduleAll(Iterable<Appointment> appointments) {
+        for (Appointment appointment : appointments) {
+            appointmentCreated(appointment);
+        }
+    }
+
+    /**
+     * Advances the clock, sending the reminders due so far and then retiring
+     * every appointment whose consultation has ended.
+     * @param minute The new current time, in minutes since the start of day 0.
+     * @return The number of appointments moved to the archive.
+     * @throws IllegalArgumentException if the minute is earlier than the current time.
+     */
+    public int advanceTo(long minute) {
+        if (minute < getCurrentMinute()) {
+            throw new IllegalArgumentException("Clock cannot go back from " + getCurrentMinute() + " to " + minute);
+        }
+        reminders.advanceTo(minute, this::remind);
+        int archived = archive.size();
+        expiries.advanceTo(minute, this::expire);
+        return archive.size() - archived;
+    }
+
+    /**
+     * Schedules the reminder and expiry of a new appointment.
+     * Appointments with an unparsable time slot are not scheduled.
+     * @param appointment The new appointment.
+     */
+    @Override
+    public void appointmentCreated(Appointment appointment) {
+        int startMinute = SlotCalendar.parseTime(appointment.getTimeSlot());
+        if (startMinute < 0 || scheduled.containsKey(appointment)) {
+            return;
+        }
+        long now = getCurrentMinute();
+        long start = now - now % SlotCalendar.MINUTES_PER_DAY + startMinute;
+        long end = start + consultationMinutes(appointment.getDoctor());
+        if (end <= now) {
+            // Today's occurrence is already over: the booking is for tomorrow.
+            start += SlotCalendar.MINUTES_PER_DAY;
+            end += SlotCalendar.MINUTES_PER_DAY;
+        }
+        Timers timers = new Timers(start);
+        if (start > now) {
+            timers.reminder = reminders.schedule(start - leadMinutes, appointment);
+        }
+        timers.expiry = expiries.schedule(end, appointment);
+        scheduled.put(appointment, timers);
+    }
+
+    /**
+     * Cancels the timers of a cancelled appointment.
+     * @param appointment The cancelled appointment.
+     */
+    @Override
+    public void appointmentCancelled(Appointment appointment) {
+        unschedule(appointment);
+    }
+
+    /**
+     * Cancels the timers of an appointment completed by someone else.
+     * @param appointment The completed appointment.
+     */
+    @Override
+    public void appointmentCompleted(Appointment appointment) {
+        unschedule(appointment);
+    }
+
+    // --- Getters ---
+
+    /**
+     * Getter for the current time.
+     * @return The last minute the clock was advanced to.
+     */
+    public long getCurrentMinute() {
+        return expiries.getCurrentTick();
+    }
+
+    /**
+     * Getter for the reminder lead time.
+     * @return Minutes before the start at which reminders are sent.
+     */
+    public int getLeadMinutes() {
+        return leadMinutes;
+    }
+
+    /**
+     * Getter for the number of appointments waiting to expire.
+     * @return The scheduled appointment count.
+     */
+    public int getScheduledCount() {
+        return scheduled.size();
+    }
+
+    /**
+     * Getter for the archive of completed appointments.
+     * @return The archive, in order of expiry.
+     */
+    public CompactAppointmentStore getArchive() {
+        return archive;
+    }
+
+    // --- Helper Methods ---
+
+    /**
+     * Sends the reminder of an appointment whose reminder timer fired.
+     */
+    private void remind(Appointment appointment) {
+        Timers timers = scheduled.get(appointment);
+        if (timers != null) {
+            timers.reminder = null;
+            notifier.remind(appointment, (int) (timers.start - reminders.getCurrentTick()));
+        }
+    }
+
+    /**
+     * Moves an appointment whose consultation has ended from the store into the archive.
+     */
+    private void expire(Appointment appointment) {
+        Timers timers = scheduled.remove(appointment);
+        if (timers == null) {
+            return;
+        }
+        if (timers.reminder != null) {
+            reminders.cancel(timers.reminder);
+        }
+        if (!store.complete(appointment)) {
+            return;
+        }
+        archive.add(appointment);
+        HealthProfessional doctor = appointment.getDoctor();
+        SlotCalendar calendar = doctor == null ? null : registry.calendarOf(doctor.getId());
+        if (calendar != null) {
+            // The slot is free again for the same time on the next day.
+            calendar.release(SlotCalendar.parseTime(appointment.getTimeSlot()));
+        }
+    }
+
+    /**
+     * Cancels any pending timers of an appointment.
+     */
+    private void unschedule(Appointment appointment) {
+        Timers timers = scheduled.remove(appointment);
+        if (timers == null) {
+            return;
+        }
+        if (timers.reminder != null) {
+            reminders.cancel(timers.reminder);
+        }
+        expiries.cancel(timers.expiry);
+    }
+
+    /**
+     * Returns the length of a consultation with a doctor, from the doctor's calendar.
+     */
+    private int consultationMinutes(HealthProfessional doctor) {
+        SlotCalendar calendar = doctor == null ? null : registry.calendarOf(doctor.getId());
+        return calendar != null ? calendar.getConsultationMinutes() : SlotCalendar.DEFAULT_CONSULTATION_MINUTES;
+    }
+
+    // --- Nested Types ---
+
+    /**
+     * The start time and pending timers of one scheduled appointment.
+     */
+    private static final class Timers {
+        // Minute at which the appointment starts.
+        private final long start;
+        // Pending reminder, or null once sent or if none is due.
+        private TimingWheel.Timer<Appointment> reminder;
+        // Pending expiry.
+        private TimingWheel.Timer<Appointment> expiry;
+
+        private Timers(long start) {
+            this.start = start;
+        }
+    }
+}
@@ -0,0 +1,649 @@
+import java.util.AbstractMap;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.PriorityQueue;
+import java.util.TreeMap;
+
+/**
+ * Stores appointments in booking order and indexes them by patient mobile,
+ * doctor ID (also grouped by the doctor's type) and time slot.
+ * Cancellation does not shift the list: the cancelled entry is replaced by a
+ * tombstone (null) and the array is compacted only once tombstones outnumber
+ * the live appointments, so removal is amortised constant time.
+ * Every appointment receives a booking number that increases monotonically,
+ * which keeps the display order stable across compactions and serves as the
+ * cursor for paged listings. Registered AppointmentListeners are notified of
+ * every addition, cancellation and completion.
+ */
+public class AppointmentStore implements Iterable<Appointment> {
+
+    // --- Instance Variables ---
+
+    // Appointments in booking order. Cancelled entries are null (tombstones).
+    private Appointment[] slots;
+    // Booking number of each entry in 'slots'; always sorted ascending.
+    private long[] bookingNumbers;
+    // Number of used entries in 'slots', including tombstones.
+    private int used;
+    // Number of live (not cancelled) appointments.
+    private int live;
+    // Booking number handed to the next appointment.
+    private long nextBookingNumber;
+
+    // Index: normalised patient mobile -> booking numbers of that patient's live appointments, oldest first.
+    private final HashMap<String, ArrayDeque<Long>> byMobile;
+    // Index: doctor ID -> live appointments of that doctor, keyed by booking number.
+    private final IntObjectMap<TreeMap<Long, Appointment>> byDoctor;
+    // Index: concrete doctor class -> doctor ID -> the same per-doctor maps as 'byDoctor'.
+    private final HashMap<Class<? extends HealthProfessional>, HashMap<Integer, TreeMap<Long, Appointment>>> byDoctorType;
+    // Index: start minute of the day -> live appointments at that time, keyed by booking number.
+    private final TreeMap<Integer, TreeMap<Long, Appointment>> byStartMinute;
+    // Observers notified after every addition and cancellation.
+    private final ArrayList<AppointmentListener> listeners;
+
+    // --- Constructors ---
+
+    /**
+     * Default constructor. Creates an empty store.
+     */
+    public AppointmentStore() {
+        this.slots = new Appointment[16];
+        this.bookingNumbers = new long[16];
+        this.used = 0;
+        this.live = 0;
+        this.nextBookingNumber = 1;
+        this.byMobile = new HashMap<>();
+        this.byDoctor = new IntObjectMap<>();
+        this.byDoctorType = new HashMap<>();
+        this.byStartMinute = new TreeMap<>();
+        this.listeners = new ArrayList<>();
+    }
+
+    // --- Methods ---
+
+    /**
+     * Appends an appointment to the end of the booking order and indexes it.
+     * @param appointment The appointment to add. Must have a patient.
+     * @return The booking number assigned to the appointment.
+     */
+    public long add(Appointment appointment) {
+        if (appointment == null || appointment.getPatient() == null) {
+            throw new IllegalArgumentException("Appointment must have a patient");
+        }
+        if (used == slots.length) {
+            grow();
+        }
+        long bookingNumber = nextBookingNumber++;
+        slots[used] = appointment;
+        bookingNumbers[used] = bookingNumber;
+        used++;
+        live++;
+
+        byMobile.computeIfAbsent(PatientRegistry.normaliseMobile(appointment.getPatientMobile()),
+                k -> new ArrayDeque<>()).addLast(bookingNumber);
+        HealthProfessional doctor = appointment.getDoctor();
+        if (doctor != null) {
+            TreeMap<Long, Appointment> doctorAppointments = byDoctor.get(doctor.getId());
+            if (doctorAppointments == null) {
+                doctorAppointments = new TreeMap<>();
+                byDoctor.put(doctor.getId(), doctorAppointments);
+                byDoctorType.computeIfAbsent(doctor.getClass(), k -> new HashMap<>())
+                        .put(doctor.getId(), doctorAppointments);
+            }
+            doctorAppointments.put(bookingNumber, appointment);
+        }
+        byStartMinute.computeIfAbsent(SlotCalendar.parseTime(appointment.getTimeSlot()), k -> new TreeMap<>())
+                .put(bookingNumber, appointment);
+        for (AppointmentListener listener : listeners) {
+            listener.appointmentCreated(appointment);
+        }
+        return bookingNumber;
+    }
+
+    /**
+     * Appends several appointments in one step, growing the backing arrays at most once.
+     * @param appointments The appointments to add, in booking order. Each must have a patient.
+     */
+    public void addAll(List<Appointment> appointments) {
+        int required = used + appointments.size();
+        if (required > slots.length) {
+            int capacity = Math.max(required, slots.length * 2);
+            slots = Arrays.copyOf(slots, capacity);
+            bookingNumbers = Arrays.copyOf(bookingNumbers, capacity);
+        }
+        for (Appointment appointment : appointments) {
+            add(appointment);
+        }
+    }
+
+    /**
+     * Cancels the earliest booked live appointment of the patient with the given mobile number.
+     * Mobile numbers are compared after PatientRegistry.normaliseMobile.
+     * @param mobileNumber The patient's mobile number.
+     * @return The cancelled appointment, or null if the patient has no appointment.
+     */
+    public Appointment cancelByMobile(String mobileNumber) {
+        String key = PatientRegistry.normaliseMobile(mobileNumber);
+        ArrayDeque<Long> patientBookings = byMobile.get(key);
+        if (patientBookings == null) {
+            return null;
+        }
+        long bookingNumber = patientBookings.pollFirst();
+        if (patientBookings.isEmpty()) {
+            byMobile.remove(key);
+        }
+
+        Appointment cancelled = removeAt(positionOf(bookingNumber), bookingNumber);
+        for (AppointmentListener listener : listeners) {
+            listener.appointmentCancelled(cancelled);
+        }
+        return cancelled;
+    }
+
+    /**
+     * Removes an appointment that has taken place, e.g. to move it into an archive.
+     * The appointment is located through its patient's bookings, so the cost does not
+     * depend on the size of the store. Listeners receive appointmentCompleted.
+     * @param appointment The live appointment to remove (compared by identity).
+     * @return True if it was removed, false if it is not a live appointment of this store.
+     */
+    public boolean complete(Appointment appointment) {
+        if (!remove(appointment)) {
+            return false;
+        }
+        for (AppointmentListener listener : listeners) {
+            listener.appointmentCompleted(appointment);
+        }
+        return true;
+    }
+
+    /**
+     * Cancels one specific appointment, which need not be its patient's earliest.
+     * Located like complete(); listeners receive appointmentCancelled.
+     * @param appointment The live appointment to cancel (compared by identity).
+     * @return True if it was cancelled, false if it is not a live appointment of this store.
+     */
+    public boolean cancel(Appointment appointment) {
+        if (!remove(appointment)) {
+            return false;
+        }
+        for (AppointmentListener listener : listeners) {
+            listener.appointmentCancelled(appointment);
+        }
+        return true;
+    }
+
+    /**
+     * Finds the earliest booked live appointment of a patient.
+     * @param mobileNumber The patient's mobile number.
+     * @return The appointment, or null if the patient has no appointment.
+     */
+    public Appointment findByMobile(String mobileNumber) {
+        ArrayDeque<Long> patientBookings = byMobile.get(PatientRegistry.normaliseMobile(mobileNumber));
+        if (patientBookings == null) {
+            return null;
+        }
+        return slots[positionOf(patientBookings.peekFirst())];
+    }
+
+    /**
+     * Returns the live appointments of a doctor in booking order.
+     * @param doctorId The ID of the doctor.
+     * @return A read-only list of the doctor's appointments (empty if none).
+     */
+    public List<Appointment> findByDoctor(int doctorId) {
+        TreeMap<Long, Appointment> doctorAppointments = byDoctor.get(doctorId);
+        if (doctorAppointments == null) {
+            return Collections.emptyList();
+        }
+        return Collections.unmodifiableList(new ArrayList<>(doctorAppointments.values()));
+    }
+
+    /**
+     * Returns the live appointments booked at the given time slot in booking order.
+     * @param timeSlot The appointment time, e.g. "09:30".
+     * @return A read-only list of the appointments at that time (empty if none).
+     */
+    public List<Appointment> findByTimeSlot(String timeSlot) {
+        TreeMap<Long, Appointment> slotAppointments = byStartMinute.get(SlotCalendar.parseTime(timeSlot));
+        if (slotAppointments == null) {
+            return Collections.emptyList();
+        }
+        return Collections.unmodifiableList(new ArrayList<>(slotAppointments.values()));
+    }
+
+    /**
+     * Returns one page of the appointments matching a query, in booking order.
+     * Only the appointments on the page (and the next match, to detect whether
+     * another page exists) are visited when the query filters by patient, doctor,
+     * time range or profession type, because those filters are answered from the indexes.
+     * @param query The filters to apply.
+     * @param cursor AppointmentPage.FIRST_PAGE, or the next cursor of the previous page.
+     * @param limit The maximum number of appointments on the page.
+     * @return The page of matching appointments.
+     */
+    public AppointmentPage query(AppointmentQuery query, long cursor, int limit) {
+        if (limit <= 0) {
+            throw new IllegalArgumentException("Page limit must be positive: " + limit);
+        }
+        MatchIterator matches = new MatchIterator(query, cursor);
+        List<Appointment> page = new ArrayList<>(Math.min(limit, 64));
+        while (page.size() < limit && matches.hasNext()) {
+            page.add(matches.next());
+        }
+        long nextCursor = matches.hasNext() ? matches.lastBookingNumber : -1;
+        return new AppointmentPage(page, nextCursor);
+    }
+
+    /**
+     * Lazily iterates the appointments matching a query, in booking order.
+     * Matches are found one at a time as the iterator advances.
+     * The store must not be modified while the iterator is in use.
+     * @param query The filters to apply.
+     * @return An iterator over the matching appointments.
+     */
+    public Iterator<Appointment> stream(AppointmentQuery query) {
+        return new MatchIterator(query, AppointmentPage.FIRST_PAGE);
+    }
+
+    /**
+     * Registers a listener to be notified of every later addition, cancellation and completion.
+     * @param listener The listener to add.
+     */
+    public void addListener(AppointmentListener listener) {
+        listeners.add(listener);
+    }
+
+    /**
+     * Unregisters a previously added listener.
+     * @param listener The listener to remove.
+     */
+    public void removeListener(AppointmentListener listener) {
+        listeners.remove(listener);
+    }
+
+    /**
+     * Getter for the number of live appointments.
+     * @return The appointment count.
+     */
+    public int size() {
+        return live;
+    }
+
+    /**
+     * Checks whether the store holds no live appointments.
+     * @return True if there are no appointments.
+     */
+    public boolean isEmpty() {
+        return live == 0;
+    }
+
+    /**
+     * Copies the live appointments into an array, e.g. for parallel processing.
+     * @return A new array of the live appointments in booking order.
+     */
+    public Appointment[] toArray() {
+        Appointment[] appointments = new Appointment[live];
+        int count = 0;
+        for (int i = 0; i < used; i++) {
+            if (slots[i] != null) {
+                appointments[count++] = slots[i];
+            }
+        }
+        return appointments;
+    }
+
+    /**
+     * Iterates the live appointments in booking order, skipping tombstones.
+     * The store must not be modified while the iterator is in use.
+     * @return An iterator over the live appointments.
+     */
+    @Override
+    public Iterator<Appointment> iterator() {
+        return new Iterator<Appointment>() {
+            private int next = skipTombstones(0);
+
+            @Override
+            public boolean hasNext() {
+                return next < used;
+            }
+
+            @Override
+            public Appointment next() {
+                if (next >= used) {
+                    throw new NoSuchElementException();
+                }
+                Appointment appointment = slots[next];
+                next = skipTombstones(next + 1);
+                return appointment;
+            }
+        };
+    }
+
+    // --- Helper Methods ---
+
+    /**
+     * Picks the most selective index for a query and returns its entries after the cursor,
+     * as (booking number, appointment) pairs in booking order.
+     */
+    private Iterator<Map.Entry<Long, Appointment>> candidates(AppointmentQuery query, long cursor) {
+        if (query.getPatientMobile() != null) {
+            ArrayDeque<Long> patientBookings = byMobile.get(query.getPatientMobile());
+            if (patientBookings == null) {
+                return Collections.emptyIterator();
+            }
+            return patientBookingsAfter(patientBookings, cursor);
+        }
+        if (query.getDoctorId() != AppointmentQuery.ANY_DOCTOR) {
+            TreeMap<Long, Appointment> doctorAppointments = byDoctor.get(query.getDoctorId());
+            if (doctorAppointments == null) {
+                return Collections.emptyIterator();
+            }
+            return doctorAppointments.tailMap(cursor, false).entrySet().iterator();
+        }
+        if (query.hasTimeRange()) {
+            return mergeByBookingNumber(byStartMinute.subMap(query.getFromMinute(), true, query.getToMinute(), false)
+                    .values(), cursor);
+        }
+        if (query.getProfessionType() != null) {
+            // Merge the bookings of every doctor of a matching type, e.g. the subclasses of an abstract type.
+            List<TreeMap<Long, Appointment>> doctorAppointments = new ArrayList<>();
+            for (Map.Entry<Class<? extends HealthProfessional>, HashMap<Integer, TreeMap<Long, Appointment>>> type
+                    : byDoctorType.entrySet()) {
+                if (query.getProfessionType().isAssignableFrom(type.getKey())) {
+                    doctorAppointments.addAll(type.getValue().values());
+                }
+            }
+            return mergeByBookingNumber(doctorAppointments, cursor);
+        }
+        return scanAfter(cursor);
+    }
+
+    /**
+     * Iterates a patient's booking numbers greater than the cursor, looking up each appointment
+     * only when it is reached.
+     */
+    private Iterator<Map.Entry<Long, Appointment>> patientBookingsAfter(ArrayDeque<Long> patientBookings,
+                                                                        long cursor) {
+        Iterator<Long> bookings = patientBookings.iterator();
+        return new Iterator<Map.Entry<Long, Appointment>>() {
+            // The next booking number after the cursor, or -1 once the bookings are exhausted.
+            private long next = advance();
+
+            private long advance() {
+                while (bookings.hasNext()) {
+                    long bookingNumber = bookings.next();
+                    if (bookingNumber > cursor) {
+                        return bookingNumber;
+                    }
+                }
+                return -1;
+            }
+
+            @Override
+            public boolean hasNext() {
+                return next != -1;
+            }
+
+            @Override
+            public Map.Entry<Long, Appointment> next() {
+                if (next == -1) {
+                    throw new NoSuchElementException();
+                }
+                Map.Entry<Long, Appointment> entry =
+                        new AbstractMap.SimpleImmutableEntry<>(next, slots[positionOf(next)]);
+                next = advance();
+                return entry;
+            }
+        };
+    }
+
+    /**
+     * Merges several booking-number-ordered maps into one booking-ordered stream of entries.
+     */
+    private static Iterator<Map.Entry<Long, Appointment>> mergeByBookingNumber(
+            Iterable<TreeMap<Long, Appointment>> sources, long cursor) {
+        PriorityQueue<PeekingIterator> heads = new PriorityQueue<>(
+                (a, b) -> Long.compare(a.head.getKey(), b.head.getKey()));
+        for (TreeMap<Long, Appointment> source : sources) {
+            Iterator<Map.Entry<Long, Appointment>> iterator = source.tailMap(cursor, false).entrySet().iterator();
+            if (iterator.hasNext()) {
+                heads.add(new PeekingIterator(iterator));
+            }
+        }
+        return new Iterator<Map.Entry<Long, Appointment>>() {
+            @Override
+            public boolean hasNext() {
+                return !heads.isEmpty();
+            }
+
+            @Override
+            public Map.Entry<Long, Appointment> next() {
+                PeekingIterator smallest = heads.poll();
+                if (smallest == null) {
+                    throw new NoSuchElementException();
+                }
+                Map.Entry<Long, Appointment> entry = smallest.head;
+                if (smallest.advance()) {
+                    heads.add(smallest);
+                }
+                return entry;
+            }
+        };
+    }
+
+    /**
+     * Iterates every live entry with a booking number greater than the cursor.
+     */
+    private Iterator<Map.Entry<Long, Appointment>> scanAfter(long cursor) {
+        int start = Arrays.binarySearch(bookingNumbers, 0, used, cursor);
+        start = start >= 0 ? start + 1 : -start - 1;
+        int first = skipTombstones(start);
+        return new Iterator<Map.Entry<Long, Appointment>>() {
+            private int next = first;
+
+            @Override
+            public boolean hasNext() {
+                return next < used;
+            }
+
+            @Override
+            public Map.Entry<Long, Appointment> next() {
+                if (next >= used) {
+                    throw new NoSuchElementException();
+                }
+                Map.Entry<Long, Appointment> entry =
+                        new AbstractMap.SimpleImmutableEntry<>(bookingNumbers[next], slots[next]);
+                next = skipTombstones(next + 1);
+                return entry;
+            }
+        };
+    }
+
+    /**
+     * Returns the first position at or after 'from' holding a live appointment.
+     */
+    private int skipTombstones(int from) {
+        while (from < used && slots[from] == null) {
+            from++;
+        }
+        return from;
+    }
+
+    /**
+     * Locates a booking number in the sorted booking-number array.
+     */
+    private int positionOf(long bookingNumber) {
+        int position = Arrays.binarySearch(bookingNumbers, 0, used, bookingNumber);
+        if (position < 0) {
+            throw new IllegalStateException("Booking number " + bookingNumber + " is indexed but not stored");
+        }
+        return position;
+    }
+
+    /**
+     * Finds a live appointment through its patient's bookings and removes it from every index.
+     */
+    private boolean remove(Appointment appointment) {
+        String key = PatientRegistry.normaliseMobile(appointment.getPatientMobile());
+        ArrayDeque<Long> patientBookings = byMobile.get(key);
+        if (patientBookings == null) {
+            return false;
+        }
+        for (Iterator<Long> bookings = patientBookings.iterator(); bookings.hasNext(); ) {
+            long bookingNumber = bookings.next();
+            int position = positionOf(bookingNumber);
+            if (slots[position] == appointment) {
+                bookings.remove();
+                if (patientBookings.isEmpty()) {
+                    byMobile.remove(key);
+                }
+                removeAt(position, bookingNumber);
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Replaces the entry at a position with a tombstone and unindexes it.
+     * The caller has already removed the booking from the mobile index.
+     */
+    private Appointment removeAt(int position, long bookingNumber) {
+        Appointment removed = slots[position];
+        slots[position] = null;
+        live--;
+        unindex(removed, bookingNumber);
+
+        // Compact once tombstones outnumber live entries, keeping removal amortised O(1).
+        if (used >= 64 && used - live > live) {
+            compact();
+        }
+        return removed;
+    }
+
+    /**
+     * Removes a cancelled or completed appointment from the doctor and time-slot indexes.
+     */
+    private void unindex(Appointment appointment, long bookingNumber) {
+        HealthProfessional doctor = appointment.getDoctor();
+        if (doctor != null) {
+            TreeMap<Long, Appointment> doctorAppointments = byDoctor.get(doctor.getId());
+            doctorAppointments.remove(bookingNumber);
+            if (doctorAppointments.isEmpty()) {
+                byDoctor.remove(doctor.getId());
+                HashMap<Integer, TreeMap<Long, Appointment>> typeAppointments = byDoctorType.get(doctor.getClass());
+                typeAppointments.remove(doctor.getId());
+                if (typeAppointments.isEmpty()) {
+                    byDoctorType.remove(doctor.getClass());
+                }
+            }
+        }
+        int startMinute = SlotCalendar.parseTime(appointment.getTimeSlot());
+        TreeMap<Long, Appointment> slotAppointments = byStartMinute.get(startMinute);
+        slotAppointments.remove(bookingNumber);
+        if (slotAppointments.isEmpty()) {
+            byStartMinute.remove(startMinute);
+        }
+    }
+
+    /**
+     * Doubles the capacity of the backing arrays.
+     */
+    private void grow() {
+        slots = Arrays.copyOf(slots, slots.length * 2);
+        bookingNumbers = Arrays.copyOf(bookingNumbers, bookingNumbers.length * 2);
+    }
+
+    /**
+     * Squeezes out tombstones while preserving booking order.
+     * Booking numbers are unchanged, so the indexes stay valid.
+     */
+    private void compact() {
+        int target = 0;
+        for (int i = 0; i < used; i++) {
+            if (slots[i] != null) {
+                slots[target] = slots[i];
+                bookingNumbers[target] = bookingNumbers[i];
+                target++;
+            }
+        }
+        Arrays.fill(slots, target, used, null);
+        used = target;
+    }
+
+    // --- Nested Types ---
+
+    /**
+     * Applies a query's filters to the candidate entries chosen from the indexes.
+     * Remembers the booking number of the last returned appointment for paging.
+     */
+    private final class MatchIterator implements Iterator<Appointment> {
+        // The filters every returned appointment must pass.
+        private final AppointmentQuery query;
+        // Candidate entries from the most selective index.
+        private final Iterator<Map.Entry<Long, Appointment>> candidates;
+        // The next matching entry, or null if it has not been looked up yet.
+        private Map.Entry<Long, Appointment> pending;
+        // Booking number of the last appointment returned by next().
+        private long lastBookingNumber;
+
+        private MatchIterator(AppointmentQuery query, long cursor) {
+            this.query = query;
+            this.candidates = candidates(query, cursor);
+            this.lastBookingNumber = cursor;
+        }
+
+        @Override
+        public boolean hasNext() {
+            while (pending == null && candidates.hasNext()) {
+                Map.Entry<Long, Appointment> candidate = candidates.next();
+                if (query.matches(candidate.getValue())) {
+                    pending = candidate;
+                }
+            }
+            return pending != null;
+        }
+
+        @Override
+        public Appointment next() {
+            if (!hasNext()) {
+                throw new NoSuchElementException();
+            }
+            lastBookingNumber = pending.getKey();
+            Appointment appointment = pending.getValue();
+            pending = null;
+            return appointment;
+        }
+    }
+
+    /**
+     * An iterator that exposes its current element, used when merging sorted sources.
+     */
+    private static final class PeekingIterator {
+        // The remaining entries of the source.
+        private final Iterator<Map.Entry<Long, Appointment>> rest;
+        // The current (smallest unconsumed) entry of the source.
+        private Map.Entry<Long, Appointment> head;
+
+        private PeekingIterator(Iterator<Map.Entry<Long, Appointment>> rest) {
+            this.rest = rest;
+            this.head = rest.next();
+        }
+
+        private boolean advance() {
+            if (!rest.hasNext()) {
+                return false;
+            }
+            head = rest.next();
+            return true;
+        }
+    }
+}
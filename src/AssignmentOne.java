@@ -1,6 +1,8 @@
+import java.io.IOException;
+import java.nio.file.Path;
 import java.util.ArrayList;
-import java.util.Iterator;
-
+import java.util.Arrays;
+import java.util.List;
 
 /**
  * @class AssignmentOne
@@ -11,103 +13,245 @@ import java.util.Iterator;
  * centralised here.
  */
 public class AssignmentOne {
-    // Create collection to store doctors information for easy lookup.
-    private static ArrayList<HealthProfessional> doctorList = new ArrayList<>();
-    // Create ArrayList to store Appointment objects
-    private static ArrayList<Appointment> appointmentsList = new ArrayList<>();
-    // Constant formats for printing table headers
-    private static final String BASE_HEADER_FORMAT = "%-5s%-15s%-5s%-25s";
-    private static final String GP_HEADER_FORMAT = "%-25s%-15s%n";
-    private static final String CD_HEADER_FORMAT = "%-25s%-15s%n";
+    // Registry storing doctors information, indexed by ID for constant-time lookup.
+    private static DoctorRegistry doctorRegistry = new DoctorRegistry();
+    // Store holding Appointment objects, indexed by patient mobile, doctor ID and time slot.
+    private static AppointmentStore appointmentStore = new AppointmentStore();
+    // Registry sharing one Patient per patient and tracking each patient's appointments.
+    private static PatientRegistry patientRegistry = new PatientRegistry();
+    // Live counters for dashboards, updated by every booking and cancellation.
+    private static LiveScheduleStats liveStats = new LiveScheduleStats(doctorRegistry, ScheduleAnalytics.DEFAULT_WORKING_MINUTES);
+    // Reminder and expiry timers, or null until startScheduler is called.
+    private static AppointmentScheduler scheduler = null;
+    // Mapped roster restored by loadSnapshot; its professionals are registered on first use. Null if none.
+    private static RosterSnapshot rosterSnapshot = null;
+    // Durable journal of appointment changes, or null while persistence is disabled.
+    private static AppointmentJournal journal = null;
+    // Outcome counters, latency histograms and size gauges of the booking operations.
+    private static final BookingMetrics metrics = new BookingMetrics();
+    // Background writer for all console output, so bookings never wait for the console.
+    private static final AsyncLogSink log = new AsyncLogSink("clinic-log", () -> System.out);
+    // Maximum number of rendered appointment rows kept for later reports.
+    private static final int ROW_CACHE_CAPACITY = 8192;
+    // Rendered report rows, reused until the appointment is cancelled or completed.
+    private static RenderedRowCache rowCache = new RenderedRowCache(ROW_CACHE_CAPACITY);
+    // Reusable buffer that reports are rendered into before being written in one call.
+    private static final StringBuilder reportBuffer = new StringBuilder(4096);
+    // Rendered characters after which a long report is handed to the log writer in chunks.
+    private static final int REPORT_CHUNK_CHARS = 1 << 16;
+
+    // Declare the roster report sections, in report order, before any doctor is registered,
+    // including those of specialties registered later on,
+    // and let the patient registry and live statistics follow every change to the appointment store.
+    // The gauges read the current objects, so they keep working after resetState.
+    static {
+        defineReportSections(doctorRegistry);
+        SpecialtyRegistry.addListener(specialty -> defineReportSection(doctorRegistry, specialty));
+        appointmentStore.addListener(patientRegistry);
+        appointmentStore.addListener(liveStats);
+        appointmentStore.addListener(rowCache);
+        metrics.registerGauge("doctors", () -> rosterSnapshot != null
+                ? rosterSnapshot.professionalCount() : doctorRegistry.size());
+        metrics.registerGauge("appointments", () -> appointmentStore.size());
+        metrics.registerGauge("patientMobiles", () -> patientRegistry.size());
+        Runtime.getRuntime().addShutdownHook(new Thread(log::flush, "clinic-log-flush"));
+    }
 
 
     /**
      * @brief Prints the detailed information of all health professionals stored
-     * in the doctorList, categorised by their specific professional type.
-     * * Uses polymorphism and specific header formats for General Practitioners (GP)
-     * and Cardiologists (CD).
+     * in the doctorRegistry, categorised by their specific professional type.
+     * * Walks the registry's catalogue once per professional type, which is already
+     * partitioned at registration, so no type checks are needed and new specialties
+     * appear automatically. The report is rendered into a buffer and written in bounded chunks.
      */
     public static void printDoctorsInfo() {
-        System.out.println("Show Information of All Health Professionals\n");
-
-        // Prepare and print GP header
-        String baseHeader = String.format(BASE_HEADER_FORMAT, "ID", "Name", "Age", "Profession");
-        String gpHeader = String.format(GP_HEADER_FORMAT, "Max Consultation Time", "Bulk Billing Available");
-        System.out.println("General Practitioners");
-        System.out.print(baseHeader + gpHeader);
-
-        // Iterate through the list and print details for General Practitioners
-        for (HealthProfessional doctor : doctorList) {
-            if (doctor instanceof GeneralPractitioner) {
-                doctor.printProfessionalDetails();
+        registerSnapshotRoster();
+        StringBuilder out = startReport();
+        RowRenderer.line(out, "Show Information of All Health Professionals\n");
+
+        boolean firstSection = true;
+        for (ProfessionalCatalogue.Section section : doctorRegistry.getCatalogue().getSections()) {
+            // Separate sections with a blank line and render the section header
+            if (!firstSection) {
+                out.append('\n');
+            }
+            firstSection = false;
+            RowRenderer.line(out, section.getTitle());
+            if (section.getHeader() != null) {
+                out.append(section.getHeader());
+            } else {
+                RowRenderer.line(out, SpecialtyDescriptor.BASE_HEADER);
+            }
+
+            // Render every professional of this type, reusing rows rendered for earlier reports
+            for (HealthProfessional doctor : section.getMembers()) {
+                rowCache.appendProfessional(out, doctor);
+                flushReportChunk(out);
             }
         }
+        flushReport(out);
+    }
 
-        // Prepare and print Cardiologist header
-        String cdHeader = String.format(CD_HEADER_FORMAT, "Subspecialty", "Cath Lab Access");
-        System.out.println("\nCardiologist");
-        System.out.print(baseHeader + cdHeader);
 
-        // Iterate through the list and print details for Cardiologists
-        for (HealthProfessional doctor : doctorList) {
-            if (doctor instanceof Cardiologist) {
-                doctor.printProfessionalDetails();
-            }
+    /**
+     * @brief Declares the title and column header of each registered specialty.
+     * The registration order is the order of the sections in printDoctorsInfo.
+     * @param registry The registry whose catalogue is configured.
+     */
+    static void defineReportSections(DoctorRegistry registry) {
+        for (SpecialtyDescriptor<?> specialty : SpecialtyRegistry.getAll()) {
+            defineReportSection(registry, specialty);
         }
     }
 
 
     /**
-     * @brief Creates a new Appointment object and adds it to the appointmentsList.
+     * @brief Declares the title and column header of one specialty's roster report section.
+     * @param registry The registry whose catalogue is configured.
+     * @param specialty The specialty.
+     */
+    private static void defineReportSection(DoctorRegistry registry, SpecialtyDescriptor<?> specialty) {
+        registry.getCatalogue().defineSection(specialty.getType(), specialty.getSectionTitle(), specialty.getHeader());
+    }
+
+
+    /**
+     * @brief Creates a new Appointment object and adds it to the appointmentStore.
+     * The outcome message is handed to the background log writer, not printed inline.
      * @param doctorId The ID of the selected doctor.
      * @param pName Patient's name.
      * @param pMobile Patient's mobile number.
      * @param time Preferred appointment time slot.
+     * @return CREATED on success, otherwise the failed validation.
      */
-    public static void createAppointment(int doctorId, String pName, String pMobile, String time) {
+    public static BookingStatus createAppointment(int doctorId, String pName, String pMobile, String time) {
+
+        long start = System.nanoTime();
+        // Look up the doctor by ID through the registry's hash index, or the loaded snapshot
+        HealthProfessional selectedDoctor = findDoctor(doctorId);
+        BookingStatus status = bookAppointment(selectedDoctor, doctorId, pName, pMobile, time);
+        if (status != BookingStatus.CREATED) {
+            log.log("Appointment Failed: " + status.getMessage() + RowRenderer.LINE_SEPARATOR);
+        } else {
+            // Log success message
+            log.log(BookingStatus.CREATED.getMessage() + RowRenderer.LINE_SEPARATOR
+                    + "Patient: " + pName + "  |  Doctor: " + selectedDoctor.getName() + "  |  Time: " + time + "\n"
+                    + RowRenderer.LINE_SEPARATOR);
+        }
+        metrics.record(BookingMetrics.Operation.CREATE, status, System.nanoTime() - start);
+        return status;
+    }
+
+
+    /**
+     * @brief Validates a booking request and, if valid, stores the new appointment.
+     * Performs the work of createAppointment without printing anything, so it can
+     * also be used to replay journalled bookings. While a journal is open, the
+     * booking only succeeds once its record has been synced; if the journal has
+     * failed, the booking is refused or withdrawn again.
+     * @param selectedDoctor The doctor resolved from doctorId, or null if there is none.
+     * @param doctorId The ID of the selected doctor.
+     * @param pName Patient's name.
+     * @param pMobile Patient's mobile number.
+     * @param time Preferred appointment time slot.
+     * @return CREATED on success, otherwise the failed validation.
+     */
+    private static BookingStatus bookAppointment(HealthProfessional selectedDoctor, int doctorId,
+                                                 String pName, String pMobile, String time) {
+
+        // Validate the request fields, then reserve the slot in the doctor's calendar
+        BookingStatus status = validateRequest(selectedDoctor, pName, pMobile, time);
+        if (status == null && journal != null && journal.getFailure() != null) {
+            status = BookingStatus.JOURNAL_FAILED;
+        }
+        if (status == null && !doctorRegistry.calendarOf(doctorId).reserve(SlotCalendar.parseTime(time))) {
+            status = BookingStatus.SLOT_UNAVAILABLE;
+        }
+        if (status != null) {
+            return status;
+        }
+
+        // Reuse the shared patient record and create the appointment object
+        Patient patient = patientRegistry.intern(pName, pMobile);
+        Appointment newAppointment = new Appointment(patient, time, selectedDoctor);
+        appointmentStore.add(newAppointment);
+        if (!awaitJournal()) {
+            // Not durable: withdraw the booking before anyone is told it succeeded.
+            appointmentStore.cancel(newAppointment);
+            releaseSlot(newAppointment);
+            return BookingStatus.JOURNAL_FAILED;
+        }
+        return BookingStatus.CREATED;
+    }
 
-        HealthProfessional selectedDoctor = null;
 
-        // Search for the doctor by ID
-        for (HealthProfessional doctor : doctorList) {
-            if (doctor.getId() == doctorId) {
-                selectedDoctor = doctor;
-                break;
+    /**
+     * @brief Creates appointments for a whole batch of booking requests.
+     * Applies the same validation as createAppointment, but resolves each doctor once,
+     * commits the accepted appointments in one bulk insert and prints nothing.
+     * @param requests The booking requests, in submission order.
+     * @return The outcome of every request.
+     */
+    public static BatchBookingReport createAppointments(List<BookingRequest> requests) {
+        BatchBookingReport report;
+        if (journal != null && journal.getFailure() != null) {
+            BookingStatus[] refused = new BookingStatus[requests.size()];
+            Arrays.fill(refused, BookingStatus.JOURNAL_FAILED);
+            report = new BatchBookingReport(refused);
+        } else {
+            for (BookingRequest request : requests) {
+                findDoctor(request.getDoctorId());
+            }
+            report = BatchBooking.book(requests, doctorRegistry, patientRegistry, appointmentStore);
+            if (!awaitJournal()) {
+                report = withdrawBatch(requests, report);
             }
         }
+        for (int i = 0; i < report.size(); i++) {
+            metrics.count(report.getStatus(i));
+        }
+        return report;
+    }
+
+
+    /**
+     * @brief Validates the fields of a booking request without modifying any state.
+     * Shared by createAppointment and the booking services so every entry point
+     * applies the same rules in the same order.
+     * @param doctor The doctor resolved from the requested ID, or null if none matched.
+     * @param pName Patient's name.
+     * @param pMobile Patient's mobile number.
+     * @param time Preferred appointment time slot.
+     * @return The first failed check, or null if the request is valid.
+     */
+    static BookingStatus validateRequest(HealthProfessional doctor, String pName, String pMobile, String time) {
 
         // Basic validation: Check if doctor was found
-        if (selectedDoctor == null) {
-            System.out.println("Appointment Failed: Invalid doctor ID");
-            return;
+        if (doctor == null) {
+            return BookingStatus.INVALID_DOCTOR_ID;
         }
 
         // Basic validation: Check for null/empty patient name
         if (pName == null || pName.trim().isEmpty()) {
-            System.out.println("Appointment Failed: Patient name cannot be empty");
-            return;
+            return BookingStatus.EMPTY_PATIENT_NAME;
         }
 
         // Basic validation: Check for null/empty patient phone number
         if (pMobile == null || pMobile.trim().isEmpty()) {
-            System.out.println("Appointment Failed: Phone number cannot be empty");
-            return;
+            return BookingStatus.EMPTY_PHONE_NUMBER;
         }
 
         // Basic validation: Check for null/empty appointment time
         if (time == null || time.trim().isEmpty()) {
-            System.out.println("Appointment Failed: Appointment time cannot be empty");
-            return;
+            return BookingStatus.EMPTY_TIME;
         }
 
-        // Create the patient and appointment objects
-        Patient patient = new Patient(pName, pMobile);
-        Appointment newAppointment = new Appointment(patient, time, selectedDoctor);
-        appointmentsList.add(newAppointment);
-
-        // Print success message
-        System.out.println("Appointment Successfully Created!");
-        System.out.println("Patient: " + pName + "  |  Doctor: " + selectedDoctor.getName() + "  |  Time: " + time + "\n");
+        // Validation: Check the time can be parsed into a minute offset
+        if (SlotCalendar.parseTime(time) < 0) {
+            return BookingStatus.INVALID_TIME_FORMAT;
+        }
+        return null;
     }
 
 
@@ -115,60 +259,570 @@ public class AssignmentOne {
      * @brief Displays the details of all existing appointments in the list.
      */
     public static void printExistingAppointments() {
-        if (appointmentsList.isEmpty()) {
-            System.out.println("\nNo Available Appointment");
+        if (appointmentStore.isEmpty()) {
+            log.log("\nNo Available Appointment" + RowRenderer.LINE_SEPARATOR);
             return;
         }
 
-        System.out.println("\nDisplay Appointment List ( Total " + appointmentsList.size() + " )");
-        System.out.println("------------------------------------");
+        StringBuilder out = startReport();
+        RowRenderer.line(out, "\nDisplay Appointment List ( Total " + appointmentStore.size() + " )");
+        RowRenderer.line(out, "------------------------------------");
 
-        // Iterate through the list using an index to display appointment number.
-        for (int i = 0; i < appointmentsList.size(); i++) {
-            System.out.println("Appointment #" + (i + 1) + "\n");
+        // Iterate through the store in booking order, counting to display appointment number.
+        int number = 0;
+        for (Appointment appointment : appointmentStore) {
+            RowRenderer.line(out.append("Appointment #").append(++number), "\n");
 
-            // Delegates the printing of internal details to the Appointment object.
-            appointmentsList.get(i).printAppointmentDetails();
-            System.out.println("------------------------------------");
+            // Delegates the rendering of internal details to the Appointment object,
+            // unless the row is still cached from an earlier report.
+            rowCache.appendAppointment(out, appointment);
+            RowRenderer.line(out, "------------------------------------");
+            flushReportChunk(out);
+        }
+        flushReport(out);
+    }
+
+
+    /**
+     * @brief Returns one page of the appointments matching a query, in booking order.
+     * Lets operators list a slice of the schedule (a doctor, a profession type, a time
+     * range or a patient) instead of printing every appointment.
+     * @param query The filters to apply.
+     * @param cursor AppointmentPage.FIRST_PAGE, or the next cursor of the previous page.
+     * @param limit The maximum number of appointments on the page.
+     * @return The page of matching appointments.
+     */
+    public static AppointmentPage findAppointments(AppointmentQuery query, long cursor, int limit) {
+        return appointmentStore.query(query, cursor, limit);
+    }
+
+
+    /**
+     * @brief Finds the doctors matching a query who are free earliest today, e.g.
+     * findAvailableSlots(new AvailabilityQuery().ofType(Cardiologist.class).withCathLabAccess().after("10:00"), 3).
+     * The returned time can be passed straight to createAppointment.
+     * @param query The doctor attribute and time filters.
+     * @param limit The maximum number of doctors to return.
+     * @return Up to 'limit' free slots, earliest first, one per doctor.
+     */
+    public static List<AvailableSlot> findAvailableSlots(AvailabilityQuery query, int limit) {
+        registerSnapshotRoster();
+        return doctorRegistry.getAvailability().search(query, limit);
+    }
+
+
+    /**
+     * @brief Computes today's schedule aggregates in parallel: bookings and utilisation
+     * per doctor, load per specialty and bookings per hour.
+     * @return The report.
+     */
+    public static ScheduleReport analyseSchedule() {
+        registerSnapshotRoster();
+        return ScheduleAnalytics.analyse(doctorRegistry, appointmentStore.toArray());
+    }
+
+
+    /**
+     * @brief Returns a consistent copy of the live schedule statistics without recomputing them.
+     * Cheap enough to call on every dashboard refresh.
+     * @return The snapshot.
+     */
+    public static LiveScheduleStats.Snapshot getLiveStats() {
+        return liveStats.snapshot();
+    }
+
+
+    /**
+     * @brief Starts sending reminders and retiring past appointments into an archive.
+     * Every current and later appointment is scheduled; the clock only moves when
+     * advanceClock is called. Replaces any scheduler started earlier.
+     * @param notifier Receives the reminders.
+     * @param leadMinutes Minutes before the start at which reminders are sent.
+     * @param currentMinute The current time, in minutes since the start of day 0.
+     * @return The scheduler, e.g. to inspect its archive.
+     */
+    public static AppointmentScheduler startScheduler(ReminderNotifier notifier, int leadMinutes, long currentMinute) {
+        AppointmentScheduler started = new AppointmentScheduler(appointmentStore, doctorRegistry, notifier,
+                leadMinutes, currentMinute);
+        if (scheduler != null) {
+            appointmentStore.removeListener(scheduler);
+        }
+        scheduler = started;
+        scheduler.scheduleAll(appointmentStore);
+        appointmentStore.addListener(scheduler);
+        return scheduler;
+    }
+
+
+    /**
+     * @brief Advances the scheduler's clock: sends the reminders now due and moves
+     * every appointment that has ended out of the schedule into the archive.
+     * @param minute The new current time, in minutes since the start of day 0.
+     * @return The number of appointments archived.
+     * @throws IllegalStateException if startScheduler has not been called.
+     */
+    public static int advanceClock(long minute) {
+        if (scheduler == null) {
+            throw new IllegalStateException("Scheduler not started");
+        }
+        return scheduler.advanceTo(minute);
+    }
+
+
+    /**
+     * @brief Renders the schedule aggregates of analyseSchedule() as a report.
+     */
+    public static void printScheduleReport() {
+        StringBuilder out = startReport();
+        analyseSchedule().appendTo(out);
+        flushReport(out);
+    }
+
+
+    /**
+     * @brief Returns every live appointment of a patient without scanning the schedule.
+     * @param mobileNumber The patient's mobile number; spaces, dashes and brackets are ignored.
+     * @return A read-only list of the patient's appointments in booking order.
+     */
+    public static List<Appointment> findPatientAppointments(String mobileNumber) {
+        return patientRegistry.appointmentsOf(mobileNumber);
+    }
+
+
+    /**
+     * Clears the shared report buffer and returns it for rendering a new report.
+     * @return The empty report buffer.
+     */
+    private static StringBuilder startReport() {
+        reportBuffer.setLength(0);
+        return reportBuffer;
+    }
+
+    /**
+     * Hands the part of a report rendered so far to the log writer once it has grown
+     * past REPORT_CHUNK_CHARS, so reports of any size stream out in bounded chunks
+     * instead of overflowing the buffer. The log writer keeps the chunks in order.
+     * @param out The report being rendered; emptied if it was handed over.
+     */
+    private static void flushReportChunk(StringBuilder out) {
+        if (out.length() >= REPORT_CHUNK_CHARS) {
+            log.log(out.toString());
+            out.setLength(0);
+        }
+    }
+
+    /**
+     * Hands a rendered report, or its last chunk, to the log writer as a single message,
+     * keeping it in order with the booking messages around it.
+     * Very large buffers are trimmed back afterwards so one big report does not pin memory.
+     * @param out The rendered report.
+     */
+    private static void flushReport(StringBuilder out) {
+        log.log(out.toString());
+        if (out.capacity() > (1 << 20)) {
+            out.setLength(0);
+            out.trimToSize();
         }
     }
 
 
     /**
      * Cancels an appointment based on the patient's mobile number.
-     * Uses an Iterator for safe removal while traversing the collection.
+     * Uses the store's mobile index, so no traversal of the collection is needed.
+     * The outcome message is handed to the background log writer, not printed inline.
      * * @param mobileNumber The mobile number of the patient whose booking should be cancelled.
+     * @return CANCELLED on success, EMPTY_PHONE_NUMBER, NOT_FOUND or JOURNAL_FAILED otherwise.
      */
-    public static void cancelBooking(String mobileNumber) {
+    public static BookingStatus cancelBooking(String mobileNumber) {
+
+        long start = System.nanoTime();
+        BookingStatus status;
 
         // Basic validation: Check for empty mobile number input.
         if (mobileNumber == null || mobileNumber.trim().isEmpty()) {
-            System.out.println("ERROR: Phone number cannot be empty");
+            log.log("ERROR: " + BookingStatus.EMPTY_PHONE_NUMBER.getMessage() + RowRenderer.LINE_SEPARATOR);
+            status = BookingStatus.EMPTY_PHONE_NUMBER;
+        } else if (journal != null && journal.getFailure() != null) {
+            log.log("ERROR: " + BookingStatus.JOURNAL_FAILED.getMessage() + RowRenderer.LINE_SEPARATOR);
+            status = BookingStatus.JOURNAL_FAILED;
+        } else if (cancelAppointment(mobileNumber) == null) {
+            log.log("ERROR: Phone number " + mobileNumber + " did not found in existing appointment"
+                    + RowRenderer.LINE_SEPARATOR);
+            status = BookingStatus.NOT_FOUND;
+        } else if (!awaitJournal()) {
+            // Cancelled in memory, but the cancellation would not survive a restart.
+            log.log("ERROR: " + BookingStatus.JOURNAL_FAILED.getMessage() + RowRenderer.LINE_SEPARATOR);
+            status = BookingStatus.JOURNAL_FAILED;
+        } else {
+            // Cancelled the earliest booking of this patient through the mobile index.
+            log.log("Successfully cancelled the appointment of patient with phone number " + mobileNumber
+                    + RowRenderer.LINE_SEPARATOR);
+            status = BookingStatus.CANCELLED;
+        }
+        metrics.record(BookingMetrics.Operation.CANCEL, status, System.nanoTime() - start);
+        return status;
+    }
+
+
+    /**
+     * Removes the earliest booking of a patient and frees its calendar slot.
+     * @param mobileNumber The patient's mobile number.
+     * @return The cancelled appointment, or null if the patient has no booking.
+     */
+    private static Appointment cancelAppointment(String mobileNumber) {
+        Appointment cancelled = appointmentStore.cancelByMobile(mobileNumber);
+        if (cancelled != null) {
+            // Free the cancelled slot in the doctor's calendar.
+            releaseSlot(cancelled);
+        }
+        return cancelled;
+    }
+
+
+    /**
+     * Looks up a doctor in the registry, registering it from the loaded snapshot on first use.
+     * @param doctorId The ID of the doctor.
+     * @return The doctor, or null if neither the registry nor the snapshot knows the ID.
+     */
+    private static HealthProfessional findDoctor(int doctorId) {
+        HealthProfessional doctor = doctorRegistry.findById(doctorId);
+        if (doctor == null && rosterSnapshot != null) {
+            int row = rosterSnapshot.rowOf(doctorId);
+            if (row >= 0) {
+                doctor = rosterSnapshot.professional(row);
+                doctorRegistry.register(doctor);
+            }
+        }
+        return doctor;
+    }
+
+
+    /**
+     * Registers every professional of the loaded snapshot not yet used, before a read of the
+     * whole roster, and then serves the roster from the registry alone. The roster is put
+     * back into snapshot order, so professionals used first are not listed first.
+     */
+    private static void registerSnapshotRoster() {
+        if (rosterSnapshot == null) {
             return;
         }
+        List<HealthProfessional> order = new ArrayList<>(rosterSnapshot.professionalCount());
+        for (int row = 0; row < rosterSnapshot.professionalCount(); row++) {
+            HealthProfessional doctor = doctorRegistry.findById(rosterSnapshot.getId(row));
+            if (doctor == null) {
+                doctor = rosterSnapshot.professional(row);
+                doctorRegistry.register(doctor);
+            }
+            order.add(doctor);
+        }
+        doctorRegistry.reorder(order);
+        rosterSnapshot = null;
+    }
+
+
+    /**
+     * Waits for the open journal, if any, to sync everything journalled so far.
+     * @return True if the changes are durable or no journal is open, false if the journal failed.
+     */
+    private static boolean awaitJournal() {
+        if (journal == null) {
+            return true;
+        }
+        try {
+            journal.awaitDurable();
+            return true;
+        } catch (IOException e) {
+            return false;
+        }
+    }
+
+
+    /**
+     * Withdraws every appointment a batch created, after the journal failed to store them.
+     * @param requests The booking requests of the batch.
+     * @param report The outcome of the batch.
+     * @return The outcome with every CREATED replaced by JOURNAL_FAILED.
+     */
+    private static BatchBookingReport withdrawBatch(List<BookingRequest> requests, BatchBookingReport report) {
+        BookingStatus[] statuses = new BookingStatus[report.size()];
+        for (int i = 0; i < statuses.length; i++) {
+            statuses[i] = report.getStatus(i);
+            if (statuses[i] == BookingStatus.CREATED) {
+                BookingRequest request = requests.get(i);
+                Appointment booked = findBooked(request.getDoctorId(), request.getTimeSlot(), request.getPatientMobile());
+                if (booked != null && appointmentStore.cancel(booked)) {
+                    releaseSlot(booked);
+                }
+                statuses[i] = BookingStatus.JOURNAL_FAILED;
+            }
+        }
+        return new BatchBookingReport(statuses);
+    }
+
+
+    /**
+     * Finds the live appointment holding a doctor's time slot. A slot holds at most one
+     * live appointment, so the doctor and time identify a booking.
+     * @param doctorId The ID of the doctor.
+     * @param timeSlot The appointment time.
+     * @param mobile The patient's mobile number, as a consistency check.
+     * @return The appointment, or null if the slot holds no matching booking.
+     */
+    private static Appointment findBooked(int doctorId, String timeSlot, String mobile) {
+        int startMinute = SlotCalendar.parseTime(timeSlot);
+        String patient = PatientRegistry.normaliseMobile(mobile);
+        for (Appointment appointment : appointmentStore.findByDoctor(doctorId)) {
+            if (SlotCalendar.parseTime(appointment.getTimeSlot()) == startMinute
+                    && PatientRegistry.normaliseMobile(appointment.getPatientMobile()).equals(patient)) {
+                return appointment;
+            }
+        }
+        return null;
+    }
+
+
+    /**
+     * Frees the calendar slot held by a cancelled appointment.
+     * @param appointment The cancelled appointment.
+     */
+    private static void releaseSlot(Appointment appointment) {
+        if (appointment.getDoctor() == null) {
+            return;
+        }
+        SlotCalendar calendar = doctorRegistry.calendarOf(appointment.getDoctor().getId());
+        int startMinute = SlotCalendar.parseTime(appointment.getTimeSlot());
+        if (calendar != null && startMinute >= 0) {
+            calendar.release(startMinute);
+        }
+    }
+
+
+    /**
+     * @brief Enables persistence: replaces the schedule with the one recorded in the journal
+     * file, then journals every later booking, cancellation and completion to it.
+     * Must be called after the doctors are registered, since replayed bookings are
+     * validated against the registry again. The journal is replayed into a fresh
+     * schedule over the same roster, so appointments booked before the call are dropped
+     * and a running scheduler must be started again. If the journal cannot be replayed,
+     * the previous schedule is kept unchanged.
+     * @param file The journal file; created if it does not exist.
+     * @throws IOException if the journal cannot be read or opened, or holds a record that cannot be replayed.
+     */
+    public static void openJournal(Path file) throws IOException {
+        closeJournal();
+        ScheduleState previous = new ScheduleState();
+        resetState(new DoctorRegistry());
+        for (HealthProfessional doctor : previous.doctorRegistry.getAll()) {
+            doctorRegistry.register(doctor);
+        }
+        rosterSnapshot = previous.rosterSnapshot;
+        try {
+            journal = AppointmentJournal.open(file, replayHandler());
+        } catch (IOException | RuntimeException e) {
+            previous.restore();
+            throw e;
+        }
+        journal.attach(appointmentStore);
+    }
+
+
+    /**
+     * Creates the handler that applies journalled events to the current schedule.
+     * @return The replay handler.
+     */
+    private static AppointmentJournal.ReplayHandler replayHandler() {
+        return new AppointmentJournal.ReplayHandler() {
+            @Override
+            public void created(int doctorId, String patientName, String patientMobile, String timeSlot)
+                    throws IOException {
+                BookingStatus status = bookAppointment(findDoctor(doctorId), doctorId,
+                        patientName, patientMobile, timeSlot);
+                if (status != BookingStatus.CREATED) {
+                    throw new IOException("Journalled booking of doctor " + doctorId + " at " + timeSlot
+                            + " cannot be replayed: " + status.getMessage());
+                }
+            }
 
-        // Use Iterator for safe modification (removal) of the collection during traversal.
-        Iterator<Appointment> iterator = appointmentsList.iterator();
-        boolean foundAndCancelled = false;
+            @Override
+            public void cancelled(int doctorId, String patientMobile, String timeSlot) throws IOException {
+                Appointment cancelled = findBooked(doctorId, timeSlot, patientMobile);
+                if (cancelled == null || !appointmentStore.cancel(cancelled)) {
+                    throw new IOException("Journalled cancellation of doctor " + doctorId + " at " + timeSlot
+                            + " cannot be replayed: no booking found");
+                }
+                releaseSlot(cancelled);
+            }
+
+            @Override
+            public void cancelledEarliest(String patientMobile) throws IOException {
+                if (cancelAppointment(patientMobile) == null) {
+                    throw new IOException("Journalled cancellation for " + patientMobile
+                            + " cannot be replayed: no booking found");
+                }
+            }
 
-        while (iterator.hasNext()) {
-            Appointment appt = iterator.next();
-            // Get phone number of the patient from Appointment object
-            if (appt.getPatientMobile().equals(mobileNumber)) {
-                // Safely removes the current element from the list.
-                iterator.remove();
-                foundAndCancelled = true;
-                System.out.println("Successfully cancelled the appointment of patient with phone number " + mobileNumber);
-                break;
+            @Override
+            public void completed(int doctorId, String patientMobile, String timeSlot) throws IOException {
+                Appointment completed = findBooked(doctorId, timeSlot, patientMobile);
+                if (completed == null || !appointmentStore.complete(completed)) {
+                    throw new IOException("Journalled completion of doctor " + doctorId + " at " + timeSlot
+                            + " cannot be replayed: no booking found");
+                }
+                releaseSlot(completed);
             }
+        };
+    }
+
+
+    /**
+     * @brief Syncs and closes the journal opened by openJournal, if any.
+     * @throws IOException if the final sync fails.
+     */
+    public static void closeJournal() throws IOException {
+        if (journal != null) {
+            AppointmentJournal open = journal;
+            journal = null;
+            open.close();
         }
+    }
+
+
+    /**
+     * @brief Writes the current roster and schedule to a memory-mappable columnar snapshot.
+     * The file can later be restored with loadSnapshot, or opened with RosterSnapshot.open
+     * for near-instant, zero-copy reads.
+     * @param file The snapshot file; replaced atomically.
+     * @throws IOException if the snapshot cannot be written.
+     */
+    public static void saveSnapshot(Path file) throws IOException {
+        registerSnapshotRoster();
+        RosterSnapshot.write(file, doctorRegistry.getAll(), appointmentStore);
+    }
+
 
-        if (!foundAndCancelled) {
-            System.out.println("ERROR: Phone number " + mobileNumber + " did not found in existing appointment");
+    /**
+     * @brief Replaces the roster and schedule with those of a snapshot written by saveSnapshot.
+     * The roster is served from the mapped file: a professional is only built from its
+     * columns and registered when first looked up, so startup costs little more than
+     * rebooking the saved appointments, however large the roster. Reports and searches
+     * over the whole roster register the remaining professionals first, in snapshot order.
+     * The snapshot is restored into a new roster and schedule, which replace the current
+     * ones only once every appointment is rebooked; on failure nothing changes.
+     * Closes any open journal, since it describes the schedule being replaced.
+     * @param file The snapshot file.
+     * @throws IOException if the file is not a snapshot or one of its appointments cannot be rebooked.
+     */
+    public static void loadSnapshot(Path file) throws IOException {
+        RosterSnapshot loaded = RosterSnapshot.open(file);
+        ScheduleState previous = new ScheduleState();
+        AppointmentJournal open = journal;
+        // Detach the journal while rebooking, so the restored appointments are not journalled.
+        journal = null;
+        resetState(new DoctorRegistry());
+        rosterSnapshot = loaded;
+        try {
+            for (int row = 0; row < loaded.appointmentCount(); row++) {
+                int doctorId = loaded.getAppointmentDoctorId(row);
+                BookingStatus status = bookAppointment(findDoctor(doctorId), doctorId, loaded.getPatientName(row),
+                        loaded.getPatientMobile(row), loaded.getTimeSlot(row));
+                if (status != BookingStatus.CREATED) {
+                    throw new IOException("Snapshot appointment " + row + " cannot be restored: "
+                            + status.getMessage());
+                }
+            }
+        } catch (IOException | RuntimeException e) {
+            previous.restore();
+            journal = open;
+            throw e;
+        }
+        if (open != null) {
+            open.close();
         }
     }
 
 
+    /**
+     * @brief Waits until every message and report produced so far has been written to standard output.
+     * Call before reading the console output or writing to System.out directly.
+     */
+    public static void flushLog() {
+        log.flush();
+    }
+
+
+    /**
+     * @brief Getter for the booking metrics: outcome counts, latency histograms and gauges.
+     * Call getMetrics().registerMBean(...) to expose them over JMX, or dump() for text.
+     * @return The metrics of the static booking API.
+     */
+    public static BookingMetrics getMetrics() {
+        return metrics;
+    }
+
+
+    /**
+     * @brief Registers the professionals listed in a roster CSV file.
+     * See CsvImporter for the file format.
+     * @param file The roster file.
+     * @return How many professionals were registered or rejected, and why.
+     * @throws IOException if the file cannot be read.
+     */
+    public static ImportSummary importProfessionals(Path file) throws IOException {
+        registerSnapshotRoster();
+        return CsvImporter.importProfessionals(file, doctorRegistry);
+    }
+
+
+    /**
+     * @brief Books the requests listed in a booking CSV file, in batches.
+     * Applies the same validation as createAppointment and prints nothing.
+     * @param file The booking file.
+     * @return How many bookings were created or rejected, per outcome.
+     * @throws IOException if the file cannot be read.
+     */
+    public static ImportSummary importBookings(Path file) throws IOException {
+        return CsvImporter.importBookings(file, CsvImporter.DEFAULT_BATCH_SIZE, AssignmentOne::createAppointments);
+    }
+
+
+    /**
+     * @brief Replaces the roster and clears the schedule and patient records.
+     * Lets benchmarks and tools drive the static API with generated data.
+     * Any open journal should be closed first.
+     * @param registry The populated doctor registry to use from now on.
+     * @return The new, empty appointment store, for seeding appointments directly.
+     */
+    static AppointmentStore resetState(DoctorRegistry registry) {
+        defineReportSections(registry);
+        doctorRegistry = registry;
+        appointmentStore = new AppointmentStore();
+        patientRegistry = new PatientRegistry();
+        liveStats = new LiveScheduleStats(registry, ScheduleAnalytics.DEFAULT_WORKING_MINUTES);
+        appointmentStore.addListener(patientRegistry);
+        rowCache = new RenderedRowCache(ROW_CACHE_CAPACITY);
+        scheduler = null;
+        rosterSnapshot = null;
+        appointmentStore.addListener(liveStats);
+        appointmentStore.addListener(rowCache);
+        return appointmentStore;
+    }
+
+
+    /**
+     * Registers the demonstration roster of General Practitioners and Cardiologists.
+     * Shared by main and the booking server so both start from the same doctors.
+     * @param registry The registry to populate.
+     */
+    static void registerDemoDoctors(DoctorRegistry registry) {
+        registry.register(new GeneralPractitioner(1, "Alice Smith", 35, "General Practitioner", 15, true));
+        registry.register(new GeneralPractitioner(2, "Bob Johnson", 47, "General Practitioner", 20, false));
+        registry.register(new GeneralPractitioner(3, "Clara Lee", 25, "General Practitioner", 15, true));
+
+        registry.register(new Cardiologist(4, "Carol Dan", 30, "Cardiologist", "Electrophysiology", true));
+        registry.register(new Cardiologist(5, "Peter Quill", 55, "Cardiologist", "Vascular Medicine", true));
+    }
+
+
     /**
      * Main method: The entry point of the program.
      * Responsible for data initialization and demonstrating core functionalities.
@@ -176,17 +830,12 @@ public class AssignmentOne {
     public static void main(String[] args) {
 
         // Part 3 – Using classes and objects
-        // Initialization: Create and add Health Professionals to Array list
-        doctorList.add(new GeneralPractitioner(1, "Alice Smith", 35, "General Practitioner", 15, true));
-        doctorList.add(new GeneralPractitioner(2, "Bob Johnson", 47, "General Practitioner", 20, false));
-        doctorList.add(new GeneralPractitioner(3, "Clara Lee", 25, "General Practitioner", 15, true));
-
-        doctorList.add(new Cardiologist(4, "Carol Dan", 30, "Cardiologist", "Electrophysiology", true));
-        doctorList.add(new Cardiologist(5, "Peter Quill", 55, "Cardiologist", "Vascular Medicine", true));
+        // Initialization: Create and register Health Professionals in the registry
+        registerDemoDoctors(doctorRegistry);
 
         // Demonstration of printing doctor information
         printDoctorsInfo();
-        System.out.println("------------------------------");
+        log.log("------------------------------" + RowRenderer.LINE_SEPARATOR);
 
         // Part 5 – Collection of appointments
         // Demonstration of creating appointments.
@@ -205,6 +854,36 @@ public class AssignmentOne {
         // Demonstration of printing the updated list after cancellation.
         printExistingAppointments();
 
-        System.out.println("------------------------------");
+        log.log("------------------------------" + RowRenderer.LINE_SEPARATOR);
+
+        // Wait for the background writer before the program exits.
+        flushLog();
+    }
+
+    /**
+     * The schedule the static API currently works on, captured so that an operation
+     * replacing it can put it back if it fails halfway.
+     */
+    private static final class ScheduleState {
+        private final DoctorRegistry doctorRegistry = AssignmentOne.doctorRegistry;
+        private final AppointmentStore appointmentStore = AssignmentOne.appointmentStore;
+        private final PatientRegistry patientRegistry = AssignmentOne.patientRegistry;
+        private final LiveScheduleStats liveStats = AssignmentOne.liveStats;
+        private final RenderedRowCache rowCache = AssignmentOne.rowCache;
+        private final AppointmentScheduler scheduler = AssignmentOne.scheduler;
+        private final RosterSnapshot rosterSnapshot = AssignmentOne.rosterSnapshot;
+
+        /**
+         * Makes the captured schedule current again.
+         */
+        private void restore() {
+            AssignmentOne.doctorRegistry = doctorRegistry;
+            AssignmentOne.appointmentStore = appointmentStore;
+            AssignmentOne.patientRegistry = patientRegistry;
+            AssignmentOne.liveStats = liveStats;
+            AssignmentOne.rowCache = rowCache;
+            AssignmentOne.scheduler = scheduler;
+            AssignmentOne.rosterSnapshot = rosterSnapshot;
+        }
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,256 @@
+import java.io.PrintStream;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.LockSupport;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Supplier;
+
+/**
+ * Writes human-readable messages on a background thread, so callers never wait
+ * for the console. Callers queue messages in submission order under a short
+ * lock; the writer thread polls the queue without locking, takes everything
+ * queued so far, concatenates it, and writes the batch with a single print and
+ * flush. Callers only wake the writer when it is idle. The queue is bounded by
+ * the total length of the pending text: when it is full, log() blocks until the
+ * writer has made room rather than dropping messages, so a burst of large
+ * reports cannot pile up in memory.
+ */
+public class AsyncLogSink implements AutoCloseable {
+
+    // Characters of text that may wait to be written before log() has to wait.
+    private static final int MAX_PENDING_CHARS = 1 << 20;
+    // Length at which the writer stops gathering a batch and writes it out.
+    private static final int MAX_BATCH_CHARS = 64 * 1024;
+
+    // --- Instance Variables ---
+
+    // Messages and flush markers waiting for the writer thread, in submission order.
+    private final ConcurrentLinkedQueue<Object> queue;
+    // Characters in the queue (flush markers count as one), used to bound it.
+    private final AtomicLong pending;
+    // Held while queueing and while closing, so nothing is queued after close() has begun.
+    private final ReentrantLock lock;
+    // Signalled by the writer when it has taken text off the queue while callers wait for room.
+    private final Condition roomAvailable;
+    // Number of callers waiting on roomAvailable; only changed while holding the lock.
+    private volatile int waiting;
+    // True while the writer thread is parked waiting for work.
+    private volatile boolean idle;
+    // Returns the stream to write to; read once per batch, so redirections take effect.
+    private final Supplier<PrintStream> target;
+    // The background writer.
+    private final Thread writer;
+    // Set once close() has been called; only changed while holding the lock.
+    private volatile boolean closed;
+
+    // --- Constructors ---
+
+    /**
+     * Parameterized constructor. Starts the writer thread.
+     * @param name The name of the writer thread.
+     * @param target Supplies the stream each batch is written to, e.g. () -> System.out.
+     */
+    public AsyncLogSink(String name, Supplier<PrintStream> target) {
+        this.queue = new ConcurrentLinkedQueue<>();
+        this.pending = new AtomicLong();
+        this.lock = new ReentrantLock();
+        this.roomAvailable = lock.newCondition();
+        this.waiting = 0;
+        this.idle = false;
+        this.target = target;
+        this.closed = false;
+        this.writer = new Thread(this::writeLoop, name);
+        writer.setDaemon(true);
+        writer.start();
+    }
+
+    // --- Methods ---
+
+    /**
+     * Queues a message for writing. The message is written exactly as given,
+     * so it should end with a line separator if it is a complete line.
+     * @param message The text to write.
+     * @throws IllegalStateException if the sink has been closed.
+     */
+    public void log(String message) {
+        enqueue(message);
+    }
+
+    /**
+     * Waits until every message queued before this call has been written and flushed.
+     * @throws IllegalStateException if the sink has been closed.
+     */
+    public void flush() {
+        CountDownLatch written = new CountDownLatch(1);
+        enqueue(written);
+        boolean interrupted = false;
+        while (true) {
+            try {
+                written.await();
+                break;
+            } catch (InterruptedException e) {
+                interrupted = true;
+            }
+        }
+        if (interrupted) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * Stops accepting messages, then waits for the writer thread to write everything
+     * queued before this call and exit. Callers still waiting for room are refused.
+     */
+    @Override
+    public void close() {
+        lock.lock();
+        try {
+            if (closed) {
+                return;
+            }
+            closed = true;
+            roomAvailable.signalAll();
+        } finally {
+            lock.unlock();
+        }
+        LockSupport.unpark(writer);
+        boolean interrupted = false;
+        while (true) {
+            try {
+                writer.join();
+                break;
+            } catch (InterruptedException e) {
+                interrupted = true;
+            }
+        }
+        if (interrupted) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    // --- Helper Methods ---
+
+    /**
+     * Adds a message or flush marker to the queue, waiting for room if necessary.
+     */
+    private void enqueue(Object item) {
+        int size = sizeOf(item);
+        boolean interrupted = false;
+        lock.lock();
+        try {
+            if (!closed && !hasRoom(size)) {
+                // Announce the wait before checking again, so the writer cannot miss it.
+                waiting++;
+                try {
+                    while (!closed && !hasRoom(size)) {
+                        LockSupport.unpark(writer);
+                        try {
+                            roomAvailable.await();
+                        } catch (InterruptedException e) {
+                            interrupted = true;
+                        }
+                    }
+                } finally {
+                    waiting--;
+                }
+            }
+            if (closed) {
+                throw new IllegalStateException("Log sink is closed");
+            }
+            pending.addAndGet(size);
+            queue.offer(item);
+        } finally {
+            lock.unlock();
+            if (interrupted) {
+                Thread.currentThread().interrupt();
+            }
+        }
+        if (idle) {
+            LockSupport.unpark(writer);
+        }
+    }
+
+    /**
+     * Body of the writer thread: takes batches off the queue and writes each in one call.
+     */
+    private void writeLoop() {
+        StringBuilder text = new StringBuilder(4096);
+        while (true) {
+            Object item = queue.poll();
+            if (item == null) {
+                // Nothing queued: write the batch, then park until a caller wakes us.
+                write(text);
+                if (closed && queue.isEmpty()) {
+                    // Everything queued before close() has been written.
+                    return;
+                }
+                idle = true;
+                if (queue.isEmpty() && !closed) {
+                    LockSupport.park(this);
+                }
+                idle = false;
+                continue;
+            }
+            pending.addAndGet(-sizeOf(item));
+            if (waiting > 0) {
+                signalRoom();
+            }
+            if (item instanceof String) {
+                text.append((String) item);
+                if (text.length() >= MAX_BATCH_CHARS) {
+                    write(text);
+                }
+            } else {
+                // A flush marker: write what precedes it, then release the waiting caller.
+                write(text);
+                ((CountDownLatch) item).countDown();
+            }
+        }
+    }
+
+    /**
+     * Checks whether an item of the given size fits in the queue bound.
+     * A message longer than the whole limit is still accepted once the queue is empty.
+     */
+    private boolean hasRoom(int size) {
+        long queued = pending.get();
+        return queued == 0 || queued + size <= MAX_PENDING_CHARS;
+    }
+
+    /**
+     * Wakes the callers waiting for room in the queue.
+     */
+    private void signalRoom() {
+        lock.lock();
+        try {
+            roomAvailable.signalAll();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Returns the number of characters an item counts for in the queue bound.
+     */
+    private static int sizeOf(Object item) {
+        return item instanceof String ? Math.max(1, ((String) item).length()) : 1;
+    }
+
+    /**
+     * Writes and clears the pending text, if any.
+     */
+    private void write(StringBuilder text) {
+        if (text.length() == 0) {
+            return;
+        }
+        PrintStream out = target.get();
+        out.append(text);
+        out.flush();
+        text.setLength(0);
+        if (text.capacity() > (1 << 20)) {
+            text.trimToSize();
+        }
+    }
+}
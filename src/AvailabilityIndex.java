@@ -0,0 +1,432 @@
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Answers "who is free first" questions over the whole roster.
+ * Every registered doctor gets a row number. Searchable attributes are kept as
+ * precomputed bitsets over the rows (one per concrete type, bulk billing, cath lab
+ * access and subspecialty) plus a column of maximum consultation times, all read
+ * from each doctor's SpecialtyDescriptor, so the doctors matching a query are
+ * found with a few word-wise ANDs.
+ *
+ * The rows are also kept in a priority queue of earliest free times: a bucket
+ * queue with one bucket per minute of the day, holding the rows whose calendar
+ * is first free at that minute. Each calendar reports changes to its first free
+ * slot, so bookings and cancellations move a row between buckets in constant time.
+ * A doctor first free at or after the query's start minute is free exactly then,
+ * so those results come straight from the buckets, earliest first, and the walk
+ * stops once no later bucket can improve on the results found. Only doctors first
+ * free before the start minute have to be asked for their next free slot in the
+ * calendar. A bounded heap of (start minute, row) pairs keeps the earliest results.
+ * Maintained by DoctorRegistry.register(); reads the same calendars that bookings update.
+ */
+public class AvailabilityIndex {
+
+    // Number of buckets in the queue, one per possible first free minute.
+    private static final int BUCKETS = SlotCalendar.MINUTES_PER_DAY;
+
+    // --- Instance Variables ---
+
+    // Row -> doctor, in registration order.
+    private final ArrayList<HealthProfessional> doctors;
+    // Row -> that doctor's calendar.
+    private final ArrayList<SlotCalendar> calendars;
+    // Row -> maximum consultation time declared by the doctor's specialty, or 0.
+    private int[] maxConsultationMinutes;
+    // Bitset of every row.
+    private long[] allRows;
+    // Bitset of bulk-billing doctors.
+    private long[] bulkBilling;
+    // Bitset of doctors with cath lab access.
+    private long[] cathLab;
+    // Concrete type -> bitset of its rows.
+    private final Map<Class<? extends HealthProfessional>, long[]> byType;
+    // Lower-cased subspecialty -> bitset of its rows.
+    private final Map<String, long[]> bySubspecialty;
+    // Row -> first free minute of its calendar, i.e. its bucket, or -1 if the day is full.
+    private int[] firstFree;
+    // Row -> next and previous row in the same bucket, or -1.
+    private int[] nextInBucket;
+    private int[] previousInBucket;
+    // Minute -> first row of its bucket, or -1 if the bucket is empty.
+    private final int[] bucketHead;
+    // Minute -> number of rows in its bucket.
+    private final int[] bucketSize;
+    // Bitset of the minutes whose bucket is not empty.
+    private final long[] nonEmptyBuckets;
+
+    // --- Constructors ---
+
+    /**
+     * Default constructor. Creates an empty index.
+     */
+    public AvailabilityIndex() {
+        this.doctors = new ArrayList<>();
+        this.calendars = new ArrayList<>();
+        this.maxConsultationMinutes = new int[64];
+        this.allRows = new long[1];
+        this.bulkBilling = new long[1];
+        this.cathLab = new long[1];
+        this.byType = new LinkedHashMap<>();
+        this.bySubspecialty = new HashMap<>();
+        this.firstFree = new int[64];
+        this.nextInBucket = new int[64];
+        this.previousInBucket = new int[64];
+        this.bucketHead = new int[BUCKETS];
+        Arrays.fill(bucketHead, -1);
+        this.bucketSize = new int[BUCKETS];
+        this.nonEmptyBuckets = new long[(BUCKETS + 63) >>> 6];
+    }
+
+    // --- Methods ---
+
+    /**
+     * Adds a doctor and indexes its attributes.
+     * The index becomes the calendar's first free slot listener, replacing any earlier one.
+     * @param doctor The doctor.
+     * @param calendar The doctor's calendar, shared with the booking code.
+     */
+    public void add(HealthProfessional doctor, SlotCalendar calendar) {
+        int row = doctors.size();
+        doctors.add(doctor);
+        calendars.add(calendar);
+        if (row == maxConsultationMinutes.length) {
+            maxConsultationMinutes = Arrays.copyOf(maxConsultationMinutes, row * 2);
+            firstFree = Arrays.copyOf(firstFree, row * 2);
+            nextInBucket = Arrays.copyOf(nextInBucket, row * 2);
+            previousInBucket = Arrays.copyOf(previousInBucket, row * 2);
+        }
+        enqueue(row, calendar.getFirstFreeSlot());
+        calendar.setFirstFreeSlotListener(minute -> {
+            dequeue(row);
+            enqueue(row, minute);
+        });
+        allRows = set(allRows, row);
+        byType.put(doctor.getClass(), set(byType.get(doctor.getClass()), row));
+
+        // The searchable attributes are declared by the doctor's specialty.
+        SpecialtyDescriptor<?> specialty = doctor.getSpecialty();
+        if (specialty == null) {
+            return;
+        }
+        maxConsultationMinutes[row] = specialty.getMaxConsultationTime(doctor);
+        if (specialty.isBulkBilling(doctor)) {
+            bulkBilling = set(bulkBilling, row);
+        }
+        if (specialty.hasCathLabAccess(doctor)) {
+            cathLab = set(cathLab, row);
+        }
+        String subspecialty = specialty.getSubspecialty(doctor);
+        if (subspecialty != null) {
+            String key = subspecialty.toLowerCase(Locale.ROOT);
+            bySubspecialty.put(key, set(bySubspecialty.get(key), row));
+        }
+    }
+
+    /**
+     * Finds the doctors matching a query who are free earliest.
+     * Each doctor appears at most once, with their first free slot in the query's time range.
+     * @param query The doctor and time filters.
+     * @param limit The maximum number of results.
+     * @return Up to 'limit' slots, earliest first; ties keep registration order.
+     * @throws IllegalArgumentException if limit is not positive.
+     */
+    public List<AvailableSlot> search(AvailabilityQuery query, int limit) {
+        if (limit <= 0) {
+            throw new IllegalArgumentException("Limit must be positive: " + limit);
+        }
+        long[] candidates = candidates(query);
+        if (candidates == null) {
+            return Collections.emptyList();
+        }
+
+        // Max-heap of packed (start minute << 32 | row) holding the best results so far.
+        long[] heap = new long[Math.min(limit, doctors.size())];
+        int size = 0;
+        int from = Math.max(0, query.getFromMinute());
+        int minConsultation = query.getMinConsultationMinutes();
+
+        // Doctors first free before 'from' may be free at any later minute, so their calendars are probed.
+        int earliestBucket = nextBucket(0);
+        if (earliestBucket >= 0 && earliestBucket < from) {
+            probe:
+            for (int w = 0; w < candidates.length; w++) {
+                long word = candidates[w];
+                while (word != 0) {
+                    int row = (w << 6) + Long.numberOfTrailingZeros(word);
+                    word &= word - 1;
+                    if (firstFree[row] < 0 || firstFree[row] >= from || maxConsultationMinutes[row] < minConsultation) {
+                        continue;
+                    }
+                    int start = calendars.get(row).nextFreeSlot(from);
+                    if (start < 0 || start >= query.getToMinute()) {
+                        continue;
+                    }
+                    size = offer(heap, size, ((long) start << 32) | row);
+                    // Later rows cannot beat a full heap of slots at the earliest minute.
+                    if (size == heap.length && (int) (heap[0] >>> 32) <= from) {
+                        break probe;
+                    }
+                }
+            }
+        }
+
+        // Every other doctor is free exactly at its first free minute; walk the buckets from 'from' on.
+        for (int minute = nextBucket(from); minute >= 0 && minute < query.getToMinute(); minute = nextBucket(minute + 1)) {
+            if (size == heap.length && (int) (heap[0] >>> 32) < minute) {
+                break;
+            }
+            if (bucketSize[minute] <= candidates.length >>> 3) {
+                for (int row = bucketHead[minute]; row >= 0; row = nextInBucket[row]) {
+                    if (isSet(candidates, row) && maxConsultationMinutes[row] >= minConsultation) {
+                        size = offer(heap, size, ((long) minute << 32) | row);
+                    }
+                }
+                continue;
+            }
+            // A crowded bucket is cheaper to take from the candidates in row order, which can stop early.
+            crowded:
+            for (int w = 0; w < candidates.length; w++) {
+                long word = candidates[w];
+                while (word != 0) {
+                    int row = (w << 6) + Long.numberOfTrailingZeros(word);
+                    word &= word - 1;
+                    if (firstFree[row] != minute || maxConsultationMinutes[row] < minConsultation) {
+                        continue;
+                    }
+                    long entry = ((long) minute << 32) | row;
+                    if (size == heap.length && entry > heap[0]) {
+                        break crowded;
+                    }
+                    size = offer(heap, size, entry);
+                }
+            }
+        }
+
+        Arrays.sort(heap, 0, size);
+        List<AvailableSlot> slots = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            slots.add(new AvailableSlot(doctors.get((int) heap[i]), (int) (heap[i] >>> 32)));
+        }
+        return slots;
+    }
+
+    /**
+     * Finds the single doctor matching a query who is free earliest.
+     * @param query The doctor and time filters.
+     * @return The earliest slot, or null if no matching doctor is free in the time range.
+     */
+    public AvailableSlot findEarliest(AvailabilityQuery query) {
+        List<AvailableSlot> slots = search(query, 1);
+        return slots.isEmpty() ? null : slots.get(0);
+    }
+
+    /**
+     * Getter for the number of indexed doctors.
+     * @return The row count.
+     */
+    public int size() {
+        return doctors.size();
+    }
+
+    // --- Helper Methods ---
+
+    /**
+     * Intersects the attribute bitsets selected by a query.
+     * @return A new bitset of matching rows, or null if an attribute rules out every row.
+     */
+    private long[] candidates(AvailabilityQuery query) {
+        long[] rows = allRows.clone();
+        if (query.getProfessionType() != null) {
+            long[] types = new long[rows.length];
+            for (Map.Entry<Class<? extends HealthProfessional>, long[]> type : byType.entrySet()) {
+                if (query.getProfessionType().isAssignableFrom(type.getKey())) {
+                    or(types, type.getValue());
+                }
+            }
+            and(rows, types);
+        }
+        if (query.isBulkBillingRequired()) {
+            and(rows, bulkBilling);
+        }
+        if (query.isCathLabRequired()) {
+            and(rows, cathLab);
+        }
+        if (query.getSubspecialty() != null) {
+            long[] subspecialty = bySubspecialty.get(query.getSubspecialty().toLowerCase(Locale.ROOT));
+            if (subspecialty == null) {
+                return null;
+            }
+            and(rows, subspecialty);
+        }
+        return rows;
+    }
+
+    /**
+     * Puts a row into the bucket of its first free minute; rows with a full day go in none.
+     */
+    private void enqueue(int row, int minute) {
+        firstFree[row] = minute;
+        if (minute < 0) {
+            return;
+        }
+        int head = bucketHead[minute];
+        nextInBucket[row] = head;
+        previousInBucket[row] = -1;
+        if (head >= 0) {
+            previousInBucket[head] = row;
+        }
+        bucketHead[minute] = row;
+        if (bucketSize[minute]++ == 0) {
+            nonEmptyBuckets[minute >>> 6] |= 1L << minute;
+        }
+    }
+
+    /**
+     * Takes a row out of its bucket, if it is in one.
+     */
+    private void dequeue(int row) {
+        int minute = firstFree[row];
+        if (minute < 0) {
+            return;
+        }
+        int next = nextInBucket[row];
+        int previous = previousInBucket[row];
+        if (previous >= 0) {
+            nextInBucket[previous] = next;
+        } else {
+            bucketHead[minute] = next;
+        }
+        if (next >= 0) {
+            previousInBucket[next] = previous;
+        }
+        if (--bucketSize[minute] == 0) {
+            nonEmptyBuckets[minute >>> 6] &= ~(1L << minute);
+        }
+        firstFree[row] = -1;
+    }
+
+    /**
+     * Returns the first minute at or after 'from' whose bucket is not empty, or -1.
+     */
+    private int nextBucket(int from) {
+        if (from >= BUCKETS) {
+            return -1;
+        }
+        int w = from >>> 6;
+        long word = nonEmptyBuckets[w] & (-1L << from);
+        while (true) {
+            if (word != 0) {
+                return (w << 6) + Long.numberOfTrailingZeros(word);
+            }
+            if (++w == nonEmptyBuckets.length) {
+                return -1;
+            }
+            word = nonEmptyBuckets[w];
+        }
+    }
+
+    /**
+     * Checks a bit; bits beyond the end of the bitset are clear.
+     */
+    private static boolean isSet(long[] bits, int row) {
+        int word = row >>> 6;
+        return word < bits.length && (bits[word] & (1L << row)) != 0;
+    }
+
+    /**
+     * Sets a bit, allocating or growing the bitset as needed.
+     * @return The bitset holding the bit, which may be a new array.
+     */
+    private static long[] set(long[] bits, int row) {
+        int word = row >>> 6;
+        if (bits == null) {
+            bits = new long[word + 1];
+        } else if (word >= bits.length) {
+            bits = Arrays.copyOf(bits, Math.max(word + 1, bits.length * 2));
+        }
+        bits[word] |= 1L << row;
+        return bits;
+    }
+
+    /**
+     * target &= other; words missing from 'other' count as zero.
+     */
+    private static void and(long[] target, long[] other) {
+        for (int w = 0; w < target.length; w++) {
+            target[w] &= w < other.length ? other[w] : 0;
+        }
+    }
+
+    /**
+     * target |= other, ignoring words beyond the end of 'target'.
+     */
+    private static void or(long[] target, long[] other) {
+        int words = Math.min(target.length, other.length);
+        for (int w = 0; w < words; w++) {
+            target[w] |= other[w];
+        }
+    }
+
+    /**
+     * Offers a result to the bounded max-heap, replacing its worst entry when full.
+     * @return The new heap size.
+     */
+    private static int offer(long[] heap, int size, long entry) {
+        if (size < heap.length) {
+            heap[size] = entry;
+            siftUp(heap, size);
+            return size + 1;
+        }
+        if (entry < heap[0]) {
+            heap[0] = entry;
+            siftDown(heap, size);
+        }
+        return size;
+    }
+
+    /**
+     * Restores the max-heap order after adding heap[index].
+     */
+    private static void siftUp(long[] heap, int index) {
+        long entry = heap[index];
+        while (index > 0) {
+            int parent = (index - 1) >>> 1;
+            if (heap[parent] >= entry) {
+                break;
+            }
+            heap[index] = heap[parent];
+            index = parent;
+        }
+        heap[index] = entry;
+    }
+
+    /**
+     * Restores the max-heap order after replacing the root.
+     */
+    private static void siftDown(long[] heap, int size) {
+        long entry = heap[0];
+        int index = 0;
+        while (true) {
+            int child = 2 * index + 1;
+            if (child >= size) {
+                break;
+            }
+            if (child + 1 < size && heap[child + 1] > heap[child]) {
+                child++;
+            }
+            if (heap[child] <= entry) {
+                break;
+            }
+            heap[index] = heap[child];
+            index = child;
+        }
+        heap[index] = entry;
+    }
+}
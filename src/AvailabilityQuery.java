@@ -0,0 +1,185 @@
+/**
+ * Describes which doctors and times an availability search should consider.
+ * Every filter is optional; an empty query finds the earliest free slot of any
+ * doctor today. Filters are combined with AND and set through chainable methods, e.g.
+ * new AvailabilityQuery().ofType(Cardiologist.class).withCathLabAccess().after("10:00").
+ */
+public class AvailabilityQuery {
+
+    // --- Instance Variables ---
+
+    // Only doctors that are instances of this type, or null for any type.
+    private Class<? extends HealthProfessional> professionType;
+    // Only General Practitioners offering bulk billing.
+    private boolean bulkBillingRequired;
+    // Only Cardiologists with cath lab access.
+    private boolean cathLabRequired;
+    // Only Cardiologists with this subspecialty (case-insensitive), or null for any.
+    private String subspecialty;
+    // Only General Practitioners whose maximum consultation time is at least this many minutes; 0 for any.
+    private int minConsultationMinutes;
+    // Slots must start at or after this minute of the day.
+    private int fromMinute;
+    // Slots must start before this minute of the day.
+    private int toMinute;
+
+    // --- Constructors ---
+
+    /**
+     * Default constructor. Creates a query that accepts any doctor at any time of day.
+     */
+    public AvailabilityQuery() {
+        this.professionType = null;
+        this.bulkBillingRequired = false;
+        this.cathLabRequired = false;
+        this.subspecialty = null;
+        this.minConsultationMinutes = 0;
+        this.fromMinute = 0;
+        this.toMinute = SlotCalendar.MINUTES_PER_DAY;
+    }
+
+    // --- Filter Methods ---
+
+    /**
+     * Restricts the search to doctors of one profession type.
+     * @param professionType The HealthProfessional subclass, e.g. Cardiologist.class.
+     * @return This query, for chaining.
+     */
+    public AvailabilityQuery ofType(Class<? extends HealthProfessional> professionType) {
+        this.professionType = professionType;
+        return this;
+    }
+
+    /**
+     * Restricts the search to General Practitioners who offer bulk billing.
+     * @return This query, for chaining.
+     */
+    public AvailabilityQuery bulkBilling() {
+        this.bulkBillingRequired = true;
+        return this;
+    }
+
+    /**
+     * Restricts the search to Cardiologists with cath lab access.
+     * @return This query, for chaining.
+     */
+    public AvailabilityQuery withCathLabAccess() {
+        this.cathLabRequired = true;
+        return this;
+    }
+
+    /**
+     * Restricts the search to Cardiologists of one subspecialty.
+     * @param subspecialty The subspecialty, e.g. "Electrophysiology" (case-insensitive).
+     * @return This query, for chaining.
+     */
+    public AvailabilityQuery withSubspecialty(String subspecialty) {
+        this.subspecialty = subspecialty;
+        return this;
+    }
+
+    /**
+     * Restricts the search to General Practitioners who allow consultations of at least the given length.
+     * @param minutes The required consultation length in minutes.
+     * @return This query, for chaining.
+     * @throws IllegalArgumentException if minutes is negative.
+     */
+    public AvailabilityQuery withConsultationOf(int minutes) {
+        if (minutes < 0) {
+            throw new IllegalArgumentException("Invalid consultation length: " + minutes);
+        }
+        this.minConsultationMinutes = minutes;
+        return this;
+    }
+
+    /**
+     * Only accepts slots starting at or after a time.
+     * @param from The earliest start time, e.g. "10:00".
+     * @return This query, for chaining.
+     * @throws IllegalArgumentException if the time is not in HH:mm format.
+     */
+    public AvailabilityQuery after(String from) {
+        int fromParsed = SlotCalendar.parseTime(from);
+        if (fromParsed < 0) {
+            throw new IllegalArgumentException("Invalid time " + from);
+        }
+        this.fromMinute = fromParsed;
+        return this;
+    }
+
+    /**
+     * Only accepts slots starting in [from, to).
+     * @param from The earliest start time, e.g. "09:00".
+     * @param to The time before which the slot must start, e.g. "12:00".
+     * @return This query, for chaining.
+     * @throws IllegalArgumentException if either time is not in HH:mm format.
+     */
+    public AvailabilityQuery between(String from, String to) {
+        int fromParsed = SlotCalendar.parseTime(from);
+        int toParsed = SlotCalendar.parseTime(to);
+        if (fromParsed < 0 || toParsed < 0) {
+            throw new IllegalArgumentException("Invalid time range " + from + " - " + to);
+        }
+        this.fromMinute = fromParsed;
+        this.toMinute = toParsed;
+        return this;
+    }
+
+    // --- Getters ---
+
+    /**
+     * Getter for the profession type filter.
+     * @return The profession type, or null for any type.
+     */
+    public Class<? extends HealthProfessional> getProfessionType() {
+        return professionType;
+    }
+
+    /**
+     * Getter for the bulk billing filter.
+     * @return True if only bulk-billing General Practitioners are accepted.
+     */
+    public boolean isBulkBillingRequired() {
+        return bulkBillingRequired;
+    }
+
+    /**
+     * Getter for the cath lab filter.
+     * @return True if only Cardiologists with cath lab access are accepted.
+     */
+    public boolean isCathLabRequired() {
+        return cathLabRequired;
+    }
+
+    /**
+     * Getter for the subspecialty filter.
+     * @return The subspecialty, or null for any.
+     */
+    public String getSubspecialty() {
+        return subspecialty;
+    }
+
+    /**
+     * Getter for the consultation length filter.
+     * @return The required consultation length in minutes, or 0 for any.
+     */
+    public int getMinConsultationMinutes() {
+        return minConsultationMinutes;
+    }
+
+    /**
+     * Getter for the start of the time range.
+     * @return The earliest start minute (inclusive).
+     */
+    public int getFromMinute() {
+        return fromMinute;
+    }
+
+    /**
+     * Getter for the end of the time range.
+     * @return The latest start minute (exclusive).
+     */
+    public int getToMinute() {
+        return toMinute;
+    }
+}
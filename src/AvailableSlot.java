@@ -0,0 +1,51 @@
+/**
+ * One result of an availability search: a doctor and the earliest time a
+ * consultation with them can start.
+ */
+public class AvailableSlot {
+
+    // --- Instance Variables ---
+
+    // The doctor who is free.
+    private final HealthProfessional doctor;
+    // Minute of the day the free slot starts.
+    private final int startMinute;
+
+    // --- Constructor ---
+
+    /**
+     * Parameterized constructor.
+     * @param doctor The doctor who is free.
+     * @param startMinute The minute of the day the free slot starts.
+     */
+    public AvailableSlot(HealthProfessional doctor, int startMinute) {
+        this.doctor = doctor;
+        this.startMinute = startMinute;
+    }
+
+    // --- Getters ---
+
+    /**
+     * Getter for the doctor.
+     * @return The doctor who is free.
+     */
+    public HealthProfessional getDoctor() {
+        return doctor;
+    }
+
+    /**
+     * Getter for the start of the slot.
+     * @return The minute of the day the slot starts.
+     */
+    public int getStartMinute() {
+        return startMinute;
+    }
+
+    /**
+     * Getter for the start of the slot as a time, ready to pass to createAppointment.
+     * @return The start time in "HH:mm" format.
+     */
+    public String getTimeSlot() {
+        return SlotCalendar.formatTime(startMinute);
+    }
+}
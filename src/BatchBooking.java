@@ -0,0 +1,85 @@
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.IntStream;
+
+/**
+ * Books a whole batch of requests against a DoctorRegistry and AppointmentStore.
+ * The batch runs as a pipeline:
+ *   1. each distinct doctor ID is resolved once;
+ *   2. the request fields are validated, in parallel for large batches;
+ *   3. calendar slots are reserved in submission order, so earlier requests win conflicts;
+ *   4. all accepted appointments are added to the store in one bulk insert.
+ * Nothing is printed; the outcome of every request is returned in a BatchBookingReport.
+ */
+public final class BatchBooking {
+
+    // Batches at least this large are validated with a parallel stream.
+    private static final int PARALLEL_THRESHOLD = 4096;
+    // Marker cached for doctor IDs that are not registered.
+    private static final Object UNKNOWN_DOCTOR = new Object();
+
+    /**
+     * Private constructor. This class only has static methods.
+     */
+    private BatchBooking() {
+    }
+
+    /**
+     * Validates and books a batch of requests.
+     * @param requests The booking requests, in submission order.
+     * @param registry The registry used to resolve doctors and their calendars.
+     * @param patients The registry interning the Patient of each accepted appointment.
+     * @param store The store receiving the accepted appointments.
+     * @return The outcome of every request.
+     */
+    public static BatchBookingReport book(List<BookingRequest> requests, DoctorRegistry registry,
+                                          PatientRegistry patients, AppointmentStore store) {
+        int size = requests.size();
+
+        // Stage 1: resolve every distinct doctor ID once.
+        HealthProfessional[] doctors = new HealthProfessional[size];
+        IntObjectMap<Object> resolved = new IntObjectMap<>();
+        for (int i = 0; i < size; i++) {
+            int doctorId = requests.get(i).getDoctorId();
+            Object doctor = resolved.get(doctorId);
+            if (doctor == null) {
+                doctor = registry.findById(doctorId);
+                resolved.put(doctorId, doctor != null ? doctor : UNKNOWN_DOCTOR);
+            }
+            doctors[i] = doctor instanceof HealthProfessional ? (HealthProfessional) doctor : null;
+        }
+
+        // Stage 2: validate the request fields; items are independent, so large batches run in parallel.
+        BookingStatus[] statuses = new BookingStatus[size];
+        IntStream indexes = IntStream.range(0, size);
+        if (size >= PARALLEL_THRESHOLD) {
+            indexes = indexes.parallel();
+        }
+        indexes.forEach(i -> {
+            BookingRequest request = requests.get(i);
+            statuses[i] = AssignmentOne.validateRequest(doctors[i], request.getPatientName(),
+                    request.getPatientMobile(), request.getTimeSlot());
+        });
+
+        // Stage 3: reserve slots in submission order and build the accepted appointments.
+        List<Appointment> accepted = new ArrayList<>();
+        for (int i = 0; i < size; i++) {
+            if (statuses[i] != null) {
+                continue;
+            }
+            BookingRequest request = requests.get(i);
+            SlotCalendar calendar = registry.calendarOf(request.getDoctorId());
+            if (!calendar.reserve(SlotCalendar.parseTime(request.getTimeSlot()))) {
+                statuses[i] = BookingStatus.SLOT_UNAVAILABLE;
+                continue;
+            }
+            Patient patient = patients.intern(request.getPatientName(), request.getPatientMobile());
+            accepted.add(new Appointment(patient, request.getTimeSlot(), doctors[i]));
+            statuses[i] = BookingStatus.CREATED;
+        }
+
+        // Stage 4: commit all accepted appointments in one bulk insert.
+        store.addAll(accepted);
+        return new BatchBookingReport(statuses);
+    }
+}
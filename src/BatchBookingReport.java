@@ -0,0 +1,71 @@
+/**
+ * Per-item outcome of a batch booking.
+ * Item 'i' of the report corresponds to request 'i' of the submitted batch.
+ */
+public class BatchBookingReport {
+
+    // --- Instance Variables ---
+
+    // Outcome of each request, in submission order.
+    private final BookingStatus[] statuses;
+    // Number of requests per outcome, indexed by BookingStatus.ordinal().
+    private final int[] counts;
+
+    // --- Constructor ---
+
+    /**
+     * Parameterized constructor. Takes ownership of the status array.
+     * @param statuses The outcome of each request, in submission order.
+     */
+    public BatchBookingReport(BookingStatus[] statuses) {
+        this.statuses = statuses;
+        this.counts = new int[BookingStatus.values().length];
+        for (BookingStatus status : statuses) {
+            counts[status.ordinal()]++;
+        }
+    }
+
+    // --- Methods ---
+
+    /**
+     * Returns the outcome of one request.
+     * @param index The position of the request in the batch.
+     * @return The request's outcome.
+     */
+    public BookingStatus getStatus(int index) {
+        return statuses[index];
+    }
+
+    /**
+     * Returns how many requests ended with the given outcome.
+     * @param status The outcome to count.
+     * @return The number of requests with that outcome.
+     */
+    public int count(BookingStatus status) {
+        return counts[status.ordinal()];
+    }
+
+    /**
+     * Getter for the number of appointments created.
+     * @return The count of CREATED outcomes.
+     */
+    public int getCreatedCount() {
+        return counts[BookingStatus.CREATED.ordinal()];
+    }
+
+    /**
+     * Getter for the number of rejected requests.
+     * @return The batch size minus the created count.
+     */
+    public int getFailedCount() {
+        return statuses.length - getCreatedCount();
+    }
+
+    /**
+     * Getter for the batch size.
+     * @return The number of requests in the batch.
+     */
+    public int size() {
+        return statuses.length;
+    }
+}
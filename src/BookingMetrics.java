@@ -0,0 +1,230 @@
+import java.lang.management.ManagementFactory;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.LongSupplier;
+import javax.management.JMException;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+
+/**
+ * Instrumentation of the booking operations.
+ * Counts every BookingStatus outcome with a LongAdder, keeps one LatencyHistogram
+ * per operation, and reads registered gauges (such as index sizes) on demand.
+ * Recording is lock-free and allocation-free, so the metrics stay enabled in
+ * production. Values are available through getters, a text dump, and JMX.
+ */
+public class BookingMetrics implements BookingMetricsMXBean {
+
+    // Percentiles reported by the latency summaries.
+    private static final double[] PERCENTILES = {50, 90, 99, 99.9};
+    private static final String[] PERCENTILE_NAMES = {"p50", "p90", "p99", "p99.9"};
+
+    // --- Instance Variables ---
+
+    // Count per outcome, indexed by BookingStatus ordinal.
+    private final LongAdder[] outcomes;
+    // Latency per operation, indexed by Operation ordinal.
+    private final LatencyHistogram[] latencies;
+    // Gauge name -> value source, in registration order. Guarded by itself.
+    private final Map<String, LongSupplier> gauges;
+
+    // --- Constructors ---
+
+    /**
+     * Default constructor. Creates metrics with zero counts and no gauges.
+     */
+    public BookingMetrics() {
+        this.outcomes = new LongAdder[BookingStatus.values().length];
+        for (int i = 0; i < outcomes.length; i++) {
+            outcomes[i] = new LongAdder();
+        }
+        this.latencies = new LatencyHistogram[Operation.values().length];
+        for (int i = 0; i < latencies.length; i++) {
+            latencies[i] = new LatencyHistogram();
+        }
+        this.gauges = new LinkedHashMap<>();
+    }
+
+    // --- Recording ---
+
+    /**
+     * Records one completed operation.
+     * @param operation The operation that ran.
+     * @param status Its outcome.
+     * @param nanos How long it took, in nanoseconds.
+     */
+    public void record(Operation operation, BookingStatus status, long nanos) {
+        outcomes[status.ordinal()].increment();
+        latencies[operation.ordinal()].record(nanos);
+    }
+
+    /**
+     * Counts an outcome without timing it, e.g. for a request in a batch.
+     * @param status The outcome.
+     */
+    public void count(BookingStatus status) {
+        outcomes[status.ordinal()].increment();
+    }
+
+    /**
+     * Registers a gauge, replacing any gauge with the same name.
+     * The value source is called whenever the metrics are read, possibly from another thread.
+     * @param name The gauge name, e.g. "appointments".
+     * @param value Supplies the current value.
+     */
+    public void registerGauge(String name, LongSupplier value) {
+        if (name == null || value == null) {
+            throw new IllegalArgumentException("Gauge name and value source are required");
+        }
+        synchronized (gauges) {
+            gauges.put(name, value);
+        }
+    }
+
+    // --- Reading ---
+
+    /**
+     * Getter for the count of one outcome.
+     * @param status The outcome.
+     * @return How many operations ended with it.
+     */
+    public long getCount(BookingStatus status) {
+        return outcomes[status.ordinal()].sum();
+    }
+
+    /**
+     * Returns a snapshot of one operation's latency histogram.
+     * @param operation The operation.
+     * @return The snapshot.
+     */
+    public LatencyHistogram.Snapshot getLatency(Operation operation) {
+        return latencies[operation.ordinal()].snapshot();
+    }
+
+    @Override
+    public Map<String, Long> getOutcomeCounts() {
+        Map<String, Long> counts = new LinkedHashMap<>();
+        for (BookingStatus status : BookingStatus.values()) {
+            counts.put(status.name(), getCount(status));
+        }
+        return counts;
+    }
+
+    @Override
+    public Map<String, Long> getCreateLatency() {
+        return summarise(getLatency(Operation.CREATE));
+    }
+
+    @Override
+    public Map<String, Long> getCancelLatency() {
+        return summarise(getLatency(Operation.CANCEL));
+    }
+
+    @Override
+    public Map<String, Long> getGauges() {
+        Map<String, Long> values = new LinkedHashMap<>();
+        synchronized (gauges) {
+            for (Map.Entry<String, LongSupplier> gauge : gauges.entrySet()) {
+                values.put(gauge.getKey(), gauge.getValue().getAsLong());
+            }
+        }
+        return values;
+    }
+
+    /**
+     * Renders every metric as text, one "name value" line each, e.g.
+     * "booking.outcome.CREATED 12", "booking.latency.create.p99 18431" (nanoseconds)
+     * and "booking.gauge.appointments 4".
+     * @return The dump, ending with a line separator.
+     */
+    @Override
+    public String dump() {
+        StringBuilder out = new StringBuilder(1024);
+        for (Map.Entry<String, Long> outcome : getOutcomeCounts().entrySet()) {
+            appendMetric(out, "booking.outcome." + outcome.getKey(), outcome.getValue());
+        }
+        for (Operation operation : Operation.values()) {
+            String prefix = "booking.latency." + operation.getName() + ".";
+            for (Map.Entry<String, Long> value : summarise(getLatency(operation)).entrySet()) {
+                appendMetric(out, prefix + value.getKey(), value.getValue());
+            }
+        }
+        for (Map.Entry<String, Long> gauge : getGauges().entrySet()) {
+            appendMetric(out, "booking.gauge." + gauge.getKey(), gauge.getValue());
+        }
+        return out.toString();
+    }
+
+    @Override
+    public void reset() {
+        for (LongAdder outcome : outcomes) {
+            outcome.reset();
+        }
+        for (LatencyHistogram latency : latencies) {
+            latency.reset();
+        }
+    }
+
+    /**
+     * Registers these metrics with the platform MBean server.
+     * @param name The object name, e.g. "clinic:type=BookingMetrics".
+     * @throws IllegalArgumentException if the name is malformed or already registered.
+     */
+    public void registerMBean(String name) {
+        try {
+            MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+            server.registerMBean(this, new ObjectName(name));
+        } catch (JMException e) {
+            throw new IllegalArgumentException("Cannot register metrics as " + name, e);
+        }
+    }
+
+    // --- Helper Methods ---
+
+    /**
+     * Turns a latency snapshot into named values in nanoseconds.
+     */
+    private static Map<String, Long> summarise(LatencyHistogram.Snapshot snapshot) {
+        Map<String, Long> summary = new LinkedHashMap<>();
+        summary.put("count", snapshot.getCount());
+        summary.put("mean", snapshot.getMean());
+        for (int i = 0; i < PERCENTILES.length; i++) {
+            summary.put(PERCENTILE_NAMES[i], snapshot.getValueAtPercentile(PERCENTILES[i]));
+        }
+        summary.put("max", snapshot.getMax());
+        return summary;
+    }
+
+    /**
+     * Appends one "name value" line.
+     */
+    private static void appendMetric(StringBuilder out, String name, long value) {
+        out.append(name).append(' ').append(value).append(RowRenderer.LINE_SEPARATOR);
+    }
+
+    // --- Nested Types ---
+
+    /**
+     * The timed booking operations.
+     */
+    public enum Operation {
+        CREATE("create"),
+        CANCEL("cancel");
+
+        // Lower-case name used in metric names.
+        private final String name;
+
+        Operation(String name) {
+            this.name = name;
+        }
+
+        /**
+         * Getter for the name used in metric names.
+         * @return The operation name, e.g. "create".
+         */
+        public String getName() {
+            return name;
+        }
+    }
+}
@@ -0,0 +1,38 @@
+import java.util.Map;
+
+/**
+ * JMX management interface of BookingMetrics.
+ * Maps are exposed as tabular data, so generic consoles such as JConsole can show them.
+ */
+public interface BookingMetricsMXBean {
+
+    /**
+     * @return Booking outcome name -> number of times it occurred.
+     */
+    Map<String, Long> getOutcomeCounts();
+
+    /**
+     * @return Latency summary of createAppointment: count, mean, percentiles and max in nanoseconds.
+     */
+    Map<String, Long> getCreateLatency();
+
+    /**
+     * @return Latency summary of cancelBooking: count, mean, percentiles and max in nanoseconds.
+     */
+    Map<String, Long> getCancelLatency();
+
+    /**
+     * @return Gauge name -> current value.
+     */
+    Map<String, Long> getGauges();
+
+    /**
+     * @return Every metric in the text format of BookingMetrics.dump().
+     */
+    String dump();
+
+    /**
+     * Clears the counters and histograms. Gauges are unaffected.
+     */
+    void reset();
+}
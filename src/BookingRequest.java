@@ -0,0 +1,67 @@
+/**
+ * An immutable booking request, as submitted in a batch to AssignmentOne.createAppointments.
+ * Holds exactly the arguments of a single createAppointment call.
+ */
+public class BookingRequest {
+
+    // --- Instance Variables ---
+
+    // The ID of the selected doctor.
+    private final int doctorId;
+    // The patient's name.
+    private final String patientName;
+    // The patient's mobile number.
+    private final String patientMobile;
+    // The preferred appointment time slot.
+    private final String timeSlot;
+
+    // --- Constructor ---
+
+    /**
+     * Parameterized constructor used to initialize all instance variables.
+     * @param doctorId The ID of the selected doctor.
+     * @param patientName The patient's name.
+     * @param patientMobile The patient's mobile number.
+     * @param timeSlot The preferred appointment time slot.
+     */
+    public BookingRequest(int doctorId, String patientName, String patientMobile, String timeSlot) {
+        this.doctorId = doctorId;
+        this.patientName = patientName;
+        this.patientMobile = patientMobile;
+        this.timeSlot = timeSlot;
+    }
+
+    // --- Getters ---
+
+    /**
+     * Getter for the doctor ID.
+     * @return The ID of the selected doctor.
+     */
+    public int getDoctorId() {
+        return doctorId;
+    }
+
+    /**
+     * Getter for the patient's name.
+     * @return The patient's name.
+     */
+    public String getPatientName() {
+        return patientName;
+    }
+
+    /**
+     * Getter for the patient's mobile number.
+     * @return The patient's mobile number.
+     */
+    public String getPatientMobile() {
+        return patientMobile;
+    }
+
+    /**
+     * Getter for the appointment time slot.
+     * @return The preferred appointment time.
+     */
+    public String getTimeSlot() {
+        return timeSlot;
+    }
+}
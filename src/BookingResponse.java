@@ -0,0 +1,109 @@
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * The structured result of one command handled by the BookingServer.
+ * A response carries either a BookingStatus (create and cancel), a list of
+ * appointments (list), or an error message for a malformed command.
+ */
+public class BookingResponse {
+
+    // --- Instance Variables ---
+
+    // Outcome of a create or cancel command; null for list and error responses.
+    private final BookingStatus status;
+    // Appointments returned by a list command; empty otherwise.
+    private final List<Appointment> appointments;
+    // Description of a malformed command; null when the command was understood.
+    private final String error;
+
+    // --- Constructors ---
+
+    /**
+     * Private constructor. Use the static factory methods instead.
+     */
+    private BookingResponse(BookingStatus status, List<Appointment> appointments, String error) {
+        this.status = status;
+        this.appointments = appointments;
+        this.error = error;
+    }
+
+    /**
+     * Creates the response to a create or cancel command.
+     * @param status The outcome of the command.
+     * @return The response.
+     */
+    public static BookingResponse of(BookingStatus status) {
+        return new BookingResponse(status, Collections.emptyList(), null);
+    }
+
+    /**
+     * Creates the response to a list command.
+     * @param appointments The listed appointments.
+     * @return The response.
+     */
+    public static BookingResponse listing(List<Appointment> appointments) {
+        return new BookingResponse(null, appointments, null);
+    }
+
+    /**
+     * Creates the response to a command that could not be understood.
+     * @param error The reason the command was rejected.
+     * @return The response.
+     */
+    public static BookingResponse error(String error) {
+        return new BookingResponse(null, Collections.emptyList(), error);
+    }
+
+    // --- Methods ---
+
+    /**
+     * Encodes the response in the server's line protocol.
+     * A status becomes its constant name, an error becomes "ERROR <message>", and a
+     * listing becomes "OK <count>" followed by one "doctorId|name|mobile|time" line per appointment.
+     * @return The encoded response, without a trailing line separator.
+     */
+    public String toWireFormat() {
+        if (error != null) {
+            return "ERROR " + error;
+        }
+        if (status != null) {
+            return status.name();
+        }
+        StringBuilder out = new StringBuilder("OK ").append(appointments.size());
+        for (Appointment appointment : appointments) {
+            out.append('\n')
+                    .append(appointment.getDoctor().getId()).append('|')
+                    .append(appointment.getPatient().getName()).append('|')
+                    .append(appointment.getPatientMobile()).append('|')
+                    .append(appointment.getTimeSlot());
+        }
+        return out.toString();
+    }
+
+    // --- Getters ---
+
+    /**
+     * Getter for the create or cancel outcome.
+     * @return The status, or null for list and error responses.
+     */
+    public BookingStatus getStatus() {
+        return status;
+    }
+
+    /**
+     * Getter for the listed appointments.
+     * @return The appointments, empty unless this is a list response.
+     */
+    public List<Appointment> getAppointments() {
+        return appointments;
+    }
+
+    /**
+     * Getter for the error message.
+     * @return The error, or null if the command was understood.
+     */
+    public String getError() {
+        return error;
+    }
+}
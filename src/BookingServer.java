@@ -0,0 +1,391 @@
+import java.io.IOException;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.nio.ByteBuffer;
+import java.nio.channels.SelectionKey;
+import java.nio.channels.Selector;
+import java.nio.channels.ServerSocketChannel;
+import java.nio.channels.SocketChannel;
+import java.nio.charset.StandardCharsets;
+import java.util.Iterator;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Long-running front-end that accepts booking commands over a loopback socket
+ * or from in-process callers and executes them on a ConcurrentBookingService.
+ * A single selector thread multiplexes every connection over non-blocking
+ * channels, so thousands of idle clients cost one small buffer each rather
+ * than a thread each. Commands run on a fixed pool of worker threads, one
+ * command per connection at a time, so each client gets its responses in order.
+ *
+ * Commands are single lines with '|' separated fields, at most MAX_LINE_BYTES
+ * long; a client sending a longer line gets an error and is disconnected.
+ *   CREATE|doctorId|patientName|mobile|HH:mm
+ *   CANCEL|mobile
+ *   LIST            (all appointments)
+ *   LIST|doctorId   (one doctor's appointments)
+ */
+public class BookingServer implements AutoCloseable {
+
+    // Default TCP port used by main when none is given.
+    public static final int DEFAULT_PORT = 5050;
+    // Longest accepted command line in bytes, including the line terminator.
+    public static final int MAX_LINE_BYTES = 4096;
+
+    // --- Instance Variables ---
+
+    // The service all commands are executed against.
+    private final ConcurrentBookingService service;
+    // Worker threads executing socket and in-process commands.
+    private final ExecutorService executor;
+    // Connections whose command has been executed, waiting for the selector thread to send the response.
+    private final ConcurrentLinkedQueue<Connection> answered;
+    // Selector multiplexing the listening socket and every client, or null until start() is called.
+    private volatile Selector selector;
+    // Thread running the selector loop, or null until start() is called.
+    private volatile Thread selectorThread;
+    // Set by close(); the selector loop then closes every channel and exits.
+    private volatile boolean closed;
+
+    // --- Constructors ---
+
+    /**
+     * Parameterized constructor.
+     * @param service The booking service that handles the commands.
+     */
+    public BookingServer(ConcurrentBookingService service) {
+        this.service = service;
+        this.executor = Executors.newFixedThreadPool(Runtime.getRuntime().availableProcessors(), task -> {
+            Thread thread = new Thread(task, "booking-server-worker");
+            thread.setDaemon(true);
+            return thread;
+        });
+        this.answered = new ConcurrentLinkedQueue<>();
+    }
+
+    // --- Methods ---
+
+    /**
+     * Starts listening on the loopback interface.
+     * @param port The port to bind, or 0 for any free port.
+     * @return The port actually bound.
+     * @throws IOException if the socket cannot be opened.
+     */
+    public int start(int port) throws IOException {
+        Selector opened = Selector.open();
+        ServerSocketChannel listener = ServerSocketChannel.open();
+        try {
+            listener.bind(new InetSocketAddress(InetAddress.getLoopbackAddress(), port), 512);
+            listener.configureBlocking(false);
+            listener.register(opened, SelectionKey.OP_ACCEPT);
+        } catch (IOException e) {
+            listener.close();
+            opened.close();
+            throw e;
+        }
+        this.selector = opened;
+        Thread loop = new Thread(this::selectLoop, "booking-server-selector");
+        loop.setDaemon(true);
+        this.selectorThread = loop;
+        loop.start();
+        return ((InetSocketAddress) listener.getLocalAddress()).getPort();
+    }
+
+    /**
+     * Submits a command from inside the JVM without going through the socket.
+     * @param command The command line, e.g. "CANCEL|18466209754".
+     * @return A future completed with the structured response.
+     */
+    public CompletableFuture<BookingResponse> submit(String command) {
+        return CompletableFuture.supplyAsync(() -> handle(command), executor);
+    }
+
+    /**
+     * Parses and executes a single command on the calling thread.
+     * @param command The command line.
+     * @return The structured response.
+     */
+    public BookingResponse handle(String command) {
+        if (command == null || command.trim().isEmpty()) {
+            return BookingResponse.error("Empty command");
+        }
+        String[] fields = command.trim().split("\\|", -1);
+        switch (fields[0].toUpperCase()) {
+            case "CREATE":
+                if (fields.length != 5) {
+                    return BookingResponse.error("Usage: CREATE|doctorId|patientName|mobile|HH:mm");
+                }
+                int doctorId;
+                try {
+                    doctorId = Integer.parseInt(fields[1].trim());
+                } catch (NumberFormatException e) {
+                    return BookingResponse.of(BookingStatus.INVALID_DOCTOR_ID);
+                }
+                return BookingResponse.of(service.createAppointment(doctorId, fields[2], fields[3], fields[4]));
+            case "CANCEL":
+                if (fields.length != 2) {
+                    return BookingResponse.error("Usage: CANCEL|mobile");
+                }
+                return BookingResponse.of(service.cancelBooking(fields[1]));
+            case "LIST":
+                if (fields.length == 1) {
+                    return BookingResponse.listing(service.listAppointments());
+                }
+                try {
+                    return BookingResponse.listing(service.listAppointments(Integer.parseInt(fields[1].trim())));
+                } catch (NumberFormatException e) {
+                    return BookingResponse.of(BookingStatus.INVALID_DOCTOR_ID);
+                }
+            default:
+                return BookingResponse.error("Unknown command " + fields[0]);
+        }
+    }
+
+    /**
+     * Stops accepting connections, disconnects every client and shuts the workers down.
+     * Commands already executing are given a short grace period; their responses are dropped.
+     */
+    @Override
+    public void close() {
+        closed = true;
+        Selector open = selector;
+        if (open != null) {
+            open.wakeup();
+        }
+        Thread loop = selectorThread;
+        executor.shutdown();
+        try {
+            if (loop != null && loop != Thread.currentThread()) {
+                loop.join(TimeUnit.SECONDS.toMillis(5));
+            }
+            if (!executor.awaitTermination(5, TimeUnit.SECONDS)) {
+                executor.shutdownNow();
+            }
+        } catch (InterruptedException e) {
+            executor.shutdownNow();
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    // --- Helper Methods ---
+
+    /**
+     * Accepts connections, reads commands and sends responses until the server is closed,
+     * then closes the listening socket and every client.
+     */
+    private void selectLoop() {
+        try {
+            while (!closed) {
+                selector.select();
+                Connection connection;
+                while ((connection = answered.poll()) != null) {
+                    connection.respond();
+                }
+                Iterator<SelectionKey> keys = selector.selectedKeys().iterator();
+                while (keys.hasNext()) {
+                    SelectionKey key = keys.next();
+                    keys.remove();
+                    if (!key.isValid()) {
+                        continue;
+                    }
+                    if (key.isAcceptable()) {
+                        accept((ServerSocketChannel) key.channel());
+                    } else {
+                        ((Connection) key.attachment()).ready();
+                    }
+                }
+            }
+        } catch (IOException e) {
+            // The selector itself failed; stop serving.
+        } finally {
+            for (SelectionKey key : selector.keys()) {
+                closeQuietly(key);
+            }
+            try {
+                selector.close();
+            } catch (IOException e) {
+                // Closing is best effort.
+            }
+        }
+    }
+
+    /**
+     * Registers a newly accepted client for reading.
+     */
+    private void accept(ServerSocketChannel listener) throws IOException {
+        SocketChannel client = listener.accept();
+        if (client == null) {
+            return;
+        }
+        client.configureBlocking(false);
+        SelectionKey key = client.register(selector, SelectionKey.OP_READ);
+        key.attach(new Connection(client, key));
+    }
+
+    /**
+     * Cancels a key and closes its channel, ignoring errors.
+     */
+    private static void closeQuietly(SelectionKey key) {
+        key.cancel();
+        try {
+            key.channel().close();
+        } catch (IOException e) {
+            // Closing is best effort.
+        }
+    }
+
+    /**
+     * Runs the server with the demonstration roster until the process is stopped.
+     * The service's metrics are published over JMX as clinic:type=BookingMetrics,name=BookingServer.
+     * @param args Optional port number (defaults to DEFAULT_PORT).
+     */
+    public static void main(String[] args) throws IOException, InterruptedException {
+        int port = args.length > 0 ? Integer.parseInt(args[0]) : DEFAULT_PORT;
+        DoctorRegistry registry = new DoctorRegistry();
+        AssignmentOne.registerDemoDoctors(registry);
+
+        ConcurrentBookingService service = new ConcurrentBookingService(registry);
+        service.getMetrics().registerMBean("clinic:type=BookingMetrics,name=BookingServer");
+        BookingServer server = new BookingServer(service);
+        int boundPort = server.start(port);
+        System.out.println("Booking server listening on 127.0.0.1:" + boundPort);
+        Runtime.getRuntime().addShutdownHook(new Thread(server::close));
+        Thread.currentThread().join();
+    }
+
+    // --- Nested Types ---
+
+    /**
+     * One client connection. Only the selector thread touches its buffers; a worker
+     * only fills in the response and hands the connection back through 'answered'.
+     */
+    private final class Connection {
+        // The client's channel.
+        private final SocketChannel channel;
+        // The channel's registration with the selector.
+        private final SelectionKey key;
+        // Bytes received but not yet split into command lines, in write mode.
+        private final ByteBuffer input;
+        // Encoded response still being sent, or null.
+        private ByteBuffer output;
+        // Response of the command in flight, written by a worker.
+        private volatile String response;
+        // True once the connection should close after the pending output.
+        private boolean closing;
+
+        private Connection(SocketChannel channel, SelectionKey key) {
+            this.channel = channel;
+            this.key = key;
+            this.input = ByteBuffer.allocate(MAX_LINE_BYTES);
+        }
+
+        /**
+         * Handles a readiness event: sends pending output or reads more commands.
+         */
+        private void ready() {
+            try {
+                if (key.isWritable()) {
+                    write();
+                } else if (key.isReadable()) {
+                    if (channel.read(input) < 0) {
+                        closeQuietly(key);
+                        return;
+                    }
+                    dispatch();
+                }
+            } catch (IOException e) {
+                // The client disconnected.
+                closeQuietly(key);
+            }
+        }
+
+        /**
+         * Hands the next complete command line to a worker. Reading pauses until its
+         * response is sent, which bounds the buffered input at one line.
+         */
+        private void dispatch() throws IOException {
+            String line = nextLine();
+            if (line == null) {
+                if (!input.hasRemaining()) {
+                    closing = true;
+                    send(BookingResponse.error("Command longer than " + MAX_LINE_BYTES + " bytes").toWireFormat());
+                }
+                return;
+            }
+            key.interestOps(0);
+            try {
+                executor.execute(() -> {
+                    response = handle(line).toWireFormat();
+                    answered.add(this);
+                    if (!closed) {
+                        selector.wakeup();
+                    }
+                });
+            } catch (RejectedExecutionException e) {
+                // The server is closing.
+                closeQuietly(key);
+            }
+        }
+
+        /**
+         * Starts sending the response of the command that just finished.
+         */
+        private void respond() {
+            if (!key.isValid()) {
+                return;
+            }
+            try {
+                send(response);
+            } catch (IOException e) {
+                closeQuietly(key);
+            }
+        }
+
+        /**
+         * Queues one response line and sends as much of it as the socket accepts.
+         */
+        private void send(String wireFormat) throws IOException {
+            output = StandardCharsets.UTF_8.encode(wireFormat + '\n');
+            write();
+        }
+
+        /**
+         * Sends pending output; once it is all sent, resumes with the next command.
+         */
+        private void write() throws IOException {
+            channel.write(output);
+            if (output.hasRemaining()) {
+                key.interestOps(SelectionKey.OP_WRITE);
+                return;
+            }
+            output = null;
+            if (closing) {
+                closeQuietly(key);
+                return;
+            }
+            key.interestOps(SelectionKey.OP_READ);
+            dispatch();
+        }
+
+        /**
+         * Removes and returns the first complete line of the input, without its terminator.
+         * @return The line, or null if no line terminator has been received yet.
+         */
+        private String nextLine() {
+            for (int i = 0; i < input.position(); i++) {
+                if (input.get(i) == '\n') {
+                    String line = new String(input.array(), 0, i, StandardCharsets.UTF_8);
+                    input.flip().position(i + 1);
+                    input.compact();
+                    return line;
+                }
+            }
+            return null;
+        }
+    }
+}
@@ -0,0 +1,53 @@
+/**
+ * Enumerates every outcome of a booking or cancellation request.
+ * The constants are shared by AssignmentOne and the booking services so that
+ * all entry points report the same validation results with the same wording.
+ */
+public enum BookingStatus {
+
+    // --- Booking Outcomes ---
+
+    CREATED("Appointment Successfully Created!"),
+    INVALID_DOCTOR_ID("Invalid doctor ID"),
+    EMPTY_PATIENT_NAME("Patient name cannot be empty"),
+    EMPTY_PHONE_NUMBER("Phone number cannot be empty"),
+    EMPTY_TIME("Appointment time cannot be empty"),
+    INVALID_TIME_FORMAT("Invalid appointment time format (expected HH:mm)"),
+    SLOT_UNAVAILABLE("Doctor is not available at the requested time"),
+
+    // --- Cancellation Outcomes ---
+
+    CANCELLED("Successfully cancelled the appointment"),
+    NOT_FOUND("Phone number did not found in existing appointment"),
+
+    // --- Persistence Outcomes ---
+
+    JOURNAL_FAILED("The change could not be saved to the journal");
+
+    // Human-readable description of the outcome.
+    private final String message;
+
+    /**
+     * Enum constructor.
+     * @param message The human-readable description of the outcome.
+     */
+    BookingStatus(String message) {
+        this.message = message;
+    }
+
+    /**
+     * Getter for the human-readable description.
+     * @return The message text.
+     */
+    public String getMessage() {
+        return message;
+    }
+
+    /**
+     * Checks whether the request was carried out.
+     * @return True for CREATED and CANCELLED, false for every failure.
+     */
+    public boolean isSuccess() {
+        return this == CREATED || this == CANCELLED;
+    }
+}
@@ -1,9 +1,35 @@
+import java.util.List;
+
 /**
  * This class extends HealthProfessional, inheriting common attributes
  * and adding specialized properties and behaviors specific to a Cardiology specialist.
  * This demonstrates the principle of Inheritance.
  */
 public class Cardiologist extends HealthProfessional {
+
+    // Code, names, report columns and search attributes of Cardiologists.
+    public static final SpecialtyDescriptor<Cardiologist> SPECIALTY = new SpecialtyDescriptor<>(
+            Cardiologist.class, "CARDIOLOGIST", "Cardiologist", "Cardiologist", List.of(
+                    new SpecialtyDescriptor.Column<Cardiologist>("Subspecialty", 25,
+                            (out, cd, width) -> RowRenderer.column(out, cd.subspecialty, width),
+                            cd -> cd.subspecialty),
+                    new SpecialtyDescriptor.Column<Cardiologist>("Cath Lab Access", 5,
+                            (out, cd, width) -> RowRenderer.column(out, cd.hasCathLabAccess, width),
+                            cd -> cd.hasCathLabAccess)),
+            (id, name, age, profession, details) -> new Cardiologist(id, name, age, profession,
+                    details.getString(0), details.getBoolean(1)),
+            new SpecialtyDescriptor.Traits<Cardiologist>() {
+                @Override
+                public boolean hasCathLabAccess(Cardiologist cardiologist) {
+                    return cardiologist.hasCathLabAccess;
+                }
+
+                @Override
+                public String getSubspecialty(Cardiologist cardiologist) {
+                    return cardiologist.subspecialty;
+                }
+            });
+
     // --- Instance Variables (Cardiologist Specific) ---
 
     // The specific area of focus within cardiology.
@@ -41,25 +67,25 @@ public class Cardiologist extends HealthProfessional {
 
     /**
      * Implements the abstract method from HealthProfessional.
-     * Prints the complete details of the Cardiologist:
+     * Renders the complete details of the Cardiologist:
      * Base details from superclass followed by Cardiology-specific details.
+     * @param out The buffer to write the row to.
+     * @return The same buffer, for chaining.
      */
     @Override
-    public void printProfessionalDetails() {
-        // Retrieve the formatted base information string from the superclass.
-        String baseDetails = super.printBaseDetails();
-
-        // Define the format for the Cardiologist-specific fields.
-        // This format aligns with the CD_HEADER_FORMAT in the main class.
-        final String CD_INFO_FORMAT = "%-25s%-5s%n";
-
-        // Format the specific fields (Subspecialty and Cath Lab Access status).
-        // Uses a ternary operator to convert the boolean 'hasCathLabAccess' to "Yes" or "No".
-        String cardioDetails = String.format(CD_INFO_FORMAT,
-                this.subspecialty,
-                this.hasCathLabAccess ? "Yes" : "No");
+    public StringBuilder appendProfessionalDetails(StringBuilder out) {
+        // Base columns followed by the specific fields (Subspecialty and Cath Lab Access status),
+        // laid out by the same column list that renders the section header.
+        return SPECIALTY.appendRow(out, this);
+    }
 
-        System.out.print(baseDetails + cardioDetails);
+    /**
+     * Returns the Cardiologist specialty descriptor.
+     * @return Cardiologist.SPECIALTY.
+     */
+    @Override
+    public SpecialtyDescriptor<Cardiologist> getSpecialty() {
+        return SPECIALTY;
     }
 
     // --- Getters (Encapsulation) ---
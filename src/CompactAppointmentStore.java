@@ -0,0 +1,380 @@
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+
+/**
+ * Struct-of-arrays appointment store for very large schedules.
+ * Instead of one Appointment, one Patient and three Strings per booking, each
+ * booking is a row spread over primitive columns:
+ *   doctor ID (int), start minute of the day (short), packed mobile number (long),
+ *   patient name ID (int, into a StringDictionary) and the next row with the same
+ *   mobile number (int, chaining the mobile index),
+ * which costs about 22 bytes per row, plus a cancelled bit, one copy of each
+ * distinct name and one mobile index entry per distinct mobile number.
+ * Appointment objects are only created as views when a row is read, e.g. for printing.
+ *
+ * Mobile numbers are normalised like PatientRegistry keys, so "0412 345 678" and
+ * "0412345678" are one patient. Normalised numbers of up to 17 digits are packed as
+ * (digit count << 57) | numeric value, which keeps leading zeros; any other mobile is
+ * stored in a dictionary instead. Time slots are normalised to "HH:mm". Rows are append-only: cancelling a booking
+ * only marks its row as cancelled.
+ */
+public class CompactAppointmentStore implements Iterable<Appointment> {
+
+    // Longest all-digit mobile number that can be packed into a long.
+    private static final int MAX_PACKED_DIGITS = 17;
+    // Bit position of the digit count in a packed mobile number.
+    private static final int LENGTH_SHIFT = 57;
+
+    // --- Instance Variables ---
+
+    // Roster used to turn doctor IDs back into HealthProfessional objects.
+    private final DoctorRegistry registry;
+    // Column: doctor ID of each row.
+    private int[] doctorIds;
+    // Column: start minute of the day of each row.
+    private short[] startMinutes;
+    // Column: packed mobile number of each row.
+    private long[] mobiles;
+    // Column: patient name ID of each row.
+    private int[] nameIds;
+    // Column: next row with the same mobile number, or -1.
+    private int[] nextSameMobile;
+    // Bitset of cancelled rows.
+    private long[] cancelled;
+    // Number of rows, including cancelled ones.
+    private int rows;
+    // Number of rows not cancelled.
+    private int live;
+    // Distinct patient names.
+    private final StringDictionary names;
+    // Mobile numbers that cannot be packed.
+    private final StringDictionary unpackedMobiles;
+    // Packed mobile -> first and last live row with that mobile.
+    private final MobileIndex byMobile;
+
+    // --- Constructors ---
+
+    /**
+     * Parameterized constructor.
+     * @param registry The roster used to resolve doctor IDs when rows are read.
+     */
+    public CompactAppointmentStore(DoctorRegistry registry) {
+        this.registry = registry;
+        this.doctorIds = new int[1024];
+        this.startMinutes = new short[1024];
+        this.mobiles = new long[1024];
+        this.nameIds = new int[1024];
+        this.nextSameMobile = new int[1024];
+        this.cancelled = new long[1024 / 64];
+        this.rows = 0;
+        this.live = 0;
+        this.names = new StringDictionary();
+        this.unpackedMobiles = new StringDictionary();
+        this.byMobile = new MobileIndex();
+    }
+
+    // --- Methods ---
+
+    /**
+     * Appends a booking. The caller is expected to have validated it already.
+     * @param doctorId The ID of the doctor.
+     * @param patientName The patient's name.
+     * @param patientMobile The patient's mobile number.
+     * @param timeSlot The appointment time in "H:mm" or "HH:mm" format.
+     * @return The row number of the booking.
+     * @throws IllegalArgumentException if the time slot cannot be parsed.
+     */
+    public int add(int doctorId, String patientName, String patientMobile, String timeSlot) {
+        int startMinute = SlotCalendar.parseTime(timeSlot);
+        if (startMinute < 0) {
+            throw new IllegalArgumentException("Invalid appointment time: " + timeSlot);
+        }
+        if (rows == doctorIds.length) {
+            grow();
+        }
+        int row = rows++;
+        long mobile = packMobile(patientMobile);
+        doctorIds[row] = doctorId;
+        startMinutes[row] = (short) startMinute;
+        mobiles[row] = mobile;
+        nameIds[row] = names.idOf(patientName);
+        nextSameMobile[row] = -1;
+        byMobile.append(mobile, row, nextSameMobile);
+        live++;
+        return row;
+    }
+
+    /**
+     * Appends an existing appointment as a row.
+     * @param appointment The appointment to store. Must have a patient and a doctor.
+     * @return The row number of the booking.
+     */
+    public int add(Appointment appointment) {
+        return add(appointment.getDoctor().getId(), appointment.getPatient().getName(),
+                appointment.getPatientMobile(), appointment.getTimeSlot());
+    }
+
+    /**
+     * Cancels the earliest live booking of a patient.
+     * @param patientMobile The patient's mobile number.
+     * @return The row that was cancelled, or -1 if the patient has no live booking.
+     */
+    public int cancelByMobile(String patientMobile) {
+        long mobile = findPackedMobile(patientMobile);
+        if (mobile == -1) {
+            return -1;
+        }
+        int row = byMobile.removeFirst(mobile, nextSameMobile);
+        if (row >= 0) {
+            cancelled[row >>> 6] |= 1L << row;
+            live--;
+        }
+        return row;
+    }
+
+    /**
+     * Checks whether a row has been cancelled.
+     * @param row The row number.
+     * @return True if the booking in that row was cancelled.
+     */
+    public boolean isCancelled(int row) {
+        return (cancelled[row >>> 6] & (1L << row)) != 0;
+    }
+
+    /**
+     * Reads the doctor ID of a row without creating any objects.
+     * @param row The row number.
+     * @return The doctor ID.
+     */
+    public int getDoctorId(int row) {
+        return doctorIds[row];
+    }
+
+    /**
+     * Reads the start minute of a row without creating any objects.
+     * @param row The row number.
+     * @return The minute of the day the appointment starts.
+     */
+    public int getStartMinute(int row) {
+        return startMinutes[row];
+    }
+
+    /**
+     * Builds an Appointment view of a row, e.g. for printing.
+     * @param row The row number.
+     * @return A new Appointment holding the row's data.
+     */
+    public Appointment appointmentAt(int row) {
+        if (row < 0 || row >= rows) {
+            throw new IndexOutOfBoundsException("Row " + row + " of " + rows);
+        }
+        Patient patient = new Patient(names.valueOf(nameIds[row]), unpackMobile(mobiles[row]));
+        return new Appointment(patient, SlotCalendar.formatTime(startMinutes[row]), registry.findById(doctorIds[row]));
+    }
+
+    /**
+     * Getter for the number of live bookings.
+     * @return The count of rows not cancelled.
+     */
+    public int size() {
+        return live;
+    }
+
+    /**
+     * Getter for the number of rows, including cancelled ones.
+     * @return The row count; valid row numbers are 0 to rowCount() - 1.
+     */
+    public int rowCount() {
+        return rows;
+    }
+
+    /**
+     * Iterates Appointment views of the live rows in booking order.
+     * @return An iterator creating one view per live row.
+     */
+    @Override
+    public Iterator<Appointment> iterator() {
+        return new Iterator<Appointment>() {
+            private int next = nextLive(0);
+
+            @Override
+            public boolean hasNext() {
+                return next < rows;
+            }
+
+            @Override
+            public Appointment next() {
+                if (next >= rows) {
+                    throw new NoSuchElementException();
+                }
+                Appointment view = appointmentAt(next);
+                next = nextLive(next + 1);
+                return view;
+            }
+        };
+    }
+
+    // --- Mobile Packing ---
+
+    /**
+     * Normalises and packs a mobile number into a long, adding it to the dictionary if it is not all digits.
+     */
+    private long packMobile(String mobile) {
+        String normalised = PatientRegistry.normaliseMobile(mobile);
+        long packed = packDigits(normalised);
+        return packed != -1 ? packed : unpackedMobiles.idOf(normalised);
+    }
+
+    /**
+     * Returns the packed form of a mobile number that may already be stored, or -1 if it was never seen.
+     */
+    private long findPackedMobile(String mobile) {
+        if (mobile == null) {
+            return -1;
+        }
+        String normalised = PatientRegistry.normaliseMobile(mobile);
+        long packed = packDigits(normalised);
+        return packed != -1 ? packed : unpackedMobiles.find(normalised);
+    }
+
+    /**
+     * Packs an all-digit string of 1 to 17 digits, or returns -1.
+     */
+    private static long packDigits(String mobile) {
+        int length = mobile.length();
+        if (length == 0 || length > MAX_PACKED_DIGITS) {
+            return -1;
+        }
+        long value = 0;
+        for (int i = 0; i < length; i++) {
+            char c = mobile.charAt(i);
+            if (c < '0' || c > '9') {
+                return -1;
+            }
+            value = value * 10 + (c - '0');
+        }
+        return ((long) length << LENGTH_SHIFT) | value;
+    }
+
+    /**
+     * Restores the normalised mobile string from its packed form.
+     */
+    private String unpackMobile(long packed) {
+        int length = (int) (packed >>> LENGTH_SHIFT);
+        if (length == 0) {
+            return unpackedMobiles.valueOf((int) packed);
+        }
+        char[] digits = new char[length];
+        long value = packed & ((1L << LENGTH_SHIFT) - 1);
+        for (int i = length - 1; i >= 0; i--) {
+            digits[i] = (char) ('0' + value % 10);
+            value /= 10;
+        }
+        return new String(digits);
+    }
+
+    // --- Helper Methods ---
+
+    /**
+     * Returns the first row at or after 'from' that is not cancelled.
+     */
+    private int nextLive(int from) {
+        while (from < rows && isCancelled(from)) {
+            from++;
+        }
+        return from;
+    }
+
+    /**
+     * Doubles the capacity of every column.
+     */
+    private void grow() {
+        int capacity = doctorIds.length * 2;
+        doctorIds = Arrays.copyOf(doctorIds, capacity);
+        startMinutes = Arrays.copyOf(startMinutes, capacity);
+        mobiles = Arrays.copyOf(mobiles, capacity);
+        nameIds = Arrays.copyOf(nameIds, capacity);
+        nextSameMobile = Arrays.copyOf(nextSameMobile, capacity);
+        cancelled = Arrays.copyOf(cancelled, capacity / 64);
+    }
+
+    // --- Nested Types ---
+
+    /**
+     * Open-addressing map from packed mobile number to the first and last live row
+     * with that number. Rows of one mobile are chained through 'nextSameMobile'.
+     * Keys are never removed; a mobile whose bookings were all cancelled keeps an empty chain.
+     */
+    private static final class MobileIndex {
+        private long[] keys = new long[1024];
+        private int[] first = new int[1024];
+        private int[] last = new int[1024];
+        private boolean[] used = new boolean[1024];
+        private int size = 0;
+
+        private void append(long mobile, int row, int[] nextSameMobile) {
+            int slot = slotOf(mobile);
+            if (!used[slot]) {
+                used[slot] = true;
+                keys[slot] = mobile;
+                first[slot] = row;
+                last[slot] = row;
+                if (++size > keys.length * 3 / 4) {
+                    resize();
+                }
+                return;
+            }
+            if (first[slot] < 0) {
+                first[slot] = row;
+            } else {
+                nextSameMobile[last[slot]] = row;
+            }
+            last[slot] = row;
+        }
+
+        private int removeFirst(long mobile, int[] nextSameMobile) {
+            int slot = slotOf(mobile);
+            if (!used[slot] || first[slot] < 0) {
+                return -1;
+            }
+            int row = first[slot];
+            first[slot] = nextSameMobile[row];
+            if (first[slot] < 0) {
+                last[slot] = -1;
+            }
+            return row;
+        }
+
+        private int slotOf(long mobile) {
+            int mask = keys.length - 1;
+            long h = mobile * 0x9E3779B97F4A7C15L;
+            int slot = (int) (h ^ (h >>> 32)) & mask;
+            while (used[slot] && keys[slot] != mobile) {
+                slot = (slot + 1) & mask;
+            }
+            return slot;
+        }
+
+        private void resize() {
+            long[] oldKeys = keys;
+            int[] oldFirst = first;
+            int[] oldLast = last;
+            boolean[] oldUsed = used;
+            int capacity = oldKeys.length * 2;
+            keys = new long[capacity];
+            first = new int[capacity];
+            last = new int[capacity];
+            used = new boolean[capacity];
+            for (int i = 0; i < oldKeys.length; i++) {
+                if (oldUsed[i]) {
+                    int slot = slotOf(oldKeys[i]);
+                    used[slot] = true;
+                    keys[slot] = oldKeys[i];
+                    first[slot] = oldFirst[i];
+                    last[slot] = oldLast[i];
+                }
+            }
+        }
+    }
+}
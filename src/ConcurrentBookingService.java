@@ -0,0 +1,207 @@
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.TreeMap;
+import java.util.TreeSet;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Thread-safe booking service offering the same create, cancel and list
+ * operations as AssignmentOne, for use by several terminals or request threads.
+ * Each doctor has its own schedule object that doubles as that doctor's lock,
+ * so bookings for different doctors never contend with each other. The global
+ * booking order and the mobile-number index are lock-free concurrent maps.
+ * The DoctorRegistry passed in must be fully populated before construction and
+ * must not be modified afterwards.
+ */
+public class ConcurrentBookingService {
+
+    // --- Instance Variables ---
+
+    // Read-only roster used to resolve doctor IDs.
+    private final DoctorRegistry registry;
+    // Doctor ID -> that doctor's schedule. Built once, read-only afterwards.
+    private final IntObjectMap<DoctorSchedule> schedules;
+    // All live appointments keyed by booking number, i.e. in booking order.
+    private final ConcurrentSkipListMap<Long, Appointment> byBookingNumber;
+    // Normalised patient mobile -> booking numbers of that patient's live appointments.
+    // Each set is only modified inside ConcurrentHashMap.compute for its key.
+    private final ConcurrentHashMap<String, TreeSet<Long>> byMobile;
+    // Source of booking numbers.
+    private final AtomicLong nextBookingNumber;
+    // Outcome counters, latency histograms and size gauges.
+    private final BookingMetrics metrics;
+
+    // --- Constructors ---
+
+    /**
+     * Parameterized constructor. Creates an empty calendar for every registered doctor.
+     * @param registry The populated doctor registry.
+     */
+    public ConcurrentBookingService(DoctorRegistry registry) {
+        this.registry = registry;
+        this.schedules = new IntObjectMap<>(registry.size());
+        for (HealthProfessional doctor : registry.getAll()) {
+            schedules.put(doctor.getId(), new DoctorSchedule(SlotCalendar.forDoctor(doctor)));
+        }
+        this.byBookingNumber = new ConcurrentSkipListMap<>();
+        this.byMobile = new ConcurrentHashMap<>();
+        this.nextBookingNumber = new AtomicLong(1);
+        this.metrics = new BookingMetrics();
+        metrics.registerGauge("doctors", registry::size);
+        metrics.registerGauge("appointments", byBookingNumber::size);
+        metrics.registerGauge("patientMobiles", byMobile::size);
+    }
+
+    // --- Methods ---
+
+    /**
+     * Creates an appointment, applying the same validation as AssignmentOne.createAppointment.
+     * Only the selected doctor's lock is held while the slot is reserved.
+     * @param doctorId The ID of the selected doctor.
+     * @param pName Patient's name.
+     * @param pMobile Patient's mobile number.
+     * @param time Preferred appointment time slot.
+     * @return CREATED on success, otherwise the failed validation.
+     */
+    public BookingStatus createAppointment(int doctorId, String pName, String pMobile, String time) {
+        long start = System.nanoTime();
+        BookingStatus status = book(doctorId, pName, pMobile, time);
+        metrics.record(BookingMetrics.Operation.CREATE, status, System.nanoTime() - start);
+        return status;
+    }
+
+    /**
+     * Cancels the earliest booked appointment of a patient.
+     * Safe to call concurrently with creates and other cancellations.
+     * @param mobileNumber The patient's mobile number; spaces, dashes and brackets are ignored.
+     * @return CANCELLED on success, EMPTY_PHONE_NUMBER or NOT_FOUND otherwise.
+     */
+    public BookingStatus cancelBooking(String mobileNumber) {
+        long start = System.nanoTime();
+        BookingStatus status = cancel(mobileNumber);
+        metrics.record(BookingMetrics.Operation.CANCEL, status, System.nanoTime() - start);
+        return status;
+    }
+
+    /**
+     * Returns a snapshot of all live appointments in booking order.
+     * @return A read-only list of appointments.
+     */
+    public List<Appointment> listAppointments() {
+        return Collections.unmodifiableList(new ArrayList<>(byBookingNumber.values()));
+    }
+
+    /**
+     * Returns a snapshot of one doctor's live appointments in booking order.
+     * @param doctorId The ID of the doctor.
+     * @return A read-only list of appointments (empty for an unknown doctor).
+     */
+    public List<Appointment> listAppointments(int doctorId) {
+        DoctorSchedule schedule = schedules.get(doctorId);
+        if (schedule == null) {
+            return Collections.emptyList();
+        }
+        synchronized (schedule) {
+            return Collections.unmodifiableList(new ArrayList<>(schedule.appointments.values()));
+        }
+    }
+
+    /**
+     * Getter for the number of live appointments.
+     * @return The appointment count.
+     */
+    public int size() {
+        return byBookingNumber.size();
+    }
+
+    /**
+     * Getter for the service's metrics: outcome counts, latency histograms and gauges.
+     * @return The metrics.
+     */
+    public BookingMetrics getMetrics() {
+        return metrics;
+    }
+
+    // --- Helper Methods ---
+
+    /**
+     * Validates a booking and reserves its slot. Only the selected doctor's lock is held.
+     */
+    private BookingStatus book(int doctorId, String pName, String pMobile, String time) {
+        HealthProfessional doctor = registry.findById(doctorId);
+        BookingStatus status = AssignmentOne.validateRequest(doctor, pName, pMobile, time);
+        if (status != null) {
+            return status;
+        }
+
+        DoctorSchedule schedule = schedules.get(doctorId);
+        Appointment appointment = new Appointment(new Patient(pName, pMobile), time, doctor);
+        long bookingNumber;
+        synchronized (schedule) {
+            if (!schedule.calendar.reserve(SlotCalendar.parseTime(time))) {
+                return BookingStatus.SLOT_UNAVAILABLE;
+            }
+            bookingNumber = nextBookingNumber.getAndIncrement();
+            schedule.appointments.put(bookingNumber, appointment);
+        }
+
+        // Publish to the global order before the mobile index, so a cancel that
+        // finds the booking number can always find the appointment.
+        byBookingNumber.put(bookingNumber, appointment);
+        byMobile.compute(PatientRegistry.normaliseMobile(pMobile), (mobile, bookings) -> {
+            if (bookings == null) {
+                bookings = new TreeSet<>();
+            }
+            bookings.add(bookingNumber);
+            return bookings;
+        });
+        return BookingStatus.CREATED;
+    }
+
+    /**
+     * Claims and removes the earliest booking of a patient.
+     */
+    private BookingStatus cancel(String mobileNumber) {
+        if (mobileNumber == null || mobileNumber.trim().isEmpty()) {
+            return BookingStatus.EMPTY_PHONE_NUMBER;
+        }
+
+        // Atomically claim the patient's earliest booking number.
+        long[] claimed = {0};
+        byMobile.computeIfPresent(PatientRegistry.normaliseMobile(mobileNumber), (mobile, bookings) -> {
+            claimed[0] = bookings.pollFirst();
+            return bookings.isEmpty() ? null : bookings;
+        });
+        if (claimed[0] == 0) {
+            return BookingStatus.NOT_FOUND;
+        }
+
+        Appointment cancelled = byBookingNumber.remove(claimed[0]);
+        DoctorSchedule schedule = schedules.get(cancelled.getDoctor().getId());
+        synchronized (schedule) {
+            schedule.calendar.release(SlotCalendar.parseTime(cancelled.getTimeSlot()));
+            schedule.appointments.remove(claimed[0]);
+        }
+        return BookingStatus.CANCELLED;
+    }
+
+    // --- Nested Types ---
+
+    /**
+     * One doctor's calendar and appointments. Instances are used as the doctor's lock.
+     */
+    private static final class DoctorSchedule {
+        // Occupancy of the doctor's day.
+        private final SlotCalendar calendar;
+        // The doctor's live appointments keyed by booking number.
+        private final TreeMap<Long, Appointment> appointments;
+
+        private DoctorSchedule(SlotCalendar calendar) {
+            this.calendar = calendar;
+            this.appointments = new TreeMap<>();
+        }
+    }
+}
@@ -0,0 +1,184 @@
+import java.io.IOException;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Function;
+
+/**
+ * Imports rosters and booking requests from CSV files of any size.
+ * Files are streamed through a CsvReader, so memory use is one read buffer plus
+ * one batch of parsed records. An optional header row (first field "type" or
+ * "doctorId"), blank lines and lines starting with '#' are skipped. Malformed
+ * records are rejected individually and reported in the ImportSummary.
+ *
+ * Roster files have the columns
+ *   type,id,name,age,profession,detail1,detail2
+ * where type is the code of a registered specialty, e.g. GP (detail1 = max
+ * consultation minutes, detail2 = bulk billing) or CARDIOLOGIST (detail1 =
+ * subspecialty, detail2 = cath lab access). The specialty's descriptor, found
+ * through SpecialtyRegistry.findByCode, builds the professional from the details.
+ *
+ * Booking files have the columns
+ *   doctorId,patientName,patientMobile,time
+ * and are booked in batches through BatchBooking, so every request goes through
+ * the same validation as createAppointment.
+ */
+public final class CsvImporter {
+
+    // Number of booking requests parsed before a batch is booked.
+    public static final int DEFAULT_BATCH_SIZE = 8192;
+
+    /**
+     * Private constructor. This class only has static methods.
+     */
+    private CsvImporter() {
+    }
+
+    /**
+     * Registers every professional listed in a roster file.
+     * @param file The roster CSV file.
+     * @param registry The registry to register the professionals with.
+     * @return The import outcome; duplicate IDs and malformed records are rejected.
+     * @throws IOException if the file cannot be read.
+     */
+    public static ImportSummary importProfessionals(Path file, DoctorRegistry registry) throws IOException {
+        ImportSummary summary = new ImportSummary();
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            CsvReader reader = new CsvReader(channel);
+            RecordDetails details = new RecordDetails(reader);
+            boolean first = true;
+            while (reader.next()) {
+                if (first && reader.fieldEquals(0, "type")) {
+                    first = false;
+                    continue;
+                }
+                first = false;
+                try {
+                    registry.register(parseProfessional(reader, details));
+                    summary.recordImported();
+                } catch (IllegalArgumentException e) {
+                    summary.recordRejected("Line " + reader.getLineNumber() + ": " + e.getMessage());
+                }
+            }
+        }
+        return summary;
+    }
+
+    /**
+     * Books every request listed in a booking file, one batch at a time.
+     * @param file The booking CSV file.
+     * @param batchSize The number of requests booked together.
+     * @param booker Books one batch, e.g. AssignmentOne::createAppointments.
+     * @return The import outcome, with a count per booking outcome.
+     * @throws IOException if the file cannot be read.
+     * @throws IllegalArgumentException if batchSize is not positive.
+     */
+    public static ImportSummary importBookings(Path file, int batchSize,
+                                               Function<List<BookingRequest>, BatchBookingReport> booker)
+            throws IOException {
+        if (batchSize <= 0) {
+            throw new IllegalArgumentException("Invalid batch size: " + batchSize);
+        }
+        ImportSummary summary = new ImportSummary();
+        List<BookingRequest> batch = new ArrayList<>(batchSize);
+        long[] lines = new long[batchSize];
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            CsvReader reader = new CsvReader(channel);
+            boolean first = true;
+            while (reader.next()) {
+                if (first && reader.fieldEquals(0, "doctorId")) {
+                    first = false;
+                    continue;
+                }
+                first = false;
+                if (reader.getFieldCount() != 4) {
+                    summary.recordRejected("Line " + reader.getLineNumber() + ": expected 4 fields, found "
+                            + reader.getFieldCount());
+                    continue;
+                }
+                int doctorId;
+                try {
+                    doctorId = reader.getInt(0);
+                } catch (IllegalArgumentException e) {
+                    summary.recordBooking(BookingStatus.INVALID_DOCTOR_ID, reader.getLineNumber());
+                    continue;
+                }
+                lines[batch.size()] = reader.getLineNumber();
+                batch.add(new BookingRequest(doctorId, reader.getString(1), reader.getString(2), reader.getString(3)));
+                if (batch.size() == batchSize) {
+                    book(batch, lines, booker, summary);
+                }
+            }
+        }
+        book(batch, lines, booker, summary);
+        return summary;
+    }
+
+    // --- Helper Methods ---
+
+    /**
+     * Builds a professional from the current roster record through its specialty's factory.
+     */
+    private static HealthProfessional parseProfessional(CsvReader reader, RecordDetails details) {
+        if (reader.getFieldCount() != 7) {
+            throw new IllegalArgumentException("expected 7 fields, found " + reader.getFieldCount());
+        }
+        int id = reader.getInt(1);
+        String name = reader.getString(2);
+        int age = reader.getInt(3);
+        String profession = reader.getString(4);
+        SpecialtyDescriptor<?> specialty = SpecialtyRegistry.findByCode(reader.getString(0));
+        if (specialty == null) {
+            throw new IllegalArgumentException("unknown professional type " + reader.getString(0));
+        }
+        return specialty.create(id, name, age, profession, details);
+    }
+
+    /**
+     * Books the pending batch, records its outcomes and empties it.
+     */
+    private static void book(List<BookingRequest> batch, long[] lines,
+                             Function<List<BookingRequest>, BatchBookingReport> booker, ImportSummary summary) {
+        if (batch.isEmpty()) {
+            return;
+        }
+        BatchBookingReport report = booker.apply(batch);
+        for (int i = 0; i < report.size(); i++) {
+            summary.recordBooking(report.getStatus(i), lines[i]);
+        }
+        batch.clear();
+    }
+
+    // --- Nested Types ---
+
+    /**
+     * The detail columns of the reader's current roster record, as seen by a specialty factory.
+     */
+    private static final class RecordDetails implements SpecialtyDescriptor.DetailFields {
+        // Index of the first detail column in a roster record.
+        private static final int FIRST_DETAIL = 5;
+
+        private final CsvReader reader;
+
+        private RecordDetails(CsvReader reader) {
+            this.reader = reader;
+        }
+
+        @Override
+        public String getString(int index) {
+            return reader.getString(FIRST_DETAIL + index);
+        }
+
+        @Override
+        public int getInt(int index) {
+            return reader.getInt(FIRST_DETAIL + index);
+        }
+
+        @Override
+        public boolean getBoolean(int index) {
+            return reader.getBoolean(FIRST_DETAIL + index);
+        }
+    }
+}
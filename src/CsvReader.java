@@ -0,0 +1,391 @@
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+
+/**
+ * Streaming reader of comma-separated records from a byte channel.
+ * Bytes are read into one reusable direct buffer and records are split in place:
+ * each field is just a (start, end) pair of buffer positions, so no String is
+ * created for a line or a field unless the caller asks for one. Numbers and
+ * booleans are parsed straight from the bytes. Fields may be quoted, with ""
+ * standing for a quote inside a quoted field; quoted fields may contain commas
+ * and line breaks. Memory use is the buffer, however large the input is; a
+ * record longer than the buffer grows it up to MAX_RECORD_BYTES.
+ * Not thread-safe.
+ */
+public class CsvReader {
+
+    // Initial buffer size.
+    private static final int DEFAULT_BUFFER_BYTES = 64 * 1024;
+    // Longest record accepted.
+    public static final int MAX_RECORD_BYTES = 1 << 20;
+
+    // --- Instance Variables ---
+
+    // Source of the bytes.
+    private final ReadableByteChannel channel;
+    // Bytes read but not yet consumed are between 'position' and buffer.limit().
+    private ByteBuffer buffer;
+    // Start of the next unread record in the buffer.
+    private int position;
+    // True once the channel has reported end of input.
+    private boolean endOfInput;
+    // Field boundaries of the current record: field i spans [starts[i], ends[i]).
+    private int[] starts;
+    private int[] ends;
+    // Whether field i of the current record was quoted.
+    private boolean[] quoted;
+    // Number of fields in the current record.
+    private int fieldCount;
+    // Line number (1-based) on which the current record starts.
+    private long lineNumber;
+    // Line number on which the next record starts.
+    private long nextLineNumber;
+
+    // --- Constructors ---
+
+    /**
+     * Parameterized constructor.
+     * @param channel The channel to read from, e.g. FileChannel.open(path).
+     */
+    public CsvReader(ReadableByteChannel channel) {
+        this.channel = channel;
+        this.buffer = ByteBuffer.allocateDirect(DEFAULT_BUFFER_BYTES);
+        buffer.limit(0);
+        this.position = 0;
+        this.endOfInput = false;
+        this.starts = new int[16];
+        this.ends = new int[16];
+        this.quoted = new boolean[16];
+        this.fieldCount = 0;
+        this.lineNumber = 0;
+        this.nextLineNumber = 1;
+    }
+
+    // --- Methods ---
+
+    /**
+     * Advances to the next record, skipping blank lines and lines starting with '#'.
+     * @return True if a record was read, false at the end of the input.
+     * @throws IOException if the channel cannot be read.
+     * @throws IllegalArgumentException if a record is longer than MAX_RECORD_BYTES.
+     */
+    public boolean next() throws IOException {
+        while (true) {
+            int end = scanRecord();
+            if (end < 0) {
+                if (endOfInput) {
+                    if (position == buffer.limit()) {
+                        return false;
+                    }
+                    // The last record has no line break.
+                    end = buffer.limit();
+                    if (scanFields(position, end) < 0) {
+                        throw new IllegalArgumentException("Unterminated quoted field on line " + nextLineNumber);
+                    }
+                } else {
+                    fill();
+                    continue;
+                }
+            }
+            int recordStart = position;
+            lineNumber = nextLineNumber;
+            nextLineNumber += countLineBreaks(recordStart, end);
+            position = Math.min(end + 1, buffer.limit());
+            if (!isBlankOrComment(recordStart)) {
+                return true;
+            }
+        }
+    }
+
+    /**
+     * Getter for the number of fields in the current record.
+     * @return The field count.
+     */
+    public int getFieldCount() {
+        return fieldCount;
+    }
+
+    /**
+     * Getter for the line number of the current record.
+     * @return The 1-based line on which the record starts.
+     */
+    public long getLineNumber() {
+        return lineNumber;
+    }
+
+    /**
+     * Decodes a field as a string, trimmed of surrounding spaces unless it was quoted.
+     * @param index The field index.
+     * @return The field text; empty if the record has fewer fields.
+     */
+    public String getString(int index) {
+        if (index >= fieldCount) {
+            return "";
+        }
+        int start = starts[index];
+        int end = ends[index];
+        if (!quoted[index]) {
+            while (start < end && buffer.get(start) == ' ') {
+                start++;
+            }
+            while (end > start && buffer.get(end - 1) == ' ') {
+                end--;
+            }
+        }
+        byte[] bytes = new byte[end - start];
+        int length = 0;
+        for (int i = start; i < end; i++) {
+            byte b = buffer.get(i);
+            bytes[length++] = b;
+            if (b == '"' && quoted[index]) {
+                // "" inside a quoted field stands for a single quote.
+                i++;
+            }
+        }
+        return new String(bytes, 0, length, StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Parses a field as a decimal integer without creating a String.
+     * @param index The field index.
+     * @return The value.
+     * @throws IllegalArgumentException if the field is missing or not an integer.
+     */
+    public int getInt(int index) {
+        int start = index < fieldCount ? trimStart(index) : 0;
+        int end = index < fieldCount ? trimEnd(index, start) : 0;
+        boolean negative = start < end && buffer.get(start) == '-';
+        if (negative || (start < end && buffer.get(start) == '+')) {
+            start++;
+        }
+        if (start == end || end - start > 10) {
+            throw new IllegalArgumentException(describe(index) + " is not an integer");
+        }
+        long value = 0;
+        for (int i = start; i < end; i++) {
+            byte b = buffer.get(i);
+            if (b < '0' || b > '9') {
+                throw new IllegalArgumentException(describe(index) + " is not an integer");
+            }
+            value = value * 10 + (b - '0');
+        }
+        value = negative ? -value : value;
+        if (value < Integer.MIN_VALUE || value > Integer.MAX_VALUE) {
+            throw new IllegalArgumentException(describe(index) + " is out of range");
+        }
+        return (int) value;
+    }
+
+    /**
+     * Parses a field as a boolean: true, yes, y or 1, and false, no, n or 0, in any case.
+     * @param index The field index.
+     * @return The value.
+     * @throws IllegalArgumentException if the field is missing or not a boolean.
+     */
+    public boolean getBoolean(int index) {
+        if (index < fieldCount) {
+            int start = trimStart(index);
+            int end = trimEnd(index, start);
+            if (matches(start, end, "true") || matches(start, end, "yes")
+                    || matches(start, end, "y") || matches(start, end, "1")) {
+                return true;
+            }
+            if (matches(start, end, "false") || matches(start, end, "no")
+                    || matches(start, end, "n") || matches(start, end, "0")) {
+                return false;
+            }
+        }
+        throw new IllegalArgumentException(describe(index) + " is not a boolean");
+    }
+
+    /**
+     * Compares a field with a text, ignoring case and surrounding spaces, without creating a String.
+     * @param index The field index.
+     * @param text An ASCII text.
+     * @return True if the field equals the text.
+     */
+    public boolean fieldEquals(int index, String text) {
+        if (index >= fieldCount) {
+            return false;
+        }
+        int start = trimStart(index);
+        return matches(start, trimEnd(index, start), text);
+    }
+
+    // --- Helper Methods ---
+
+    /**
+     * Finds the line break ending the record at 'position' and records its fields.
+     * @return The position of the line break, or -1 if the buffer holds no complete record.
+     */
+    private int scanRecord() {
+        return scanFields(position, -1);
+    }
+
+    /**
+     * Splits the bytes from 'from' into fields, up to the first line break outside quotes
+     * or, if 'limit' is not -1, up to 'limit'.
+     * @return The end of the record, or -1 if it is incomplete.
+     */
+    private int scanFields(int from, int limit) {
+        int end = limit < 0 ? buffer.limit() : limit;
+        fieldCount = 0;
+        int fieldStart = from;
+        boolean inQuotes = false;
+        boolean fieldQuoted = false;
+        for (int i = from; i < end; i++) {
+            byte b = buffer.get(i);
+            if (inQuotes) {
+                if (b == '"') {
+                    if (i + 1 < end && buffer.get(i + 1) == '"') {
+                        i++;
+                    } else if (i + 1 == end && limit < 0 && !endOfInput) {
+                        // Cannot tell "" from a closing quote yet.
+                        return -1;
+                    } else {
+                        inQuotes = false;
+                        addField(fieldStart, i, true);
+                        fieldQuoted = true;
+                    }
+                }
+            } else if (b == '"' && !fieldQuoted && isBlank(fieldStart, i)) {
+                inQuotes = true;
+                fieldStart = i + 1;
+            } else if (b == ',' || b == '\n') {
+                if (!fieldQuoted) {
+                    addField(fieldStart, i > fieldStart && b == '\n' && buffer.get(i - 1) == '\r' ? i - 1 : i, false);
+                }
+                fieldQuoted = false;
+                fieldStart = i + 1;
+                if (b == '\n') {
+                    return i;
+                }
+            }
+        }
+        if (limit < 0 || inQuotes) {
+            return -1;
+        }
+        if (!fieldQuoted) {
+            int fieldEnd = end > fieldStart && buffer.get(end - 1) == '\r' ? end - 1 : end;
+            addField(fieldStart, fieldEnd, false);
+        }
+        return end;
+    }
+
+    /**
+     * Records the boundaries of the next field of the current record.
+     */
+    private void addField(int start, int end, boolean isQuoted) {
+        if (fieldCount == starts.length) {
+            starts = Arrays.copyOf(starts, fieldCount * 2);
+            ends = Arrays.copyOf(ends, fieldCount * 2);
+            quoted = Arrays.copyOf(quoted, fieldCount * 2);
+        }
+        starts[fieldCount] = start;
+        ends[fieldCount] = end;
+        quoted[fieldCount] = isQuoted;
+        fieldCount++;
+    }
+
+    /**
+     * Moves the unread bytes to the front of the buffer and reads more from the channel,
+     * growing the buffer if a single record fills it.
+     */
+    private void fill() throws IOException {
+        int remaining = buffer.limit() - position;
+        if (remaining == buffer.capacity()) {
+            if (buffer.capacity() >= MAX_RECORD_BYTES) {
+                throw new IllegalArgumentException("Record on line " + nextLineNumber
+                        + " is longer than " + MAX_RECORD_BYTES + " bytes");
+            }
+            ByteBuffer larger = ByteBuffer.allocateDirect(Math.min(buffer.capacity() * 2, MAX_RECORD_BYTES));
+            larger.put(buffer.position(position));
+            buffer = larger;
+        } else {
+            buffer.position(position);
+            buffer.compact();
+        }
+        position = 0;
+        // 'buffer' is now in write mode with the unread bytes at the front.
+        int read = channel.read(buffer);
+        if (read < 0) {
+            endOfInput = true;
+        }
+        buffer.flip();
+    }
+
+    /**
+     * Checks whether the record starting at 'start' is blank or a comment.
+     */
+    private boolean isBlankOrComment(int start) {
+        if (fieldCount == 0) {
+            return true;
+        }
+        if (fieldCount == 1 && !quoted[0] && isBlank(starts[0], ends[0])) {
+            return true;
+        }
+        return !quoted[0] && starts[0] == start && ends[0] > start && buffer.get(start) == '#';
+    }
+
+    /**
+     * Counts the line breaks in [from, to], i.e. the record including its terminator.
+     */
+    private int countLineBreaks(int from, int to) {
+        int count = 0;
+        int end = Math.min(to + 1, buffer.limit());
+        for (int i = from; i < end; i++) {
+            if (buffer.get(i) == '\n') {
+                count++;
+            }
+        }
+        return Math.max(count, 1);
+    }
+
+    private boolean isBlank(int from, int to) {
+        for (int i = from; i < to; i++) {
+            if (buffer.get(i) != ' ' && buffer.get(i) != '\t') {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private int trimStart(int index) {
+        int start = starts[index];
+        while (!quoted[index] && start < ends[index] && buffer.get(start) == ' ') {
+            start++;
+        }
+        return start;
+    }
+
+    private int trimEnd(int index, int start) {
+        int end = ends[index];
+        while (!quoted[index] && end > start && buffer.get(end - 1) == ' ') {
+            end--;
+        }
+        return end;
+    }
+
+    /**
+     * Compares bytes [start, end) with an ASCII text, ignoring case.
+     */
+    private boolean matches(int start, int end, String text) {
+        if (end - start != text.length()) {
+            return false;
+        }
+        for (int i = 0; i < text.length(); i++) {
+            int b = buffer.get(start + i);
+            if (Character.toLowerCase(b) != Character.toLowerCase(text.charAt(i))) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private String describe(int index) {
+        return "Field " + (index + 1) + " on line " + lineNumber;
+    }
+}
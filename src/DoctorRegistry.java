@@ -0,0 +1,162 @@
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Holds every registered HealthProfessional and indexes them for fast lookup.
+ * The primary index maps the doctor ID (a primitive int) to the professional,
+ * so booking no longer scans the whole roster. Secondary indexes group the
+ * professionals by their profession title, preserving registration order.
+ * A ProfessionalCatalogue keeps the professionals partitioned by concrete type,
+ * and each professional also owns a SlotCalendar tracking the day's bookings.
+ * An AvailabilityIndex over the professionals' attributes and calendars answers
+ * "who is free first" searches.
+ */
+public class DoctorRegistry {
+
+    // --- Instance Variables ---
+
+    // Primary index: doctor ID -> professional, with no Integer boxing.
+    private final IntObjectMap<HealthProfessional> byId;
+    // All professionals in registration order, used for full roster listings.
+    private final ArrayList<HealthProfessional> allDoctors;
+    // Secondary index: profession title -> professionals with that title.
+    private final Map<String, ArrayList<HealthProfessional>> byProfession;
+    // Professionals partitioned by concrete class, for roster reports.
+    private final ProfessionalCatalogue catalogue;
+    // Doctor ID -> that doctor's day calendar.
+    private final IntObjectMap<SlotCalendar> calendars;
+    // Attribute indexes for availability searches.
+    private AvailabilityIndex availability;
+
+    // --- Constructors ---
+
+    /**
+     * Default constructor. Creates an empty registry.
+     */
+    public DoctorRegistry() {
+        this.byId = new IntObjectMap<>();
+        this.allDoctors = new ArrayList<>();
+        this.byProfession = new LinkedHashMap<>();
+        this.catalogue = new ProfessionalCatalogue();
+        this.calendars = new IntObjectMap<>();
+        this.availability = new AvailabilityIndex();
+    }
+
+    // --- Methods ---
+
+    /**
+     * Registers a professional and adds it to every index.
+     * @param doctor The professional to register.
+     * @throws IllegalArgumentException if the doctor is null or the ID is already taken.
+     */
+    public void register(HealthProfessional doctor) {
+        if (doctor == null) {
+            throw new IllegalArgumentException("Doctor cannot be null");
+        }
+        if (byId.containsKey(doctor.getId())) {
+            throw new IllegalArgumentException("Duplicate doctor ID: " + doctor.getId());
+        }
+        byId.put(doctor.getId(), doctor);
+        allDoctors.add(doctor);
+        byProfession.computeIfAbsent(doctor.getProfession(), k -> new ArrayList<>()).add(doctor);
+        catalogue.add(doctor);
+        SlotCalendar calendar = SlotCalendar.forDoctor(doctor);
+        calendars.put(doctor.getId(), calendar);
+        availability.add(doctor, calendar);
+    }
+
+    /**
+     * Puts the roster into a new order, as if the professionals had been registered in it,
+     * e.g. the order of a restored snapshot whose professionals were registered on first use.
+     * Every listing, report section and search follows the new order; calendars are kept.
+     * @param order Every registered professional exactly once, in the new order.
+     * @throws IllegalArgumentException if the list is not exactly the registered roster.
+     */
+    public void reorder(List<HealthProfessional> order) {
+        IntObjectMap<HealthProfessional> seen = new IntObjectMap<>(order.size());
+        for (HealthProfessional doctor : order) {
+            if (doctor == null || byId.get(doctor.getId()) != doctor || seen.put(doctor.getId(), doctor) != null) {
+                throw new IllegalArgumentException("Order does not match the registered roster");
+            }
+        }
+        if (seen.size() != allDoctors.size()) {
+            throw new IllegalArgumentException("Order does not match the registered roster");
+        }
+        allDoctors.clear();
+        byProfession.clear();
+        catalogue.clearMembers();
+        availability = new AvailabilityIndex();
+        for (HealthProfessional doctor : order) {
+            allDoctors.add(doctor);
+            byProfession.computeIfAbsent(doctor.getProfession(), k -> new ArrayList<>()).add(doctor);
+            catalogue.add(doctor);
+            availability.add(doctor, calendars.get(doctor.getId()));
+        }
+    }
+
+    /**
+     * Looks up a professional by ID in constant time.
+     * @param doctorId The ID of the professional.
+     * @return The professional, or null if no professional has this ID.
+     */
+    public HealthProfessional findById(int doctorId) {
+        return byId.get(doctorId);
+    }
+
+    /**
+     * Looks up the day calendar of a professional.
+     * @param doctorId The ID of the professional.
+     * @return The calendar, or null if no professional has this ID.
+     */
+    public SlotCalendar calendarOf(int doctorId) {
+        return calendars.get(doctorId);
+    }
+
+    /**
+     * Returns all professionals in registration order.
+     * @return A read-only view of the roster.
+     */
+    public List<HealthProfessional> getAll() {
+        return Collections.unmodifiableList(allDoctors);
+    }
+
+    /**
+     * Returns the professionals registered under the given profession title.
+     * @param profession The profession title, e.g. "Cardiologist".
+     * @return A read-only view of the matching professionals (empty if none).
+     */
+    public List<HealthProfessional> getByProfession(String profession) {
+        ArrayList<HealthProfessional> doctors = byProfession.get(profession);
+        if (doctors == null) {
+            return Collections.emptyList();
+        }
+        return Collections.unmodifiableList(doctors);
+    }
+
+    /**
+     * Getter for the catalogue partitioning the roster by concrete type.
+     * @return The catalogue, kept up to date by register().
+     */
+    public ProfessionalCatalogue getCatalogue() {
+        return catalogue;
+    }
+
+    /**
+     * Getter for the availability search over the roster.
+     * @return The index, kept up to date by register().
+     */
+    public AvailabilityIndex getAvailability() {
+        return availability;
+    }
+
+    /**
+     * Getter for the number of registered professionals.
+     * @return The roster size.
+     */
+    public int size() {
+        return allDoctors.size();
+    }
+}
@@ -1,9 +1,34 @@
+import java.util.List;
+
 /**
  * This class extends HealthProfessional, inheriting common attributes
  * and adding specialized properties and behaviors specific to a General Practitioner.
  */
 public class GeneralPractitioner extends HealthProfessional {
 
+    // Code, names, report columns and search attributes of General Practitioners.
+    public static final SpecialtyDescriptor<GeneralPractitioner> SPECIALTY = new SpecialtyDescriptor<>(
+            GeneralPractitioner.class, "GP", "General Practitioner", "General Practitioners", List.of(
+                    new SpecialtyDescriptor.Column<GeneralPractitioner>("Max Consultation Time", 25,
+                            (out, gp, width) -> RowRenderer.column(out, gp.maxConsultationTime, width),
+                            gp -> gp.maxConsultationTime),
+                    new SpecialtyDescriptor.Column<GeneralPractitioner>("Bulk Billing Available", 5,
+                            (out, gp, width) -> RowRenderer.column(out, gp.bulkBilling, width),
+                            gp -> gp.bulkBilling)),
+            (id, name, age, profession, details) -> new GeneralPractitioner(id, name, age, profession,
+                    details.getInt(0), details.getBoolean(1)),
+            new SpecialtyDescriptor.Traits<GeneralPractitioner>() {
+                @Override
+                public int getMaxConsultationTime(GeneralPractitioner gp) {
+                    return gp.maxConsultationTime;
+                }
+
+                @Override
+                public boolean isBulkBilling(GeneralPractitioner gp) {
+                    return gp.bulkBilling;
+                }
+            });
+
     // --- Instance Variables ---
 
     // The maximum length (in minutes) allowed for a consultation.
@@ -43,25 +68,25 @@ public class GeneralPractitioner extends HealthProfessional {
 
     /**
      * Implements the abstract method from HealthProfessional.
-     * Prints the complete details of the General Practitioner:
+     * Renders the complete details of the General Practitioner:
      * Base details from superclass followed by GP-specific details.
+     * @param out The buffer to write the row to.
+     * @return The same buffer, for chaining.
      */
     @Override
-    public void printProfessionalDetails() {
-        // Get the formatted base information string from the superclass.
-        String baseDetails = super.printBaseDetails();
-
-        // Define the format for the GP-specific fields.
-        // This format aligns with the GP_HEADER_FORMAT in the main class.
-        final String GP_INFO_FORMAT = "%-25d%-5s%n";
-
-        // Format the specific fields (Max Consult Time and Bulk Billing status).
-        // Uses a ternary operator to convert the boolean 'bulkBilling' to "Yes" or "No".
-        String gpDetails = String.format(GP_INFO_FORMAT,
-                this.maxConsultationTime,
-                this.bulkBilling ? "Yes" : "No");
+    public StringBuilder appendProfessionalDetails(StringBuilder out) {
+        // Base columns followed by the GP-specific fields (Max Consult Time and Bulk Billing status),
+        // laid out by the same column list that renders the section header.
+        return SPECIALTY.appendRow(out, this);
+    }
 
-        System.out.print(baseDetails + gpDetails);
+    /**
+     * Returns the General Practitioner specialty descriptor.
+     * @return GeneralPractitioner.SPECIALTY.
+     */
+    @Override
+    public SpecialtyDescriptor<GeneralPractitioner> getSpecialty() {
+        return SPECIALTY;
     }
 
     // --- Getters (Encapsulation) ---
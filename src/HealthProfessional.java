@@ -49,13 +49,22 @@ public abstract class HealthProfessional {
      * * @return A formatted string containing the base professional details.
      */
     public String printBaseDetails() {
-        // Defines the format string with fixed widths for each base field.
-        final String BASE_INFO_FORMAT = "%-5d%-15s%-5d%-25s";
-        return String.format(BASE_INFO_FORMAT,
-                this.id,
-                this.name,
-                this.age,
-                this.profession);
+        return appendBaseDetails(new StringBuilder()).toString();
+    }
+
+    /**
+     * Writes the base details (ID, Name, Age, Profession) as fixed-width columns
+     * directly into a buffer, producing the same text as printBaseDetails()
+     * without going through String.format.
+     * @param out The buffer to write to.
+     * @return The same buffer, for chaining.
+     */
+    public StringBuilder appendBaseDetails(StringBuilder out) {
+        // Column widths match the "%-5d%-15s%-5d%-25s" base row layout.
+        RowRenderer.column(out, this.id, 5);
+        RowRenderer.column(out, this.name, 15);
+        RowRenderer.column(out, this.age, 5);
+        return RowRenderer.column(out, this.profession, 25);
     }
 
     // --- Getters ---
@@ -92,13 +101,36 @@ public abstract class HealthProfessional {
         return  profession;
     }
 
+    // --- Report Methods ---
+
+    /**
+     * Returns the descriptor of this professional's specialty: its code, display name
+     * and report columns. Subclasses with their own descriptor override this; others
+     * are looked up in the SpecialtyRegistry.
+     * @return The specialty, or null if this type was never registered.
+     */
+    public SpecialtyDescriptor<?> getSpecialty() {
+        return SpecialtyRegistry.find(getClass());
+    }
+
+    /**
+     * Prints the complete details of this professional as one report row.
+     * The row is rendered by appendProfessionalDetails and written in a single call.
+     */
+    public void printProfessionalDetails() {
+        System.out.print(appendProfessionalDetails(new StringBuilder()));
+    }
+
     // --- Abstract Method ---
 
     /**
      * Abstract method that must be implemented (overridden) by every concrete subclass.
-     * This method is responsible for printing the specialized details unique to each profession.
+     * This method is responsible for rendering the specialized details unique to each profession,
+     * as one complete report row (base details, specific details and line separator).
      * By being abstract, it enforces that all health professionals must define how their
      * specialized data is displayed.
+     * @param out The buffer to write the row to.
+     * @return The same buffer, for chaining.
      */
-    public abstract void printProfessionalDetails();
+    public abstract StringBuilder appendProfessionalDetails(StringBuilder out);
 }
\ No newline at end of file
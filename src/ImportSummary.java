@@ -0,0 +1,116 @@
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Outcome of a CSV import: how many records were read, imported and rejected,
+ * with the reason for the first rejections. Booking imports also count each
+ * BookingStatus returned by the batch booking.
+ */
+public class ImportSummary {
+
+    // Maximum number of rejection messages kept.
+    private static final int MAX_ERRORS = 100;
+
+    // --- Instance Variables ---
+
+    // Records read, excluding the header.
+    private long records;
+    // Records imported successfully.
+    private long imported;
+    // Records rejected, whether malformed or refused by validation.
+    private long rejected;
+    // Number of bookings per outcome, indexed by BookingStatus.ordinal().
+    private final long[] statusCounts;
+    // The first MAX_ERRORS rejection messages.
+    private final ArrayList<String> errors;
+
+    // --- Constructors ---
+
+    /**
+     * Default constructor. Creates an empty summary.
+     */
+    public ImportSummary() {
+        this.statusCounts = new long[BookingStatus.values().length];
+        this.errors = new ArrayList<>();
+    }
+
+    // --- Methods ---
+
+    /**
+     * Counts a record that was imported.
+     */
+    void recordImported() {
+        records++;
+        imported++;
+    }
+
+    /**
+     * Counts a record that was rejected.
+     * @param reason Why it was rejected, including its line number.
+     */
+    void recordRejected(String reason) {
+        records++;
+        rejected++;
+        if (errors.size() < MAX_ERRORS) {
+            errors.add(reason);
+        }
+    }
+
+    /**
+     * Counts the outcome of a booked record.
+     * @param status The booking outcome.
+     * @param lineNumber The record's line number, used in the rejection message.
+     */
+    void recordBooking(BookingStatus status, long lineNumber) {
+        statusCounts[status.ordinal()]++;
+        if (status.isSuccess()) {
+            recordImported();
+        } else {
+            recordRejected("Line " + lineNumber + ": " + status.getMessage());
+        }
+    }
+
+    // --- Getters ---
+
+    /**
+     * Getter for the number of records read.
+     * @return The record count, excluding the header, blank lines and comments.
+     */
+    public long getRecords() {
+        return records;
+    }
+
+    /**
+     * Getter for the number of records imported.
+     * @return The imported count.
+     */
+    public long getImported() {
+        return imported;
+    }
+
+    /**
+     * Getter for the number of records rejected.
+     * @return The rejected count.
+     */
+    public long getRejected() {
+        return rejected;
+    }
+
+    /**
+     * Returns how many bookings ended with the given outcome.
+     * @param status The outcome.
+     * @return The count; always 0 for roster imports.
+     */
+    public long count(BookingStatus status) {
+        return statusCounts[status.ordinal()];
+    }
+
+    /**
+     * Getter for the rejection messages.
+     * @return A read-only list of the first 100 messages, in file order.
+     */
+    public List<String> getErrors() {
+        return Collections.unmodifiableList(errors);
+    }
+}
@@ -0,0 +1,197 @@
+import java.util.Arrays;
+
+/**
+ * A small open-addressing hash map from primitive int keys to object values.
+ * Keys are stored in an int[] so lookups never box the key into an Integer,
+ * which keeps the doctor-id lookup on the booking path allocation free.
+ * @param <V> The type of the stored values.
+ */
+public class IntObjectMap<V> {
+
+    // --- Instance Variables ---
+
+    // Hash table of keys. A slot is empty when its value is null.
+    private int[] keys;
+    // Hash table of values, parallel to 'keys'.
+    private Object[] values;
+    // Number of stored entries.
+    private int size;
+    // Entry count at which the table is doubled (75% load factor).
+    private int threshold;
+
+    // --- Constructors ---
+
+    /**
+     * Default constructor. Creates an empty map with a small initial table.
+     */
+    public IntObjectMap() {
+        this(16);
+    }
+
+    /**
+     * Parameterized constructor used to pre-size the table.
+     * @param expectedSize The number of entries the map should hold without resizing.
+     */
+    public IntObjectMap(int expectedSize) {
+        int capacity = Integer.highestOneBit(Math.max(4, expectedSize * 4 / 3 + 1) - 1) << 1;
+        this.keys = new int[capacity];
+        this.values = new Object[capacity];
+        this.size = 0;
+        this.threshold = capacity * 3 / 4;
+    }
+
+    // --- Methods ---
+
+    /**
+     * Returns the value mapped to the given key.
+     * @param key The key to look up.
+     * @return The mapped value, or null when the key is absent.
+     */
+    @SuppressWarnings("unchecked")
+    public V get(int key) {
+        int mask = keys.length - 1;
+        int slot = mix(key) & mask;
+        // Linear probing: walk forward until the key or an empty slot is found.
+        while (values[slot] != null) {
+            if (keys[slot] == key) {
+                return (V) values[slot];
+            }
+            slot = (slot + 1) & mask;
+        }
+        return null;
+    }
+
+    /**
+     * Checks whether the given key is present.
+     * @param key The key to look up.
+     * @return True if the key is mapped to a value.
+     */
+    public boolean containsKey(int key) {
+        return get(key) != null;
+    }
+
+    /**
+     * Maps the key to the value, replacing any previous mapping.
+     * @param key The key.
+     * @param value The value. Must not be null.
+     * @return The previous value, or null if there was none.
+     */
+    @SuppressWarnings("unchecked")
+    public V put(int key, V value) {
+        if (value == null) {
+            throw new IllegalArgumentException("IntObjectMap does not accept null values");
+        }
+        int mask = keys.length - 1;
+        int slot = mix(key) & mask;
+        while (values[slot] != null) {
+            if (keys[slot] == key) {
+                V previous = (V) values[slot];
+                values[slot] = value;
+                return previous;
+            }
+            slot = (slot + 1) & mask;
+        }
+        keys[slot] = key;
+        values[slot] = value;
+        if (++size > threshold) {
+            resize();
+        }
+        return null;
+    }
+
+    /**
+     * Removes the mapping for the given key.
+     * Uses backward-shift deletion so no tombstones are left in the table.
+     * @param key The key to remove.
+     * @return The removed value, or null if the key was absent.
+     */
+    @SuppressWarnings("unchecked")
+    public V remove(int key) {
+        int mask = keys.length - 1;
+        int slot = mix(key) & mask;
+        while (values[slot] != null) {
+            if (keys[slot] == key) {
+                V removed = (V) values[slot];
+                shiftBack(slot, mask);
+                size--;
+                return removed;
+            }
+            slot = (slot + 1) & mask;
+        }
+        return null;
+    }
+
+    /**
+     * Getter for the number of entries.
+     * @return The entry count.
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Checks whether the map holds no entries.
+     * @return True if the map is empty.
+     */
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    /**
+     * Removes all entries while keeping the current table capacity.
+     */
+    public void clear() {
+        Arrays.fill(values, null);
+        size = 0;
+    }
+
+    // --- Helper Methods ---
+
+    /**
+     * Scrambles the key bits so sequential ids spread across the table.
+     */
+    private static int mix(int key) {
+        int h = key * 0x9E3779B9;
+        return h ^ (h >>> 16);
+    }
+
+    /**
+     * Closes the gap left at 'gap' by moving later entries of the same probe run back.
+     */
+    private void shiftBack(int gap, int mask) {
+        int slot = gap;
+        while (true) {
+            slot = (slot + 1) & mask;
+            if (values[slot] == null) {
+                break;
+            }
+            int home = mix(keys[slot]) & mask;
+            // Move the entry only if its home slot is not between the gap and its current slot.
+            boolean movable = (gap <= slot) ? (home <= gap || home > slot) : (home <= gap && home > slot);
+            if (movable) {
+                keys[gap] = keys[slot];
+                values[gap] = values[slot];
+                gap = slot;
+            }
+        }
+        values[gap] = null;
+    }
+
+    /**
+     * Doubles the table and re-inserts every entry.
+     */
+    @SuppressWarnings("unchecked")
+    private void resize() {
+        int[] oldKeys = keys;
+        Object[] oldValues = values;
+        keys = new int[oldKeys.length * 2];
+        values = new Object[oldValues.length * 2];
+        threshold = keys.length * 3 / 4;
+        size = 0;
+        for (int i = 0; i < oldKeys.length; i++) {
+            if (oldValues[i] != null) {
+                put(oldKeys[i], (V) oldValues[i]);
+            }
+        }
+    }
+}
@@ -0,0 +1,177 @@
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Lock-free latency histogram with logarithmic buckets, in the style of HdrHistogram.
+ * Values are nanoseconds. Values below 128 get one bucket each; above that, every
+ * power of two is split into 64 linear sub-buckets, so any recorded value is
+ * reported within 1/64 (about 1.6%) of its true value. Values up to 2^40 ns
+ * (about 18 minutes) are tracked; larger values are counted in the last bucket.
+ * Recording is one atomic increment plus two striped adders, and never allocates.
+ */
+public class LatencyHistogram {
+
+    // Sub-buckets per power of two, as a number of bits.
+    private static final int SUB_BUCKET_BITS = 6;
+    // Values below this are recorded exactly.
+    private static final int LINEAR_LIMIT = 1 << (SUB_BUCKET_BITS + 1);
+    // Largest value tracked without clamping.
+    private static final long MAX_TRACKABLE = (1L << 40) - 1;
+    // Number of buckets needed to reach MAX_TRACKABLE.
+    private static final int BUCKET_COUNT = indexOf(MAX_TRACKABLE) + 1;
+
+    // --- Instance Variables ---
+
+    // Count of recorded values per bucket.
+    private final AtomicLongArray counts;
+    // Sum of all recorded values, for the mean.
+    private final LongAdder sum;
+    // Largest value recorded.
+    private final LongAccumulator max;
+
+    // --- Constructors ---
+
+    /**
+     * Default constructor. Creates an empty histogram.
+     */
+    public LatencyHistogram() {
+        this.counts = new AtomicLongArray(BUCKET_COUNT);
+        this.sum = new LongAdder();
+        this.max = new LongAccumulator(Math::max, 0);
+    }
+
+    // --- Methods ---
+
+    /**
+     * Records one latency. Negative values are recorded as zero.
+     * @param nanos The latency in nanoseconds.
+     */
+    public void record(long nanos) {
+        long value = Math.max(0, nanos);
+        counts.incrementAndGet(indexOf(Math.min(value, MAX_TRACKABLE)));
+        sum.add(value);
+        max.accumulate(value);
+    }
+
+    /**
+     * Copies the current counts into an immutable snapshot.
+     * Values recorded while the copy is made may or may not be included.
+     * @return The snapshot.
+     */
+    public Snapshot snapshot() {
+        long[] copy = new long[BUCKET_COUNT];
+        long total = 0;
+        for (int i = 0; i < BUCKET_COUNT; i++) {
+            copy[i] = counts.get(i);
+            total += copy[i];
+        }
+        return new Snapshot(copy, total, sum.sum(), max.get());
+    }
+
+    /**
+     * Discards all recorded values.
+     */
+    public void reset() {
+        for (int i = 0; i < BUCKET_COUNT; i++) {
+            counts.set(i, 0);
+        }
+        sum.reset();
+        max.reset();
+    }
+
+    // --- Helper Methods ---
+
+    /**
+     * Returns the bucket of a value between 0 and MAX_TRACKABLE.
+     */
+    private static int indexOf(long value) {
+        if (value < LINEAR_LIMIT) {
+            return (int) value;
+        }
+        int shift = 63 - Long.numberOfLeadingZeros(value) - SUB_BUCKET_BITS;
+        return (shift << SUB_BUCKET_BITS) + (int) (value >>> shift);
+    }
+
+    /**
+     * Returns the largest value that falls into a bucket.
+     */
+    private static long highestValueIn(int index) {
+        if (index < LINEAR_LIMIT) {
+            return index;
+        }
+        int shift = (index >>> SUB_BUCKET_BITS) - 1;
+        long lowest = (long) (index - (shift << SUB_BUCKET_BITS)) << shift;
+        return lowest + (1L << shift) - 1;
+    }
+
+    // --- Nested Types ---
+
+    /**
+     * A point-in-time copy of a histogram.
+     */
+    public static final class Snapshot {
+        // Count per bucket.
+        private final long[] counts;
+        // Total number of values.
+        private final long count;
+        // Sum of all values.
+        private final long sum;
+        // Largest value.
+        private final long max;
+
+        private Snapshot(long[] counts, long count, long sum, long max) {
+            this.counts = counts;
+            this.count = count;
+            this.sum = sum;
+            this.max = max;
+        }
+
+        /**
+         * Getter for the number of recorded values.
+         * @return The count.
+         */
+        public long getCount() {
+            return count;
+        }
+
+        /**
+         * Getter for the mean value.
+         * @return The mean in nanoseconds, or 0 if nothing was recorded.
+         */
+        public long getMean() {
+            return count == 0 ? 0 : sum / count;
+        }
+
+        /**
+         * Getter for the largest recorded value.
+         * @return The maximum in nanoseconds.
+         */
+        public long getMax() {
+            return max;
+        }
+
+        /**
+         * Returns the value below which a given percentage of the recorded values fall.
+         * @param percentile The percentile, from 0 to 100.
+         * @return The value in nanoseconds (upper edge of its bucket, capped at the maximum).
+         */
+        public long getValueAtPercentile(double percentile) {
+            if (percentile < 0 || percentile > 100) {
+                throw new IllegalArgumentException("Percentile must be between 0 and 100: " + percentile);
+            }
+            if (count == 0) {
+                return 0;
+            }
+            long rank = Math.max(1, (long) Math.ceil(percentile / 100 * count));
+            long seen = 0;
+            for (int i = 0; i < counts.length; i++) {
+                seen += counts[i];
+                if (seen >= rank) {
+                    return Math.min(highestValueIn(i), max);
+                }
+            }
+            return max;
+        }
+    }
+}
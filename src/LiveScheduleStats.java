@@ -0,0 +1,376 @@
+import java.util.Arrays;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Schedule statistics kept current with every booking and cancellation, for
+ * dashboards that refresh often. Attached to an AppointmentStore as a listener,
+ * each event updates a handful of striped LongAdder counters in constant time:
+ * live appointments per doctor, per hour and in total, cancellations per hour,
+ * and appointments completed.
+ *
+ * Readers take a Snapshot without blocking writers. Every update is bracketed by
+ * two monotonic counters (started, then completed); a reader sums 'completed',
+ * copies the counters, then sums 'started', and keeps the copy only if the two
+ * sums are equal, i.e. no update was in progress while it was copying. Otherwise
+ * it copies again, up to MAX_READ_ATTEMPTS times; under a continuous stream of
+ * updates it then returns the last consistent copy taken instead, so a reader
+ * never spins indefinitely and never blocks a writer.
+ */
+public class LiveScheduleStats implements AppointmentListener {
+
+    // Copies attempted by snapshot() before it settles for the last consistent one.
+    private static final int MAX_READ_ATTEMPTS = 64;
+
+    // --- Instance Variables ---
+
+    // Roster used to look up consultation lengths; only read when a doctor is first seen.
+    private final DoctorRegistry registry;
+    // Working minutes per doctor that free capacity is measured against.
+    private final int workingMinutes;
+    // Doctors seen so far; replaced, never modified, when a new doctor appears.
+    private volatile Directory directory;
+    // Live appointments in total.
+    private final LongAdder live;
+    // Appointments created, cancelled and completed since the statistics were attached.
+    private final LongAdder created;
+    private final LongAdder cancelled;
+    private final LongAdder completed;
+    // Live appointments per hour of the day they start.
+    private final LongAdder[] livePerHour;
+    // Cancellations per hour of the day of the cancelled appointment.
+    private final LongAdder[] cancelledPerHour;
+    // Updates begun and finished; equal whenever no update is in progress.
+    private final LongAdder updatesStarted;
+    private final LongAdder updatesCompleted;
+    // The most recent consistent copy, returned when no update-free copy can be taken.
+    private volatile Snapshot lastSnapshot;
+
+    // --- Constructors ---
+
+    /**
+     * Parameterized constructor.
+     * @param registry The roster of the store these statistics will listen to.
+     * @param workingMinutes The working minutes per doctor that free capacity is measured against.
+     * @throws IllegalArgumentException if workingMinutes is not positive.
+     */
+    public LiveScheduleStats(DoctorRegistry registry, int workingMinutes) {
+        if (workingMinutes <= 0) {
+            throw new IllegalArgumentException("Invalid working minutes: " + workingMinutes);
+        }
+        this.registry = registry;
+        this.workingMinutes = workingMinutes;
+        this.directory = new Directory(new DoctorCounters[0]);
+        this.live = new LongAdder();
+        this.created = new LongAdder();
+        this.cancelled = new LongAdder();
+        this.completed = new LongAdder();
+        this.livePerHour = newAdders(ScheduleReport.HOURS_PER_DAY);
+        this.cancelledPerHour = newAdders(ScheduleReport.HOURS_PER_DAY);
+        this.updatesStarted = new LongAdder();
+        this.updatesCompleted = new LongAdder();
+        this.lastSnapshot = new Snapshot(directory.counters, new long[0], workingMinutes, 0, 0, 0, 0,
+                new long[ScheduleReport.HOURS_PER_DAY], new long[ScheduleReport.HOURS_PER_DAY]);
+    }
+
+    // --- Methods ---
+
+    /**
+     * Counts a new appointment.
+     * @param appointment The new appointment.
+     */
+    @Override
+    public void appointmentCreated(Appointment appointment) {
+        updatesStarted.increment();
+        live.increment();
+        created.increment();
+        int hour = hourOf(appointment);
+        if (hour >= 0) {
+            livePerHour[hour].increment();
+        }
+        DoctorCounters doctor = countersOf(appointment.getDoctor());
+        if (doctor != null) {
+            doctor.live.increment();
+        }
+        updatesCompleted.increment();
+    }
+
+    /**
+     * Counts a cancelled appointment.
+     * @param appointment The cancelled appointment.
+     */
+    @Override
+    public void appointmentCancelled(Appointment appointment) {
+        updatesStarted.increment();
+        cancelled.increment();
+        int hour = removeLive(appointment);
+        if (hour >= 0) {
+            cancelledPerHour[hour].increment();
+        }
+        updatesCompleted.increment();
+    }
+
+    /**
+     * Counts an appointment that has taken place and left the store.
+     * @param appointment The completed appointment.
+     */
+    @Override
+    public void appointmentCompleted(Appointment appointment) {
+        updatesStarted.increment();
+        completed.increment();
+        removeLive(appointment);
+        updatesCompleted.increment();
+    }
+
+    /**
+     * Takes a consistent copy of every counter. Never blocks the threads updating the
+     * statistics; retries while an update overlaps the copy, a bounded number of times.
+     * @return The snapshot, or the last consistent one if updates kept overlapping every copy.
+     */
+    public Snapshot snapshot() {
+        for (int attempt = 0; attempt < MAX_READ_ATTEMPTS; attempt++) {
+            long finished = updatesCompleted.sum();
+            Directory doctors = directory;
+            long[] doctorLive = new long[doctors.counters.length];
+            for (int i = 0; i < doctorLive.length; i++) {
+                doctorLive[i] = doctors.counters[i].live.sum();
+            }
+            Snapshot snapshot = new Snapshot(doctors.counters, doctorLive, workingMinutes,
+                    live.sum(), created.sum(), cancelled.sum(), completed.sum(),
+                    sums(livePerHour), sums(cancelledPerHour));
+            if (updatesStarted.sum() == finished) {
+                lastSnapshot = snapshot;
+                return snapshot;
+            }
+            Thread.onSpinWait();
+        }
+        return lastSnapshot;
+    }
+
+    // --- Helper Methods ---
+
+    /**
+     * Takes an appointment off the live counters and returns its hour, or -1.
+     */
+    private int removeLive(Appointment appointment) {
+        live.decrement();
+        int hour = hourOf(appointment);
+        if (hour >= 0) {
+            livePerHour[hour].decrement();
+        }
+        DoctorCounters doctor = countersOf(appointment.getDoctor());
+        if (doctor != null) {
+            doctor.live.decrement();
+        }
+        return hour;
+    }
+
+    /**
+     * Returns the counters of a doctor, adding the doctor on first sight.
+     */
+    private DoctorCounters countersOf(HealthProfessional doctor) {
+        if (doctor == null) {
+            return null;
+        }
+        DoctorCounters counters = directory.byId.get(doctor.getId());
+        return counters != null ? counters : addDoctor(doctor);
+    }
+
+    /**
+     * Publishes a new directory that also contains the given doctor.
+     */
+    private synchronized DoctorCounters addDoctor(HealthProfessional doctor) {
+        Directory current = directory;
+        DoctorCounters existing = current.byId.get(doctor.getId());
+        if (existing != null) {
+            return existing;
+        }
+        SlotCalendar calendar = registry.calendarOf(doctor.getId());
+        int consultationMinutes = calendar != null
+                ? calendar.getConsultationMinutes() : SlotCalendar.DEFAULT_CONSULTATION_MINUTES;
+        DoctorCounters counters = new DoctorCounters(doctor, workingMinutes / consultationMinutes);
+        DoctorCounters[] all = Arrays.copyOf(current.counters, current.counters.length + 1);
+        all[all.length - 1] = counters;
+        directory = new Directory(all);
+        return counters;
+    }
+
+    /**
+     * Returns the hour of the day an appointment starts, or -1 if its time cannot be parsed.
+     */
+    private static int hourOf(Appointment appointment) {
+        int minute = SlotCalendar.parseTime(appointment.getTimeSlot());
+        return minute < 0 ? -1 : minute / 60;
+    }
+
+    private static LongAdder[] newAdders(int count) {
+        LongAdder[] adders = new LongAdder[count];
+        for (int i = 0; i < count; i++) {
+            adders[i] = new LongAdder();
+        }
+        return adders;
+    }
+
+    private static long[] sums(LongAdder[] adders) {
+        long[] values = new long[adders.length];
+        for (int i = 0; i < adders.length; i++) {
+            values[i] = adders[i].sum();
+        }
+        return values;
+    }
+
+    // --- Nested Types ---
+
+    /**
+     * Counters of one doctor.
+     */
+    private static final class DoctorCounters {
+        private final HealthProfessional doctor;
+        // Consultations that fit in the working day.
+        private final long capacity;
+        private final LongAdder live = new LongAdder();
+
+        private DoctorCounters(HealthProfessional doctor, long capacity) {
+            this.doctor = doctor;
+            this.capacity = capacity;
+        }
+    }
+
+    /**
+     * Immutable lookup from doctor ID to counters, in order of first appearance.
+     */
+    private static final class Directory {
+        private final DoctorCounters[] counters;
+        private final IntObjectMap<DoctorCounters> byId;
+
+        private Directory(DoctorCounters[] counters) {
+            this.counters = counters;
+            this.byId = new IntObjectMap<>(counters.length);
+            for (DoctorCounters doctor : counters) {
+                byId.put(doctor.doctor.getId(), doctor);
+            }
+        }
+    }
+
+    /**
+     * A consistent, immutable copy of the statistics.
+     * Doctors without any booking since the statistics were attached are not listed.
+     */
+    public static final class Snapshot {
+        private final DoctorCounters[] doctors;
+        private final long[] doctorLive;
+        private final int workingMinutes;
+        private final long live;
+        private final long created;
+        private final long cancelled;
+        private final long completed;
+        private final long[] livePerHour;
+        private final long[] cancelledPerHour;
+
+        private Snapshot(DoctorCounters[] doctors, long[] doctorLive, int workingMinutes, long live,
+                         long created, long cancelled, long completed, long[] livePerHour,
+                         long[] cancelledPerHour) {
+            this.doctors = doctors;
+            this.doctorLive = doctorLive;
+            this.workingMinutes = workingMinutes;
+            this.live = live;
+            this.created = created;
+            this.cancelled = cancelled;
+            this.completed = completed;
+            this.livePerHour = livePerHour;
+            this.cancelledPerHour = cancelledPerHour;
+        }
+
+        /**
+         * Getter for the number of doctors listed.
+         * @return The doctor count; valid indexes are 0 to getDoctorCount() - 1.
+         */
+        public int getDoctorCount() {
+            return doctors.length;
+        }
+
+        /**
+         * Getter for a listed doctor.
+         * @param index The doctor's position, in order of first booking.
+         * @return The doctor.
+         */
+        public HealthProfessional getDoctor(int index) {
+            return doctors[index].doctor;
+        }
+
+        /**
+         * Getter for a doctor's live appointments.
+         * @param index The doctor's position.
+         * @return The number of live appointments.
+         */
+        public long getLiveAppointments(int index) {
+            return doctorLive[index];
+        }
+
+        /**
+         * Getter for a doctor's free capacity.
+         * @param index The doctor's position.
+         * @return Consultations that still fit in the working day, never negative.
+         */
+        public long getFreeCapacity(int index) {
+            return Math.max(0, doctors[index].capacity - doctorLive[index]);
+        }
+
+        /**
+         * Getter for the working minutes free capacity is measured against.
+         * @return The working minutes per doctor.
+         */
+        public int getWorkingMinutes() {
+            return workingMinutes;
+        }
+
+        /**
+         * Getter for the live appointments in total.
+         * @return The number of live appointments.
+         */
+        public long getLiveAppointments() {
+            return live;
+        }
+
+        /**
+         * Getter for the appointments created since the statistics were attached.
+         * @return The creation count.
+         */
+        public long getCreated() {
+            return created;
+        }
+
+        /**
+         * Getter for the appointments cancelled since the statistics were attached.
+         * @return The cancellation count.
+         */
+        public long getCancelled() {
+            return cancelled;
+        }
+
+        /**
+         * Getter for the appointments completed since the statistics were attached.
+         * @return The completion count.
+         */
+        public long getCompleted() {
+            return completed;
+        }
+
+        /**
+         * Getter for the live appointments starting in one hour of the day.
+         * @param hour The hour (0 to 23).
+         * @return The number of live appointments.
+         */
+        public long getLiveInHour(int hour) {
+            return livePerHour[hour];
+        }
+
+        /**
+         * Getter for the cancelled appointments that were to start in one hour of the day.
+         * @param hour The hour (0 to 23).
+         * @return The number of cancellations.
+         */
+        public long getCancelledInHour(int hour) {
+            return cancelledPerHour[hour];
+        }
+    }
+}
@@ -0,0 +1,152 @@
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+
+/**
+ * Deduplicates patients and tracks their appointments.
+ * Patients are keyed by their normalised mobile number, and intern() hands out
+ * one shared, immutable Patient per (name, mobile) pair, so a patient with many
+ * visits is stored once. Attached to an AppointmentStore as a listener, the
+ * registry also keeps each patient's live appointments, answering
+ * "all appointments for this patient" without scanning the schedule.
+ */
+public class PatientRegistry implements AppointmentListener {
+
+    // --- Instance Variables ---
+
+    // Normalised mobile -> the patients and live appointments using that number.
+    private final HashMap<String, PatientRecord> byMobile;
+
+    // --- Constructors ---
+
+    /**
+     * Default constructor. Creates an empty registry.
+     */
+    public PatientRegistry() {
+        this.byMobile = new HashMap<>();
+    }
+
+    // --- Methods ---
+
+    /**
+     * Normalises a mobile number by removing spaces, dashes, dots and brackets.
+     * A leading '+' is kept. "0412 345-678" and "0412345678" normalise to the same key.
+     * @param mobile The mobile number as entered.
+     * @return The normalised number, or null if the input is null.
+     */
+    public static String normaliseMobile(String mobile) {
+        if (mobile == null) {
+            return null;
+        }
+        StringBuilder normalised = null;
+        for (int i = 0; i < mobile.length(); i++) {
+            char c = mobile.charAt(i);
+            boolean separator = Character.isWhitespace(c) || c == '-' || c == '.' || c == '(' || c == ')';
+            if (separator && normalised == null) {
+                // First separator found: copy the part before it and start filtering.
+                normalised = new StringBuilder(mobile.length()).append(mobile, 0, i);
+            } else if (!separator && normalised != null) {
+                normalised.append(c);
+            }
+        }
+        return normalised == null ? mobile : normalised.toString();
+    }
+
+    /**
+     * Returns the shared Patient for a name and mobile number, creating it on first use.
+     * @param name The patient's name.
+     * @param mobile The patient's mobile number.
+     * @return The interned Patient.
+     */
+    public Patient intern(String name, String mobile) {
+        PatientRecord record = byMobile.computeIfAbsent(normaliseMobile(mobile), k -> new PatientRecord());
+        for (Patient patient : record.patients) {
+            if (patient.getName().equals(name)) {
+                return patient;
+            }
+        }
+        Patient patient = new Patient(name, mobile);
+        record.patients.add(patient);
+        return patient;
+    }
+
+    /**
+     * Returns the patients registered under a mobile number.
+     * Usually one; several when family members share a number.
+     * @param mobile The mobile number, in any supported format.
+     * @return A read-only list of patients (empty if none).
+     */
+    public List<Patient> findByMobile(String mobile) {
+        PatientRecord record = byMobile.get(normaliseMobile(mobile));
+        if (record == null) {
+            return Collections.emptyList();
+        }
+        return Collections.unmodifiableList(record.patients);
+    }
+
+    /**
+     * Returns the live appointments booked under a mobile number, in booking order.
+     * @param mobile The mobile number, in any supported format.
+     * @return A read-only list of appointments (empty if none).
+     */
+    public List<Appointment> appointmentsOf(String mobile) {
+        PatientRecord record = byMobile.get(normaliseMobile(mobile));
+        if (record == null) {
+            return Collections.emptyList();
+        }
+        return Collections.unmodifiableList(new ArrayList<>(record.appointments));
+    }
+
+    /**
+     * Getter for the number of distinct mobile numbers.
+     * @return The number of registered mobile numbers.
+     */
+    public int size() {
+        return byMobile.size();
+    }
+
+    /**
+     * Records a new appointment under its patient's mobile number.
+     * @param appointment The new appointment.
+     */
+    @Override
+    public void appointmentCreated(Appointment appointment) {
+        byMobile.computeIfAbsent(normaliseMobile(appointment.getPatientMobile()), k -> new PatientRecord())
+                .appointments.addLast(appointment);
+    }
+
+    /**
+     * Removes a cancelled appointment from its patient's list.
+     * @param appointment The cancelled appointment.
+     */
+    @Override
+    public void appointmentCancelled(Appointment appointment) {
+        PatientRecord record = byMobile.get(normaliseMobile(appointment.getPatientMobile()));
+        if (record != null) {
+            record.appointments.remove(appointment);
+        }
+    }
+
+    /**
+     * Removes a completed appointment from its patient's list.
+     * @param appointment The completed appointment.
+     */
+    @Override
+    public void appointmentCompleted(Appointment appointment) {
+        appointmentCancelled(appointment);
+    }
+
+    // --- Nested Types ---
+
+    /**
+     * The patients and live appointments sharing one normalised mobile number.
+     */
+    private static final class PatientRecord {
+        // Interned patients, one per distinct name.
+        private final ArrayList<Patient> patients = new ArrayList<>(1);
+        // Live appointments in booking order.
+        private final ArrayDeque<Appointment> appointments = new ArrayDeque<>(2);
+    }
+}
@@ -0,0 +1,146 @@
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+
+/**
+ * Keeps registered professionals pre-partitioned by their concrete class.
+ * Partitions are maintained when a professional is registered, so a roster
+ * report walks each partition once without any instanceof checks, and a new
+ * HealthProfessional subclass gets its own partition automatically.
+ * Sections are reported in the order they were first defined or used.
+ */
+public class ProfessionalCatalogue {
+
+    // --- Instance Variables ---
+
+    // Concrete professional class -> its section, in definition order.
+    private final LinkedHashMap<Class<? extends HealthProfessional>, Section> sections;
+
+    // --- Constructors ---
+
+    /**
+     * Default constructor. Creates an empty catalogue.
+     */
+    public ProfessionalCatalogue() {
+        this.sections = new LinkedHashMap<>();
+    }
+
+    // --- Methods ---
+
+    /**
+     * Declares the report title and column header of a professional type.
+     * Calling this before any registration also fixes the section's position in reports.
+     * @param type The concrete HealthProfessional subclass.
+     * @param title The section title, e.g. "General Practitioners".
+     * @param header The column header row, including its line separator.
+     */
+    public void defineSection(Class<? extends HealthProfessional> type, String title, String header) {
+        Section section = sectionFor(type);
+        section.title = title;
+        section.header = header;
+    }
+
+    /**
+     * Adds a professional to the section of its concrete class.
+     * @param doctor The professional to add.
+     */
+    public void add(HealthProfessional doctor) {
+        sectionFor(doctor.getClass()).members.add(doctor);
+    }
+
+    /**
+     * Removes every professional, keeping the sections, their labels and their order.
+     */
+    public void clearMembers() {
+        for (Section section : sections.values()) {
+            section.members.clear();
+        }
+    }
+
+    /**
+     * Returns every section in report order, including sections that are still empty.
+     * @return A read-only view of the sections.
+     */
+    public Collection<Section> getSections() {
+        return Collections.unmodifiableCollection(sections.values());
+    }
+
+    /**
+     * Returns the professionals of one concrete type.
+     * @param type The concrete HealthProfessional subclass.
+     * @return A read-only list of the professionals (empty if none).
+     */
+    public List<HealthProfessional> getMembers(Class<? extends HealthProfessional> type) {
+        Section section = sections.get(type);
+        if (section == null) {
+            return Collections.emptyList();
+        }
+        return section.getMembers();
+    }
+
+    // --- Helper Methods ---
+
+    /**
+     * Returns the section of a type, creating it with default labels on first use.
+     */
+    private Section sectionFor(Class<? extends HealthProfessional> type) {
+        return sections.computeIfAbsent(type, Section::new);
+    }
+
+    // --- Nested Types ---
+
+    /**
+     * One partition of the catalogue: a professional type, its labels and its members.
+     */
+    public static final class Section {
+        // The concrete class of every member.
+        private final Class<? extends HealthProfessional> type;
+        // The section title shown in reports.
+        private String title;
+        // The column header row, or null if none was defined.
+        private String header;
+        // Members in registration order.
+        private final ArrayList<HealthProfessional> members;
+
+        private Section(Class<? extends HealthProfessional> type) {
+            this.type = type;
+            this.title = type.getSimpleName();
+            this.header = null;
+            this.members = new ArrayList<>();
+        }
+
+        /**
+         * Getter for the professional type.
+         * @return The concrete class of every member.
+         */
+        public Class<? extends HealthProfessional> getType() {
+            return type;
+        }
+
+        /**
+         * Getter for the section title.
+         * @return The title, defaulting to the class name.
+         */
+        public String getTitle() {
+            return title;
+        }
+
+        /**
+         * Getter for the column header row.
+         * @return The header including its line separator, or null if none was defined.
+         */
+        public String getHeader() {
+            return header;
+        }
+
+        /**
+         * Getter for the members of the section.
+         * @return A read-only list of professionals in registration order.
+         */
+        public List<HealthProfessional> getMembers() {
+            return Collections.unmodifiableList(members);
+        }
+    }
+}
@@ -0,0 +1,15 @@
+/**
+ * Delivers appointment reminders to patients, e.g. by SMS or e-mail.
+ * Called by the AppointmentScheduler on the thread advancing its clock,
+ * so implementations should hand slow deliveries off rather than block.
+ */
+@FunctionalInterface
+public interface ReminderNotifier {
+
+    /**
+     * Sends a reminder for an upcoming appointment.
+     * @param appointment The appointment; its patient mobile is the usual destination.
+     * @param minutesBefore Minutes left until the appointment starts.
+     */
+    void remind(Appointment appointment, int minutesBefore);
+}
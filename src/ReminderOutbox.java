@@ -0,0 +1,56 @@
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * In-process ReminderNotifier that keeps the rendered reminder messages instead
+ * of sending them, e.g. for demonstrations or for a sender that polls the outbox.
+ */
+public class ReminderOutbox implements ReminderNotifier {
+
+    // --- Instance Variables ---
+
+    // Messages not yet drained, in the order the reminders fired.
+    private final List<String> messages;
+
+    // --- Constructors ---
+
+    /**
+     * Default constructor. Creates an empty outbox.
+     */
+    public ReminderOutbox() {
+        this.messages = new ArrayList<>();
+    }
+
+    // --- Methods ---
+
+    /**
+     * Renders a reminder and queues it in the outbox.
+     * @param appointment The upcoming appointment.
+     * @param minutesBefore Minutes left until the appointment starts.
+     */
+    @Override
+    public synchronized void remind(Appointment appointment, int minutesBefore) {
+        HealthProfessional doctor = appointment.getDoctor();
+        messages.add("To " + appointment.getPatientMobile() + ": Reminder for " + appointment.getPatient().getName()
+                + ", your appointment" + (doctor != null ? " with " + doctor.getName() : "")
+                + " is at " + appointment.getTimeSlot() + " (in " + minutesBefore + " minutes).");
+    }
+
+    /**
+     * Removes and returns every queued message.
+     * @return The messages in the order the reminders fired.
+     */
+    public synchronized List<String> drain() {
+        List<String> drained = new ArrayList<>(messages);
+        messages.clear();
+        return drained;
+    }
+
+    /**
+     * Getter for the number of queued messages.
+     * @return The message count.
+     */
+    public synchronized int size() {
+        return messages.size();
+    }
+}
@@ -0,0 +1,141 @@
+import java.util.HashMap;
+
+/**
+ * Cache of rendered report rows.
+ * Professionals and appointments are immutable, so a row rendered once can be
+ * appended to later reports as a single string copy instead of being formatted
+ * again. Professional rows are keyed by doctor ID and kept for every professional,
+ * like the roster itself. Appointment rows are keyed by the appointment object and
+ * bounded by 'capacity'.
+ *
+ * Reports walk every appointment in turn. Under such a scan a recency-based policy
+ * evicts each row just before it is needed again, so once the schedule outgrows the
+ * capacity an LRU cache never hits. Instead, a full cache admits no new rows: rows of
+ * appointments beyond the capacity are rendered for the report but not kept, and
+ * every later report still hits on the rows already cached. Attached to an
+ * AppointmentStore as a listener, the cache drops the row of every cancelled or
+ * completed appointment, which makes room for newer ones. Not thread-safe.
+ */
+public class RenderedRowCache implements AppointmentListener {
+
+    // --- Instance Variables ---
+
+    // Doctor ID -> rendered professional row.
+    private final HashMap<Integer, String> professionalRows;
+    // Appointment -> rendered appointment details.
+    private final HashMap<Appointment, String> appointmentRows;
+    // Maximum number of appointment rows kept.
+    private final int capacity;
+
+    // --- Constructors ---
+
+    /**
+     * Parameterized constructor.
+     * @param capacity The maximum number of appointment rows kept.
+     * @throws IllegalArgumentException if capacity is not positive.
+     */
+    public RenderedRowCache(int capacity) {
+        if (capacity <= 0) {
+            throw new IllegalArgumentException("Invalid cache capacity: " + capacity);
+        }
+        this.professionalRows = new HashMap<>();
+        this.appointmentRows = new HashMap<>(Math.min(capacity, 1024) * 4 / 3 + 1);
+        this.capacity = capacity;
+    }
+
+    // --- Methods ---
+
+    /**
+     * Appends a professional's report row, rendering it only if it is not cached.
+     * @param out The buffer to append to.
+     * @param doctor The professional.
+     * @return The same buffer, for chaining.
+     */
+    public StringBuilder appendProfessional(StringBuilder out, HealthProfessional doctor) {
+        String row = professionalRows.get(doctor.getId());
+        if (row == null) {
+            row = doctor.appendProfessionalDetails(new StringBuilder(96)).toString();
+            professionalRows.put(doctor.getId(), row);
+        }
+        return out.append(row);
+    }
+
+    /**
+     * Appends an appointment's details, rendering them only if they are not cached.
+     * The rendered row is kept only while the cache has room.
+     * @param out The buffer to append to.
+     * @param appointment The appointment.
+     * @return The same buffer, for chaining.
+     */
+    public StringBuilder appendAppointment(StringBuilder out, Appointment appointment) {
+        String row = appointmentRows.get(appointment);
+        if (row != null) {
+            return out.append(row);
+        }
+        if (appointmentRows.size() >= capacity) {
+            // Full: render straight into the report rather than evict a row the next scan needs.
+            return appointment.appendAppointmentDetails(out);
+        }
+        row = appointment.appendAppointmentDetails(new StringBuilder(256)).toString();
+        appointmentRows.put(appointment, row);
+        return out.append(row);
+    }
+
+    /**
+     * Drops the cached row of a professional, e.g. after the professional's details changed.
+     * @param doctorId The ID of the professional.
+     */
+    public void invalidateProfessional(int doctorId) {
+        professionalRows.remove(doctorId);
+    }
+
+    /**
+     * Drops the cached row of an appointment.
+     * @param appointment The appointment.
+     */
+    public void invalidateAppointment(Appointment appointment) {
+        appointmentRows.remove(appointment);
+    }
+
+    /**
+     * Drops every cached row.
+     */
+    public void clear() {
+        professionalRows.clear();
+        appointmentRows.clear();
+    }
+
+    /**
+     * Getter for the number of cached rows.
+     * @return Professional and appointment rows together.
+     */
+    public int size() {
+        return professionalRows.size() + appointmentRows.size();
+    }
+
+    /**
+     * New appointments are rendered when first shown, so nothing is done here.
+     * @param appointment The new appointment.
+     */
+    @Override
+    public void appointmentCreated(Appointment appointment) {
+    }
+
+    /**
+     * Drops the row of a cancelled appointment.
+     * @param appointment The cancelled appointment.
+     */
+    @Override
+    public void appointmentCancelled(Appointment appointment) {
+        invalidateAppointment(appointment);
+    }
+
+    /**
+     * Drops the cached row of a completed appointment.
+     * @param appointment The completed appointment.
+     */
+    @Override
+    public void appointmentCompleted(Appointment appointment) {
+        invalidateAppointment(appointment);
+    }
+}
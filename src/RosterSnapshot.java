@@ -0,0 +1,536 @@
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+
+/**
+ * Read-only, memory-mapped columnar snapshot of the doctor roster and the appointment schedule.
+ * Every field is stored as a fixed-width column, so the base fields of a professional
+ * (id, age, maxConsultationTime, bulkBilling, hasCathLabAccess) are read straight from
+ * the mapped file without creating any objects. Text fields are stored once in a shared
+ * string table and referenced by index. HealthProfessional objects are only built,
+ * and then cached, when professional() or appointment() is called.
+ *
+ * Professionals are stored through their SpecialtyDescriptor: the specialty code, the
+ * search attributes its traits declare, and the value of every specialty column, which
+ * the descriptor's factory turns back into a professional. Any registered specialty
+ * can therefore be stored without changes to this class.
+ *
+ * File layout (all values big-endian):
+ *   header:        int magic, int version, int professionalCount, int appointmentCount, int stringCount,
+ *                  int detailCount (the most specialty columns of any professional)
+ *   professionals: int id[], int age[], int specialtyCode[], int maxConsultationTime[], byte bulkBilling[],
+ *                  byte hasCathLabAccess[], int name[], int profession[], int subspecialty[],
+ *                  int detail[detailCount][] (column values as text), int idIndex[] (row numbers sorted by id)
+ *   appointments:  int doctorId[], int timeSlot[], int patientName[], int patientMobile[]
+ *   strings:       int offset[stringCount + 1], UTF-8 bytes
+ */
+public class RosterSnapshot {
+
+    // File signature ("RSNP").
+    private static final int MAGIC = 0x52534E50;
+    // Format version written by this class.
+    private static final int VERSION = 2;
+    // Size of the fixed header in bytes.
+    private static final int HEADER_SIZE = 6 * 4;
+    // String reference meaning "no value".
+    private static final int NO_STRING = -1;
+
+    // --- Instance Variables ---
+
+    // The mapped file.
+    private final ByteBuffer data;
+    // Number of professionals and appointments in the snapshot.
+    private final int professionalCount;
+    private final int appointmentCount;
+    // Number of specialty detail columns.
+    private final int detailCount;
+    // Start offset of every column.
+    private final int idColumn;
+    private final int ageColumn;
+    private final int specialtyColumn;
+    private final int maxConsultationColumn;
+    private final int bulkBillingColumn;
+    private final int cathLabColumn;
+    private final int nameColumn;
+    private final int professionColumn;
+    private final int subspecialtyColumn;
+    private final int detailColumn;
+    private final int idIndexColumn;
+    private final int doctorIdColumn;
+    private final int timeSlotColumn;
+    private final int patientNameColumn;
+    private final int patientMobileColumn;
+    private final int stringOffsetColumn;
+    private final int stringBytes;
+    // Professionals materialised so far, by row.
+    private final HealthProfessional[] materialised;
+
+    // --- Constructors ---
+
+    /**
+     * Private constructor. Use open() instead.
+     */
+    private RosterSnapshot(ByteBuffer data) throws IOException {
+        if (data.capacity() < HEADER_SIZE || data.getInt(0) != MAGIC || data.getInt(4) != VERSION) {
+            throw new IOException("Not a roster snapshot (version " + VERSION + ")");
+        }
+        this.data = data;
+        this.professionalCount = data.getInt(8);
+        this.appointmentCount = data.getInt(12);
+        int stringCount = data.getInt(16);
+        this.detailCount = data.getInt(20);
+
+        int n = professionalCount;
+        int m = appointmentCount;
+        this.idColumn = HEADER_SIZE;
+        this.ageColumn = idColumn + 4 * n;
+        this.specialtyColumn = ageColumn + 4 * n;
+        this.maxConsultationColumn = specialtyColumn + 4 * n;
+        this.bulkBillingColumn = maxConsultationColumn + 4 * n;
+        this.cathLabColumn = bulkBillingColumn + n;
+        this.nameColumn = cathLabColumn + n;
+        this.professionColumn = nameColumn + 4 * n;
+        this.subspecialtyColumn = professionColumn + 4 * n;
+        this.detailColumn = subspecialtyColumn + 4 * n;
+        this.idIndexColumn = detailColumn + 4 * n * detailCount;
+        this.doctorIdColumn = idIndexColumn + 4 * n;
+        this.timeSlotColumn = doctorIdColumn + 4 * m;
+        this.patientNameColumn = timeSlotColumn + 4 * m;
+        this.patientMobileColumn = patientNameColumn + 4 * m;
+        this.stringOffsetColumn = patientMobileColumn + 4 * m;
+        this.stringBytes = stringOffsetColumn + 4 * (stringCount + 1);
+        if (stringBytes > data.capacity()) {
+            throw new IOException("Truncated roster snapshot");
+        }
+        this.materialised = new HealthProfessional[n];
+    }
+
+    /**
+     * Maps an existing snapshot file.
+     * @param file The snapshot file.
+     * @return A read-only view of the snapshot.
+     * @throws IOException if the file cannot be mapped or is not a snapshot.
+     */
+    public static RosterSnapshot open(Path file) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            MappedByteBuffer data = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+            return new RosterSnapshot(data);
+        }
+    }
+
+    // --- Writing ---
+
+    /**
+     * Writes a snapshot of a roster and schedule, replacing the file atomically.
+     * @param file The snapshot file.
+     * @param doctors The professionals, in registration order. Their specialties must be
+     *                registered in the SpecialtyRegistry, so that they can be rebuilt.
+     * @param appointments The appointments, in booking order.
+     * @throws IOException if the file cannot be written.
+     * @throws IllegalArgumentException if a professional's specialty is not registered.
+     */
+    public static void write(Path file, List<HealthProfessional> doctors, Iterable<Appointment> appointments)
+            throws IOException {
+        List<Appointment> schedule = new ArrayList<>();
+        for (Appointment appointment : appointments) {
+            schedule.add(appointment);
+        }
+        int n = doctors.size();
+        int m = schedule.size();
+        StringTable strings = new StringTable();
+        List<SpecialtyDescriptor<?>> specialties = new ArrayList<>(n);
+        int detailCount = 0;
+        for (HealthProfessional doctor : doctors) {
+            SpecialtyDescriptor<?> specialty = specialtyOf(doctor);
+            specialties.add(specialty);
+            detailCount = Math.max(detailCount, specialty.getColumns().size());
+        }
+
+        // Encode the columns in memory first, interning every text field.
+        ByteBuffer columns = ByteBuffer.allocate((4 + 4 + 4 + 4 + 1 + 1 + 4 + 4 + 4 + 4 * detailCount + 4) * n
+                + 16 * m);
+        for (HealthProfessional doctor : doctors) {
+            columns.putInt(doctor.getId());
+        }
+        for (HealthProfessional doctor : doctors) {
+            columns.putInt(doctor.getAge());
+        }
+        for (SpecialtyDescriptor<?> specialty : specialties) {
+            columns.putInt(strings.intern(specialty.getCode()));
+        }
+        for (int row = 0; row < n; row++) {
+            columns.putInt(specialties.get(row).getMaxConsultationTime(doctors.get(row)));
+        }
+        for (int row = 0; row < n; row++) {
+            columns.put((byte) (specialties.get(row).isBulkBilling(doctors.get(row)) ? 1 : 0));
+        }
+        for (int row = 0; row < n; row++) {
+            columns.put((byte) (specialties.get(row).hasCathLabAccess(doctors.get(row)) ? 1 : 0));
+        }
+        for (HealthProfessional doctor : doctors) {
+            columns.putInt(strings.intern(doctor.getName()));
+        }
+        for (HealthProfessional doctor : doctors) {
+            columns.putInt(strings.intern(doctor.getProfession()));
+        }
+        for (int row = 0; row < n; row++) {
+            columns.putInt(strings.intern(specialties.get(row).getSubspecialty(doctors.get(row))));
+        }
+        for (int detail = 0; detail < detailCount; detail++) {
+            for (int row = 0; row < n; row++) {
+                SpecialtyDescriptor<?> specialty = specialties.get(row);
+                Object value = detail < specialty.getColumns().size()
+                        ? specialty.getDetail(doctors.get(row), detail) : null;
+                columns.putInt(strings.intern(value == null ? null : String.valueOf(value)));
+            }
+        }
+        for (int row : sortedById(doctors)) {
+            columns.putInt(row);
+        }
+        for (Appointment appointment : schedule) {
+            columns.putInt(appointment.getDoctor() != null ? appointment.getDoctor().getId() : 0);
+        }
+        for (Appointment appointment : schedule) {
+            columns.putInt(strings.intern(appointment.getTimeSlot()));
+        }
+        for (Appointment appointment : schedule) {
+            columns.putInt(strings.intern(appointment.getPatient().getName()));
+        }
+        for (Appointment appointment : schedule) {
+            columns.putInt(strings.intern(appointment.getPatientMobile()));
+        }
+
+        ByteBuffer header = ByteBuffer.allocate(HEADER_SIZE);
+        header.putInt(MAGIC).putInt(VERSION).putInt(n).putInt(m).putInt(strings.size()).putInt(detailCount);
+        header.flip();
+        columns.flip();
+        ByteBuffer table = strings.encode();
+
+        Path temporary = file.resolveSibling(file.getFileName() + ".tmp");
+        try (FileChannel out = FileChannel.open(temporary, StandardOpenOption.CREATE,
+                StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+            ByteBuffer[] parts = {header, columns, table};
+            while (header.hasRemaining() || columns.hasRemaining() || table.hasRemaining()) {
+                out.write(parts);
+            }
+            out.force(true);
+        }
+        Files.move(temporary, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    // --- Professional Columns ---
+
+    /**
+     * Getter for the number of professionals.
+     * @return The roster size.
+     */
+    public int professionalCount() {
+        return professionalCount;
+    }
+
+    /**
+     * Reads the ID of a professional.
+     * @param row The professional's row, from 0 to professionalCount() - 1.
+     * @return The ID.
+     */
+    public int getId(int row) {
+        return data.getInt(idColumn + 4 * row);
+    }
+
+    /**
+     * Reads the age of a professional.
+     * @param row The professional's row.
+     * @return The age.
+     */
+    public int getAge(int row) {
+        return data.getInt(ageColumn + 4 * row);
+    }
+
+    /**
+     * Reads the specialty code of a professional.
+     * @param row The professional's row.
+     * @return The code, e.g. "GP", as found in the SpecialtyRegistry.
+     */
+    public String getSpecialtyCode(int row) {
+        return string(data.getInt(specialtyColumn + 4 * row));
+    }
+
+    /**
+     * Reads the maximum consultation time of a professional.
+     * @param row The professional's row.
+     * @return The time in minutes, or 0 if the professional's specialty declares none.
+     */
+    public int getMaxConsultationTime(int row) {
+        return data.getInt(maxConsultationColumn + 4 * row);
+    }
+
+    /**
+     * Reads the bulk billing flag of a professional.
+     * @param row The professional's row.
+     * @return True for a bulk-billing professional.
+     */
+    public boolean isBulkBilling(int row) {
+        return data.get(bulkBillingColumn + row) != 0;
+    }
+
+    /**
+     * Reads the Cath Lab access flag of a professional.
+     * @param row The professional's row.
+     * @return True for a professional with Cath Lab access.
+     */
+    public boolean hasCathLabAccess(int row) {
+        return data.get(cathLabColumn + row) != 0;
+    }
+
+    /**
+     * Reads the subspecialty of a professional.
+     * @param row The professional's row.
+     * @return The subspecialty, or null if the professional has none.
+     */
+    public String getSubspecialty(int row) {
+        return string(data.getInt(subspecialtyColumn + 4 * row));
+    }
+
+    /**
+     * Finds the row of a professional by ID using the sorted ID index.
+     * @param doctorId The ID to look up.
+     * @return The row, or -1 if no professional has this ID.
+     */
+    public int rowOf(int doctorId) {
+        int low = 0;
+        int high = professionalCount - 1;
+        while (low <= high) {
+            int middle = (low + high) >>> 1;
+            int row = data.getInt(idIndexColumn + 4 * middle);
+            int id = getId(row);
+            if (id < doctorId) {
+                low = middle + 1;
+            } else if (id > doctorId) {
+                high = middle - 1;
+            } else {
+                return row;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * Returns the professional stored at a row, building it on first use with the
+     * factory of its specialty.
+     * @param row The professional's row.
+     * @return The professional object.
+     * @throws IllegalStateException if the professional's specialty is not registered.
+     */
+    public HealthProfessional professional(int row) {
+        HealthProfessional doctor = materialised[row];
+        if (doctor == null) {
+            int id = getId(row);
+            String code = getSpecialtyCode(row);
+            SpecialtyDescriptor<?> specialty = SpecialtyRegistry.findByCode(code);
+            if (specialty == null) {
+                throw new IllegalStateException("Professional " + id + " has unknown specialty " + code);
+            }
+            String name = string(data.getInt(nameColumn + 4 * row));
+            String profession = string(data.getInt(professionColumn + 4 * row));
+            doctor = specialty.create(id, name, getAge(row), profession, new StoredDetails(row));
+            materialised[row] = doctor;
+        }
+        return doctor;
+    }
+
+    // --- Appointment Columns ---
+
+    /**
+     * Getter for the number of appointments.
+     * @return The schedule size.
+     */
+    public int appointmentCount() {
+        return appointmentCount;
+    }
+
+    /**
+     * Reads the doctor ID of an appointment.
+     * @param row The appointment's row, from 0 to appointmentCount() - 1.
+     * @return The doctor ID.
+     */
+    public int getAppointmentDoctorId(int row) {
+        return data.getInt(doctorIdColumn + 4 * row);
+    }
+
+    /**
+     * Reads the time slot of an appointment.
+     * @param row The appointment's row.
+     * @return The time slot text.
+     */
+    public String getTimeSlot(int row) {
+        return string(data.getInt(timeSlotColumn + 4 * row));
+    }
+
+    /**
+     * Reads the patient name of an appointment.
+     * @param row The appointment's row.
+     * @return The patient's name.
+     */
+    public String getPatientName(int row) {
+        return string(data.getInt(patientNameColumn + 4 * row));
+    }
+
+    /**
+     * Reads the patient mobile number of an appointment.
+     * @param row The appointment's row.
+     * @return The mobile number.
+     */
+    public String getPatientMobile(int row) {
+        return string(data.getInt(patientMobileColumn + 4 * row));
+    }
+
+    /**
+     * Builds the Appointment stored at a row, materialising its doctor if needed.
+     * @param row The appointment's row.
+     * @return A new Appointment object.
+     */
+    public Appointment appointment(int row) {
+        int doctorRow = rowOf(getAppointmentDoctorId(row));
+        HealthProfessional doctor = doctorRow >= 0 ? professional(doctorRow) : null;
+        Patient patient = new Patient(getPatientName(row), getPatientMobile(row));
+        return new Appointment(patient, getTimeSlot(row), doctor);
+    }
+
+    // --- Helper Methods ---
+
+    /**
+     * Decodes an entry of the string table.
+     */
+    private String string(int index) {
+        if (index == NO_STRING) {
+            return null;
+        }
+        int start = data.getInt(stringOffsetColumn + 4 * index);
+        int end = data.getInt(stringOffsetColumn + 4 * (index + 1));
+        byte[] bytes = new byte[end - start];
+        data.duplicate().position(stringBytes + start).get(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Returns the specialty a professional is stored and rebuilt through.
+     */
+    private static SpecialtyDescriptor<?> specialtyOf(HealthProfessional doctor) {
+        SpecialtyDescriptor<?> specialty = doctor.getSpecialty();
+        if (specialty == null || SpecialtyRegistry.findByCode(specialty.getCode()) != specialty) {
+            throw new IllegalArgumentException("Cannot snapshot professional type " + doctor.getClass().getName()
+                    + ": its specialty is not registered");
+        }
+        return specialty;
+    }
+
+    /**
+     * Returns the rows of the professionals ordered by ID.
+     */
+    private static int[] sortedById(List<HealthProfessional> doctors) {
+        long[] keyed = new long[doctors.size()];
+        for (int row = 0; row < keyed.length; row++) {
+            keyed[row] = ((long) doctors.get(row).getId() << 32) | row;
+        }
+        Arrays.sort(keyed);
+        int[] rows = new int[keyed.length];
+        for (int i = 0; i < rows.length; i++) {
+            rows[i] = (int) keyed[i];
+        }
+        return rows;
+    }
+
+    // --- Nested Types ---
+
+    /**
+     * The stored specialty column values of one professional, read back by its specialty's factory.
+     * A value stored as null reads back as null.
+     */
+    private final class StoredDetails implements SpecialtyDescriptor.DetailFields {
+        private final int row;
+
+        private StoredDetails(int row) {
+            this.row = row;
+        }
+
+        @Override
+        public String getString(int index) {
+            if (index < 0 || index >= detailCount) {
+                return "";
+            }
+            return string(data.getInt(detailColumn + 4 * (index * professionalCount + row)));
+        }
+
+        @Override
+        public int getInt(int index) {
+            String text = getString(index);
+            try {
+                return Integer.parseInt(text);
+            } catch (NumberFormatException e) {
+                throw new IllegalArgumentException("Detail " + index + " of row " + row + " is not an integer");
+            }
+        }
+
+        @Override
+        public boolean getBoolean(int index) {
+            String text = getString(index);
+            if ("true".equals(text) || "false".equals(text)) {
+                return Boolean.parseBoolean(text);
+            }
+            throw new IllegalArgumentException("Detail " + index + " of row " + row + " is not a boolean");
+        }
+    }
+
+    /**
+     * Deduplicating string table built while writing a snapshot.
+     */
+    private static final class StringTable {
+        private final HashMap<String, Integer> indexes = new HashMap<>();
+        private final List<byte[]> encoded = new ArrayList<>();
+        private int totalBytes = 0;
+
+        private int intern(String text) {
+            if (text == null) {
+                return NO_STRING;
+            }
+            Integer index = indexes.get(text);
+            if (index == null) {
+                index = encoded.size();
+                byte[] bytes = text.getBytes(StandardCharsets.UTF_8);
+                encoded.add(bytes);
+                totalBytes += bytes.length;
+                indexes.put(text, index);
+            }
+            return index;
+        }
+
+        private int size() {
+            return encoded.size();
+        }
+
+        private ByteBuffer encode() {
+            ByteBuffer out = ByteBuffer.allocate(4 * (encoded.size() + 1) + totalBytes);
+            int offset = 0;
+            for (byte[] bytes : encoded) {
+                out.putInt(offset);
+                offset += bytes.length;
+            }
+            out.putInt(offset);
+            for (byte[] bytes : encoded) {
+                out.put(bytes);
+            }
+            out.flip();
+            return out;
+        }
+    }
+}
@@ -0,0 +1,85 @@
+import java.util.Arrays;
+
+/**
+ * Helpers for writing fixed-width report rows straight into a StringBuilder.
+ * Each helper produces exactly what the matching "%-Ns" / "%-Nd" format
+ * specifier would (left-justified, padded with spaces, never truncated), but
+ * without parsing a format string or allocating intermediate Strings.
+ */
+public final class RowRenderer {
+
+    // Line separator used by println and the "%n" specifier.
+    public static final String LINE_SEPARATOR = System.lineSeparator();
+
+    // Pre-filled spaces copied for padding; wide enough for every report column.
+    private static final char[] SPACES = new char[64];
+
+    static {
+        Arrays.fill(SPACES, ' ');
+    }
+
+    /**
+     * Private constructor. This class only has static methods.
+     */
+    private RowRenderer() {
+    }
+
+    /**
+     * Appends text left-justified in a column, like String.format("%-<width>s", text).
+     * @param out The buffer to write to.
+     * @param text The column text; null is written as "null".
+     * @param width The column width.
+     * @return The same buffer, for chaining.
+     */
+    public static StringBuilder column(StringBuilder out, String text, int width) {
+        int start = out.length();
+        out.append(text);
+        return pad(out, width - (out.length() - start));
+    }
+
+    /**
+     * Appends a number left-justified in a column, like String.format("%-<width>d", value).
+     * @param out The buffer to write to.
+     * @param value The column value.
+     * @param width The column width.
+     * @return The same buffer, for chaining.
+     */
+    public static StringBuilder column(StringBuilder out, int value, int width) {
+        int start = out.length();
+        out.append(value);
+        return pad(out, width - (out.length() - start));
+    }
+
+    /**
+     * Appends a Yes/No column for a boolean flag.
+     * @param out The buffer to write to.
+     * @param flag The flag value.
+     * @param width The column width.
+     * @return The same buffer, for chaining.
+     */
+    public static StringBuilder column(StringBuilder out, boolean flag, int width) {
+        return column(out, flag ? "Yes" : "No", width);
+    }
+
+    /**
+     * Appends a line of text followed by the line separator, like println.
+     * @param out The buffer to write to.
+     * @param text The line text.
+     * @return The same buffer, for chaining.
+     */
+    public static StringBuilder line(StringBuilder out, String text) {
+        return out.append(text).append(LINE_SEPARATOR);
+    }
+
+    /**
+     * Appends the given number of spaces.
+     */
+    private static StringBuilder pad(StringBuilder out, int count) {
+        while (count > 0) {
+            int chunk = Math.min(count, SPACES.length);
+            out.append(SPACES, 0, chunk);
+            count -= chunk;
+        }
+        return out;
+    }
+}
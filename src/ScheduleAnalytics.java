@@ -0,0 +1,196 @@
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+
+/**
+ * Computes the daily ScheduleReport with fork-join parallelism.
+ * The appointment array is split into about four ranges per worker thread; each
+ * range is counted into its own primitive long[] accumulators (bookings per doctor
+ * row and per hour) and the partial arrays are summed pairwise as the tasks join,
+ * so no boxed map or shared counter is touched per appointment. Doctors are
+ * resolved through a sorted array of their IDs, and everything derived from the
+ * per-doctor counts (minutes, specialty load) is computed once at the end.
+ */
+public final class ScheduleAnalytics {
+
+    // Default working day used for utilisation: eight hours.
+    public static final int DEFAULT_WORKING_MINUTES = 8 * 60;
+    // Smallest range worth handing to another thread.
+    private static final int MIN_SPLIT = 8192;
+
+    // --- Constructors ---
+
+    /**
+     * Private constructor. This class only has static methods.
+     */
+    private ScheduleAnalytics() {
+    }
+
+    // --- Methods ---
+
+    /**
+     * Computes the report on the common fork-join pool with the default working day.
+     * @param registry The roster.
+     * @param appointments The appointments to analyse.
+     * @return The report.
+     */
+    public static ScheduleReport analyse(DoctorRegistry registry, Appointment[] appointments) {
+        return analyse(registry, appointments, DEFAULT_WORKING_MINUTES, ForkJoinPool.commonPool());
+    }
+
+    /**
+     * Computes the report.
+     * @param registry The roster.
+     * @param appointments The appointments to analyse; not modified.
+     * @param workingMinutes The working minutes per doctor that utilisation is measured against.
+     * @param pool The pool to run on.
+     * @return The report.
+     * @throws IllegalArgumentException if workingMinutes is not positive.
+     */
+    public static ScheduleReport analyse(DoctorRegistry registry, Appointment[] appointments,
+                                         int workingMinutes, ForkJoinPool pool) {
+        if (workingMinutes <= 0) {
+            throw new IllegalArgumentException("Invalid working minutes: " + workingMinutes);
+        }
+        List<HealthProfessional> doctors = registry.getAll();
+        RowLookup lookup = new RowLookup(doctors);
+        int threshold = Math.max(MIN_SPLIT, appointments.length / (pool.getParallelism() * 4) + 1);
+        Partial totals = pool.invoke(new CountTask(appointments, 0, appointments.length, threshold, lookup));
+
+        long[] bookedMinutes = new long[doctors.size()];
+        Map<String, Long> specialtyLoad = new LinkedHashMap<>();
+        for (int row = 0; row < doctors.size(); row++) {
+            HealthProfessional doctor = doctors.get(row);
+            bookedMinutes[row] = totals.perDoctor[row] * registry.calendarOf(doctor.getId()).getConsultationMinutes();
+            specialtyLoad.merge(specialtyOf(doctor), totals.perDoctor[row], Long::sum);
+        }
+        return new ScheduleReport(doctors, totals.perDoctor, bookedMinutes, specialtyLoad,
+                totals.perHour, workingMinutes, totals.unmatched);
+    }
+
+    // --- Helper Methods ---
+
+    /**
+     * Returns the label a doctor's bookings are grouped under for specialty load.
+     */
+    private static String specialtyOf(HealthProfessional doctor) {
+        SpecialtyDescriptor<?> specialty = doctor.getSpecialty();
+        String subspecialty = specialty == null ? null : specialty.getSubspecialty(doctor);
+        return subspecialty != null ? subspecialty : doctor.getProfession();
+    }
+
+    // --- Nested Types ---
+
+    /**
+     * Counts of one range of appointments.
+     */
+    private static final class Partial {
+        // Bookings per doctor row.
+        private final long[] perDoctor;
+        // Bookings per hour of the day.
+        private final long[] perHour;
+        // Appointments with an unknown doctor or time.
+        private long unmatched;
+
+        private Partial(int doctors) {
+            this.perDoctor = new long[doctors];
+            this.perHour = new long[ScheduleReport.HOURS_PER_DAY];
+        }
+
+        private Partial add(Partial other) {
+            for (int i = 0; i < perDoctor.length; i++) {
+                perDoctor[i] += other.perDoctor[i];
+            }
+            for (int i = 0; i < perHour.length; i++) {
+                perHour[i] += other.perHour[i];
+            }
+            unmatched += other.unmatched;
+            return this;
+        }
+    }
+
+    /**
+     * Splits a range of appointments in half until it is small enough to count directly.
+     */
+    private static final class CountTask extends RecursiveTask<Partial> {
+        private static final long serialVersionUID = 1L;
+        private final Appointment[] appointments;
+        private final int from;
+        private final int to;
+        private final int threshold;
+        private final RowLookup lookup;
+
+        private CountTask(Appointment[] appointments, int from, int to, int threshold, RowLookup lookup) {
+            this.appointments = appointments;
+            this.from = from;
+            this.to = to;
+            this.threshold = threshold;
+            this.lookup = lookup;
+        }
+
+        @Override
+        protected Partial compute() {
+            if (to - from <= threshold) {
+                return count();
+            }
+            int middle = (from + to) >>> 1;
+            CountTask left = new CountTask(appointments, from, middle, threshold, lookup);
+            left.fork();
+            Partial right = new CountTask(appointments, middle, to, threshold, lookup).compute();
+            return left.join().add(right);
+        }
+
+        private Partial count() {
+            Partial partial = new Partial(lookup.size());
+            for (int i = from; i < to; i++) {
+                Appointment appointment = appointments[i];
+                HealthProfessional doctor = appointment.getDoctor();
+                int row = doctor == null ? -1 : lookup.rowOf(doctor.getId());
+                int minute = SlotCalendar.parseTime(appointment.getTimeSlot());
+                if (row < 0 || minute < 0) {
+                    partial.unmatched++;
+                    continue;
+                }
+                partial.perDoctor[row]++;
+                partial.perHour[minute / 60]++;
+            }
+            return partial;
+        }
+    }
+
+    /**
+     * Read-only map from doctor ID to registration row, as two parallel arrays sorted by ID.
+     */
+    private static final class RowLookup {
+        // Doctor IDs in ascending order.
+        private final int[] ids;
+        // Registration row of the doctor with the ID at the same position.
+        private final int[] rows;
+
+        private RowLookup(List<HealthProfessional> doctors) {
+            long[] packed = new long[doctors.size()];
+            for (int row = 0; row < packed.length; row++) {
+                packed[row] = ((long) doctors.get(row).getId() << 32) | row;
+            }
+            Arrays.sort(packed);
+            this.ids = new int[packed.length];
+            this.rows = new int[packed.length];
+            for (int i = 0; i < packed.length; i++) {
+                ids[i] = (int) (packed[i] >> 32);
+                rows[i] = (int) packed[i];
+            }
+        }
+
+        private int size() {
+            return ids.length;
+        }
+
+        private int rowOf(int doctorId) {
+            int position = Arrays.binarySearch(ids, doctorId);
+            return position >= 0 ? rows[position] : -1;
+        }
+    }
+}
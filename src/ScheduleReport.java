@@ -0,0 +1,179 @@
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Daily aggregates of the schedule, computed by ScheduleAnalytics.
+ * Per-doctor figures are arrays aligned with getDoctors(), i.e. with the
+ * registry's registration order.
+ */
+public class ScheduleReport {
+
+    // Number of hours in a day, i.e. the length of the per-hour array.
+    public static final int HOURS_PER_DAY = 24;
+
+    // --- Instance Variables ---
+
+    // Doctors in registration order.
+    private final List<HealthProfessional> doctors;
+    // Bookings per doctor, aligned with 'doctors'.
+    private final long[] bookings;
+    // Booked minutes per doctor, aligned with 'doctors'.
+    private final long[] bookedMinutes;
+    // Bookings per specialty label, in order of first appearance in the roster.
+    private final Map<String, Long> specialtyLoad;
+    // Bookings per hour of the day.
+    private final long[] bookingsPerHour;
+    // Working minutes per doctor that utilisation is measured against.
+    private final int workingMinutes;
+    // Appointments whose doctor or time could not be resolved.
+    private final long unmatched;
+
+    // --- Constructor ---
+
+    /**
+     * Parameterized constructor. The arrays are taken over, not copied.
+     * @param doctors The doctors in registration order.
+     * @param bookings Bookings per doctor.
+     * @param bookedMinutes Booked minutes per doctor.
+     * @param specialtyLoad Bookings per specialty label.
+     * @param bookingsPerHour Bookings per hour of the day.
+     * @param workingMinutes Working minutes per doctor.
+     * @param unmatched Appointments that were not counted.
+     */
+    public ScheduleReport(List<HealthProfessional> doctors, long[] bookings, long[] bookedMinutes,
+                          Map<String, Long> specialtyLoad, long[] bookingsPerHour, int workingMinutes, long unmatched) {
+        this.doctors = doctors;
+        this.bookings = bookings;
+        this.bookedMinutes = bookedMinutes;
+        this.specialtyLoad = Collections.unmodifiableMap(specialtyLoad);
+        this.bookingsPerHour = bookingsPerHour;
+        this.workingMinutes = workingMinutes;
+        this.unmatched = unmatched;
+    }
+
+    // --- Methods ---
+
+    /**
+     * Returns the utilisation of one doctor: booked minutes over working minutes.
+     * @param row The doctor's position in getDoctors().
+     * @return The utilisation; above 1.0 when more is booked than the working day holds.
+     */
+    public double getUtilisation(int row) {
+        return (double) bookedMinutes[row] / workingMinutes;
+    }
+
+    /**
+     * Returns the hour of the day with the most bookings.
+     * @return The busiest hour (0 to 23); the earliest one on a tie, 0 if there are no bookings.
+     */
+    public int getPeakHour() {
+        int peak = 0;
+        for (int hour = 1; hour < HOURS_PER_DAY; hour++) {
+            if (bookingsPerHour[hour] > bookingsPerHour[peak]) {
+                peak = hour;
+            }
+        }
+        return peak;
+    }
+
+    /**
+     * Renders the report as a table of doctors followed by specialty and hourly totals.
+     * @param out The buffer to append to.
+     * @return The same buffer, for chaining.
+     */
+    public StringBuilder appendTo(StringBuilder out) {
+        RowRenderer.line(out, "Schedule Report");
+        RowRenderer.column(out, "ID", 5);
+        RowRenderer.column(out, "Name", 15);
+        RowRenderer.column(out, "Bookings", 10);
+        RowRenderer.column(out, "Minutes", 10);
+        RowRenderer.line(out, "Utilisation");
+        for (int row = 0; row < doctors.size(); row++) {
+            HealthProfessional doctor = doctors.get(row);
+            RowRenderer.column(out, doctor.getId(), 5);
+            RowRenderer.column(out, doctor.getName(), 15);
+            RowRenderer.column(out, Long.toString(bookings[row]), 10);
+            RowRenderer.column(out, Long.toString(bookedMinutes[row]), 10);
+            RowRenderer.line(out, Math.round(getUtilisation(row) * 100) + "%");
+        }
+
+        RowRenderer.line(out, "\nLoad per Specialty");
+        for (Map.Entry<String, Long> specialty : specialtyLoad.entrySet()) {
+            RowRenderer.column(out, specialty.getKey(), 25);
+            RowRenderer.line(out, specialty.getValue().toString());
+        }
+
+        RowRenderer.line(out, "\nBookings per Hour (peak " + SlotCalendar.formatTime(getPeakHour() * 60) + ")");
+        for (int hour = 0; hour < HOURS_PER_DAY; hour++) {
+            if (bookingsPerHour[hour] > 0) {
+                RowRenderer.column(out, SlotCalendar.formatTime(hour * 60), 10);
+                RowRenderer.line(out, Long.toString(bookingsPerHour[hour]));
+            }
+        }
+        return out;
+    }
+
+    // --- Getters ---
+
+    /**
+     * Getter for the doctors the per-doctor arrays refer to.
+     * @return The doctors in registration order.
+     */
+    public List<HealthProfessional> getDoctors() {
+        return doctors;
+    }
+
+    /**
+     * Getter for the number of bookings of one doctor.
+     * @param row The doctor's position in getDoctors().
+     * @return The booking count.
+     */
+    public long getBookings(int row) {
+        return bookings[row];
+    }
+
+    /**
+     * Getter for the booked minutes of one doctor.
+     * @param row The doctor's position in getDoctors().
+     * @return Bookings multiplied by the doctor's consultation length.
+     */
+    public long getBookedMinutes(int row) {
+        return bookedMinutes[row];
+    }
+
+    /**
+     * Getter for the load per specialty. Professionals with a subspecialty, such as
+     * Cardiologists, are grouped by it, other professionals by their profession title.
+     * @return A read-only map of specialty label to bookings.
+     */
+    public Map<String, Long> getSpecialtyLoad() {
+        return specialtyLoad;
+    }
+
+    /**
+     * Getter for the bookings starting in one hour of the day.
+     * @param hour The hour (0 to 23).
+     * @return The booking count.
+     */
+    public long getBookingsInHour(int hour) {
+        return bookingsPerHour[hour];
+    }
+
+    /**
+     * Getter for the working minutes utilisation is measured against.
+     * @return The working minutes per doctor.
+     */
+    public int getWorkingMinutes() {
+        return workingMinutes;
+    }
+
+    /**
+     * Getter for the appointments that were not counted because their doctor
+     * is not in the roster or their time could not be parsed.
+     * @return The number of skipped appointments.
+     */
+    public long getUnmatched() {
+        return unmatched;
+    }
+}
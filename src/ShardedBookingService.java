@@ -0,0 +1,493 @@
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+import java.util.function.ToIntFunction;
+
+/**
+ * Booking service for several clinics, partitioned into independent shards.
+ * Every professional belongs to exactly one shard, chosen from a partition key
+ * (by default a hash of the doctor ID; a clinic number works just as well).
+ * Each shard owns its own DoctorRegistry, AppointmentStore and calendars, and
+ * a single worker thread that is the only thread ever touching them, so there
+ * are no locks and shards never wait for each other: throughput grows with the
+ * number of shards, up to the number of cores.
+ *
+ * The service itself is the router. Creates and single-doctor listings go to
+ * the doctor's shard. A patient may have bookings on several shards, so the
+ * router keeps an index from each normalised mobile number to the shards
+ * holding that patient's bookings. Shards never update it themselves: a shard
+ * posts "patient arrived" and "patient left" notes to its own outbox, and a
+ * cancellation first drains the outboxes into the index, then asks only the
+ * listed shards for the patient's earliest booking and cancels the overall
+ * earliest on its shard. The full listing gathers every shard's appointments.
+ *
+ * Bookings are ordered across shards by a sequence number each shard takes
+ * from the monotonic clock when it creates the booking (bumped past its
+ * previous number, and tie-broken by shard index), so creating a booking
+ * touches no state shared with other shards. Bookings made one after another
+ * keep their order; bookings made concurrently on different shards are
+ * ordered arbitrarily but consistently.
+ *
+ * The DoctorRegistry passed in must be fully populated before construction and
+ * must not be modified afterwards. Call close() to stop the worker threads.
+ */
+public class ShardedBookingService implements AutoCloseable {
+
+    // --- Instance Variables ---
+
+    // The shards, indexed by partition key modulo the shard count.
+    private final Shard[] shards;
+    // Doctor ID -> the shard owning that doctor. Built once, read-only afterwards.
+    private final IntObjectMap<Shard> shardOfDoctor;
+    // Normalised mobile -> the shards that held live bookings of that patient when their
+    // outboxes were last drained. Guarded by itself; only used by cancellations.
+    private final HashMap<String, Set<Shard>> shardsOfMobile;
+    // Outcome counters, latency histograms and size gauges.
+    private final BookingMetrics metrics;
+
+    // --- Constructors ---
+
+    /**
+     * Parameterized constructor. Spreads the doctors over the shards by a hash of their ID.
+     * @param roster The populated roster of every clinic.
+     * @param shardCount The number of shards, e.g. the number of cores.
+     * @throws IllegalArgumentException if shardCount is not positive.
+     */
+    public ShardedBookingService(DoctorRegistry roster, int shardCount) {
+        this(roster, shardCount, doctor -> hashId(doctor.getId()));
+    }
+
+    /**
+     * Parameterized constructor. Each doctor goes to shard (partition key modulo shardCount),
+     * so doctors with the same key, e.g. the same clinic number, always share a shard.
+     * @param roster The populated roster of every clinic.
+     * @param shardCount The number of shards.
+     * @param partitionKey Returns the partition key of a doctor.
+     * @throws IllegalArgumentException if shardCount is not positive.
+     */
+    public ShardedBookingService(DoctorRegistry roster, int shardCount,
+                                 ToIntFunction<? super HealthProfessional> partitionKey) {
+        if (shardCount <= 0) {
+            throw new IllegalArgumentException("Invalid shard count: " + shardCount);
+        }
+        this.shards = new Shard[shardCount];
+        for (int i = 0; i < shardCount; i++) {
+            shards[i] = new Shard(i);
+        }
+        // Filled before any worker starts; starting a worker publishes it.
+        this.shardOfDoctor = new IntObjectMap<>(roster.size());
+        for (HealthProfessional doctor : roster.getAll()) {
+            Shard shard = shards[Math.floorMod(partitionKey.applyAsInt(doctor), shardCount)];
+            shard.registry.register(doctor);
+            shardOfDoctor.put(doctor.getId(), shard);
+        }
+        this.shardsOfMobile = new HashMap<>();
+        this.metrics = new BookingMetrics();
+        metrics.registerGauge("doctors", roster::size);
+        metrics.registerGauge("appointments", this::size);
+        metrics.registerGauge("shards", () -> shards.length);
+    }
+
+    // --- Methods ---
+
+    /**
+     * Creates an appointment on the doctor's shard, applying the same validation
+     * as AssignmentOne.createAppointment, and waits for the outcome.
+     * @param doctorId The ID of the selected doctor.
+     * @param pName Patient's name.
+     * @param pMobile Patient's mobile number.
+     * @param time Preferred appointment time slot.
+     * @return CREATED on success, otherwise the failed validation.
+     */
+    public BookingStatus createAppointment(int doctorId, String pName, String pMobile, String time) {
+        return createAppointmentAsync(doctorId, pName, pMobile, time).join();
+    }
+
+    /**
+     * Queues an appointment on the doctor's shard without waiting for it.
+     * @param doctorId The ID of the selected doctor.
+     * @param pName Patient's name.
+     * @param pMobile Patient's mobile number.
+     * @param time Preferred appointment time slot.
+     * @return A future completed with CREATED on success, otherwise the failed validation.
+     */
+    public CompletableFuture<BookingStatus> createAppointmentAsync(int doctorId, String pName, String pMobile,
+                                                                  String time) {
+        long start = System.nanoTime();
+        Shard shard = shardOfDoctor.get(doctorId);
+        CompletableFuture<BookingStatus> outcome = shard == null
+                ? CompletableFuture.completedFuture(BookingStatus.INVALID_DOCTOR_ID)
+                : shard.run(() -> shard.book(doctorId, pName, pMobile, time));
+        return outcome.whenComplete((status, error) -> {
+            if (status != null) {
+                metrics.record(BookingMetrics.Operation.CREATE, status, System.nanoTime() - start);
+            }
+        });
+    }
+
+    /**
+     * Cancels the earliest booked appointment of a patient, on whichever shard it is, and waits for the outcome.
+     * @param mobileNumber The patient's mobile number.
+     * @return CANCELLED on success, EMPTY_PHONE_NUMBER or NOT_FOUND otherwise.
+     */
+    public BookingStatus cancelBooking(String mobileNumber) {
+        return cancelBookingAsync(mobileNumber).join();
+    }
+
+    /**
+     * Queues the cancellation of a patient's earliest booking without waiting for it.
+     * Every shard holding a booking of the patient is asked for the patient's earliest
+     * booking there; the overall earliest is
+     * then cancelled on its shard. If a concurrent cancellation got there first, the
+     * search is repeated.
+     * @param mobileNumber The patient's mobile number.
+     * @return A future completed with CANCELLED on success, EMPTY_PHONE_NUMBER or NOT_FOUND otherwise.
+     */
+    public CompletableFuture<BookingStatus> cancelBookingAsync(String mobileNumber) {
+        long start = System.nanoTime();
+        CompletableFuture<BookingStatus> outcome = mobileNumber == null || mobileNumber.trim().isEmpty()
+                ? CompletableFuture.completedFuture(BookingStatus.EMPTY_PHONE_NUMBER)
+                : cancelEarliest(mobileNumber);
+        return outcome.whenComplete((status, error) -> {
+            if (status != null) {
+                metrics.record(BookingMetrics.Operation.CANCEL, status, System.nanoTime() - start);
+            }
+        });
+    }
+
+    /**
+     * Gathers the live appointments of every shard, in booking order.
+     * @return A read-only list of appointments.
+     */
+    public List<Appointment> listAppointments() {
+        List<CompletableFuture<Listing>> listings = new ArrayList<>(shards.length);
+        for (Shard shard : shards) {
+            listings.add(shard.run(shard::listing));
+        }
+        // Merge the shards' listings, each already in sequence order.
+        PriorityQueue<Listing> heads = new PriorityQueue<>((a, b) -> compareBookings(
+                a.sequences[a.next], a.shard, b.sequences[b.next], b.shard));
+        int total = 0;
+        for (CompletableFuture<Listing> listing : listings) {
+            Listing gathered = listing.join();
+            total += gathered.appointments.length;
+            if (gathered.appointments.length > 0) {
+                heads.add(gathered);
+            }
+        }
+        List<Appointment> merged = new ArrayList<>(total);
+        Listing head;
+        while ((head = heads.poll()) != null) {
+            merged.add(head.appointments[head.next++]);
+            if (head.next < head.appointments.length) {
+                heads.add(head);
+            }
+        }
+        return Collections.unmodifiableList(merged);
+    }
+
+    /**
+     * Returns one doctor's live appointments in booking order, from the doctor's shard.
+     * @param doctorId The ID of the doctor.
+     * @return A read-only list of appointments (empty for an unknown doctor).
+     */
+    public List<Appointment> listAppointments(int doctorId) {
+        Shard shard = shardOfDoctor.get(doctorId);
+        if (shard == null) {
+            return Collections.emptyList();
+        }
+        return shard.run(() -> shard.store.findByDoctor(doctorId)).join();
+    }
+
+    /**
+     * Getter for the number of live appointments across all shards.
+     * May lag behind operations still running on the shards.
+     * @return The appointment count.
+     */
+    public int size() {
+        int size = 0;
+        for (Shard shard : shards) {
+            size += shard.size;
+        }
+        return size;
+    }
+
+    /**
+     * Getter for the number of shards.
+     * @return The shard count.
+     */
+    public int getShardCount() {
+        return shards.length;
+    }
+
+    /**
+     * Returns the shard a doctor belongs to.
+     * @param doctorId The ID of the doctor.
+     * @return The shard index, or -1 for an unknown doctor.
+     */
+    public int shardOf(int doctorId) {
+        Shard shard = shardOfDoctor.get(doctorId);
+        return shard == null ? -1 : shard.index;
+    }
+
+    /**
+     * Getter for the service's metrics: outcome counts, latency histograms and gauges.
+     * @return The metrics.
+     */
+    public BookingMetrics getMetrics() {
+        return metrics;
+    }
+
+    /**
+     * Finishes the queued operations and stops every shard's worker thread.
+     */
+    @Override
+    public void close() {
+        for (Shard shard : shards) {
+            shard.worker.shutdown();
+        }
+        boolean interrupted = false;
+        for (Shard shard : shards) {
+            try {
+                shard.worker.awaitTermination(Long.MAX_VALUE, TimeUnit.NANOSECONDS);
+            } catch (InterruptedException e) {
+                interrupted = true;
+            }
+        }
+        if (interrupted) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    // --- Helper Methods ---
+
+    /**
+     * Asks the shards holding the patient's bookings for the earliest one, then cancels it on its shard.
+     */
+    private CompletableFuture<BookingStatus> cancelEarliest(String mobileNumber) {
+        List<Shard> asked = shardsHolding(PatientRegistry.normaliseMobile(mobileNumber));
+        if (asked.isEmpty()) {
+            return CompletableFuture.completedFuture(BookingStatus.NOT_FOUND);
+        }
+        List<CompletableFuture<Long>> searches = new ArrayList<>(asked.size());
+        for (Shard shard : asked) {
+            searches.add(shard.run(() -> shard.earliestSequence(mobileNumber)));
+        }
+        return CompletableFuture.allOf(searches.toArray(new CompletableFuture<?>[0])).thenCompose(done -> {
+            Shard owner = null;
+            long earliest = Long.MAX_VALUE;
+            for (int i = 0; i < asked.size(); i++) {
+                long sequence = searches.get(i).join();
+                if (sequence != Long.MAX_VALUE
+                        && (owner == null || compareBookings(sequence, asked.get(i).index, earliest, owner.index) < 0)) {
+                    earliest = sequence;
+                    owner = asked.get(i);
+                }
+            }
+            if (owner == null) {
+                return CompletableFuture.completedFuture(BookingStatus.NOT_FOUND);
+            }
+            Shard shard = owner;
+            long sequence = earliest;
+            return shard.run(() -> shard.cancelIfEarliest(mobileNumber, sequence))
+                    .thenCompose(cancelled -> cancelled
+                            ? CompletableFuture.completedFuture(BookingStatus.CANCELLED)
+                            : cancelEarliest(mobileNumber));
+        });
+    }
+
+    /**
+     * Applies every shard's pending outbox notes to the mobile index and returns
+     * the shards that may hold bookings of the patient.
+     * Every booking completed before the call has posted its note, so no shard holding
+     * one is missed; a listed shard may have lost the patient's bookings since.
+     */
+    private List<Shard> shardsHolding(String mobile) {
+        synchronized (shardsOfMobile) {
+            for (Shard shard : shards) {
+                MobileNote note;
+                while ((note = shard.outbox.poll()) != null) {
+                    if (note.holds) {
+                        shardsOfMobile.computeIfAbsent(note.mobile, key -> new HashSet<>()).add(shard);
+                    } else {
+                        Set<Shard> holding = shardsOfMobile.get(note.mobile);
+                        if (holding != null && holding.remove(shard) && holding.isEmpty()) {
+                            shardsOfMobile.remove(note.mobile);
+                        }
+                    }
+                }
+            }
+            Set<Shard> holding = shardsOfMobile.get(mobile);
+            return holding == null ? Collections.emptyList() : new ArrayList<>(holding);
+        }
+    }
+
+    /**
+     * Orders two bookings by sequence number, then by shard index.
+     */
+    private static int compareBookings(long sequence, int shard, long otherSequence, int otherShard) {
+        int order = Long.compare(sequence, otherSequence);
+        return order != 0 ? order : Integer.compare(shard, otherShard);
+    }
+
+    /**
+     * Spreads consecutive doctor IDs evenly over the shards.
+     */
+    private static int hashId(int doctorId) {
+        int h = doctorId * 0x9E3779B9;
+        return h ^ (h >>> 16);
+    }
+
+    // --- Nested Types ---
+
+    /**
+     * One partition: a roster, schedule and worker thread. Everything except
+     * 'size' and the outbox is only touched by the worker.
+     */
+    private final class Shard {
+        // Position of the shard in 'shards'.
+        private final int index;
+        // The shard's doctors and their calendars.
+        private final DoctorRegistry registry;
+        // The shard's live appointments.
+        private final AppointmentStore store;
+        // Interned patients of the shard's appointments.
+        private final PatientRegistry patients;
+        // Live appointment -> its sequence number.
+        private final IdentityHashMap<Appointment, Long> sequences;
+        // Notes of patients whose first booking arrived on, or last booking left, this shard,
+        // in order, until a cancellation drains them into the router's mobile index.
+        private final ConcurrentLinkedQueue<MobileNote> outbox;
+        // Sequence number of the shard's latest booking.
+        private long lastSequence;
+        // The single thread running every operation of this shard.
+        private final ExecutorService worker;
+        // Live appointment count, published for size().
+        private volatile int size;
+
+        private Shard(int index) {
+            this.index = index;
+            this.registry = new DoctorRegistry();
+            this.store = new AppointmentStore();
+            this.patients = new PatientRegistry();
+            store.addListener(patients);
+            this.sequences = new IdentityHashMap<>();
+            this.outbox = new ConcurrentLinkedQueue<>();
+            this.worker = Executors.newSingleThreadExecutor(task -> {
+                Thread thread = new Thread(task, "booking-shard-" + index);
+                thread.setDaemon(true);
+                return thread;
+            });
+        }
+
+        /**
+         * Runs an operation on the shard's worker.
+         */
+        private <R> CompletableFuture<R> run(Supplier<R> operation) {
+            return CompletableFuture.supplyAsync(operation, worker);
+        }
+
+        /**
+         * Validates a booking, reserves its slot and stores it.
+         */
+        private BookingStatus book(int doctorId, String pName, String pMobile, String time) {
+            HealthProfessional doctor = registry.findById(doctorId);
+            BookingStatus status = AssignmentOne.validateRequest(doctor, pName, pMobile, time);
+            if (status != null) {
+                return status;
+            }
+            if (!registry.calendarOf(doctorId).reserve(SlotCalendar.parseTime(time))) {
+                return BookingStatus.SLOT_UNAVAILABLE;
+            }
+            if (store.findByMobile(pMobile) == null) {
+                outbox.add(new MobileNote(PatientRegistry.normaliseMobile(pMobile), true));
+            }
+            Appointment appointment = new Appointment(patients.intern(pName, pMobile), time, doctor);
+            lastSequence = Math.max(System.nanoTime(), lastSequence + 1);
+            sequences.put(appointment, lastSequence);
+            store.add(appointment);
+            size = store.size();
+            return BookingStatus.CREATED;
+        }
+
+        /**
+         * Returns the sequence number of the patient's earliest booking on this shard, or Long.MAX_VALUE.
+         */
+        private long earliestSequence(String mobileNumber) {
+            Appointment earliest = store.findByMobile(mobileNumber);
+            return earliest == null ? Long.MAX_VALUE : sequences.get(earliest);
+        }
+
+        /**
+         * Cancels the patient's earliest booking if it still has the given sequence number.
+         */
+        private boolean cancelIfEarliest(String mobileNumber, long sequence) {
+            if (earliestSequence(mobileNumber) != sequence) {
+                return false;
+            }
+            Appointment cancelled = store.cancelByMobile(mobileNumber);
+            sequences.remove(cancelled);
+            registry.calendarOf(cancelled.getDoctor().getId())
+                    .release(SlotCalendar.parseTime(cancelled.getTimeSlot()));
+            size = store.size();
+            if (store.findByMobile(mobileNumber) == null) {
+                // The patient's last booking on this shard is gone.
+                outbox.add(new MobileNote(PatientRegistry.normaliseMobile(mobileNumber), false));
+            }
+            return true;
+        }
+
+        /**
+         * Copies the live appointments and their sequence numbers, in booking order.
+         */
+        private Listing listing() {
+            Appointment[] appointments = store.toArray();
+            long[] numbers = new long[appointments.length];
+            for (int i = 0; i < appointments.length; i++) {
+                numbers[i] = sequences.get(appointments[i]);
+            }
+            return new Listing(index, appointments, numbers);
+        }
+    }
+
+    /**
+     * One shard's appointments with their sequence numbers, and a merge cursor.
+     */
+    private static final class Listing {
+        private final int shard;
+        private final Appointment[] appointments;
+        private final long[] sequences;
+        private int next;
+
+        private Listing(int shard, Appointment[] appointments, long[] sequences) {
+            this.shard = shard;
+            this.appointments = appointments;
+            this.sequences = sequences;
+        }
+    }
+
+    /**
+     * A change to the set of a shard's patients: 'holds' is true when the patient's
+     * first booking arrived on the shard, false when the last one left it.
+     */
+    private static final class MobileNote {
+        private final String mobile;
+        private final boolean holds;
+
+        private MobileNote(String mobile, boolean holds) {
+            this.mobile = mobile;
+            this.holds = holds;
+        }
+    }
+}
@@ -0,0 +1,277 @@
+import java.util.function.IntConsumer;
+
+/**
+ * A single day's booking calendar for one HealthProfessional.
+ * Time slots such as "09:30" are parsed into minute offsets from midnight and
+ * occupancy is kept in a compact long[] bitset with one bit per minute.
+ * Each booking occupies a run of bits as long as the doctor's consultation,
+ * so double-booking detection and the "next free slot" search are word-level
+ * bit operations instead of string comparisons across all appointments.
+ * The day's first free slot is kept up to date as bookings come and go, and an
+ * optional listener hears about every change to it, which is how the
+ * AvailabilityIndex keeps its doctors ordered by earliest free time.
+ */
+public class SlotCalendar {
+
+    // Number of minutes in one calendar day.
+    public static final int MINUTES_PER_DAY = 24 * 60;
+    // Consultation length used when the professional does not define one.
+    public static final int DEFAULT_CONSULTATION_MINUTES = 15;
+
+    // --- Instance Variables ---
+
+    // Occupancy bitset: bit 'm' is set when minute 'm' of the day is booked.
+    private final long[] occupied;
+    // Length (in minutes) of one consultation, i.e. the run of bits a booking occupies.
+    private final int consultationMinutes;
+    // Start minute of the day's first free slot, or -1 if the day is full.
+    private int firstFreeSlot;
+    // Told the new first free slot whenever it changes; may be null.
+    private IntConsumer firstFreeSlotListener;
+
+    // --- Constructors ---
+
+    /**
+     * Parameterized constructor.
+     * @param consultationMinutes The length of one consultation in minutes (1 to a full day).
+     */
+    public SlotCalendar(int consultationMinutes) {
+        if (consultationMinutes <= 0 || consultationMinutes > MINUTES_PER_DAY) {
+            throw new IllegalArgumentException("Invalid consultation length: " + consultationMinutes);
+        }
+        this.occupied = new long[(MINUTES_PER_DAY + 63) >>> 6];
+        this.consultationMinutes = consultationMinutes;
+        this.firstFreeSlot = 0;
+    }
+
+    /**
+     * Creates a calendar whose booking length follows the professional's consultation time,
+     * as declared by its specialty; professionals without one use the default.
+     * @param doctor The professional the calendar belongs to.
+     * @return A new, empty calendar.
+     */
+    public static SlotCalendar forDoctor(HealthProfessional doctor) {
+        int minutes = DEFAULT_CONSULTATION_MINUTES;
+        SpecialtyDescriptor<?> specialty = doctor.getSpecialty();
+        int maxConsultationTime = specialty == null ? 0 : specialty.getMaxConsultationTime(doctor);
+        if (maxConsultationTime > 0) {
+            minutes = Math.min(maxConsultationTime, MINUTES_PER_DAY);
+        }
+        return new SlotCalendar(minutes);
+    }
+
+    // --- Time Conversion ---
+
+    /**
+     * Parses a time slot in "H:mm" or "HH:mm" format into minutes from midnight.
+     * @param timeSlot The time slot text.
+     * @return The minute offset, or -1 if the text is not a valid time of day.
+     */
+    public static int parseTime(String timeSlot) {
+        if (timeSlot == null) {
+            return -1;
+        }
+        String time = timeSlot.trim();
+        int colon = time.indexOf(':');
+        if (colon < 1 || colon > 2 || time.length() != colon + 3) {
+            return -1;
+        }
+        int hours = 0;
+        for (int i = 0; i < colon; i++) {
+            char c = time.charAt(i);
+            if (c < '0' || c > '9') {
+                return -1;
+            }
+            hours = hours * 10 + (c - '0');
+        }
+        char tens = time.charAt(colon + 1);
+        char units = time.charAt(colon + 2);
+        if (tens < '0' || tens > '5' || units < '0' || units > '9' || hours > 23) {
+            return -1;
+        }
+        return hours * 60 + (tens - '0') * 10 + (units - '0');
+    }
+
+    /**
+     * Formats a minute offset as an "HH:mm" time slot.
+     * @param minuteOfDay The minute offset from midnight.
+     * @return The formatted time.
+     */
+    public static String formatTime(int minuteOfDay) {
+        int hours = minuteOfDay / 60;
+        int minutes = minuteOfDay % 60;
+        return new String(new char[] {
+                (char) ('0' + hours / 10), (char) ('0' + hours % 10), ':',
+                (char) ('0' + minutes / 10), (char) ('0' + minutes % 10)});
+    }
+
+    // --- Methods ---
+
+    /**
+     * Checks whether a consultation starting at the given minute fits without overlap.
+     * @param startMinute The start minute of the consultation.
+     * @return True if every minute of the consultation is free and within the day.
+     */
+    public boolean isFree(int startMinute) {
+        int end = startMinute + consultationMinutes;
+        if (startMinute < 0 || end > MINUTES_PER_DAY) {
+            return false;
+        }
+        return nextSetBit(startMinute, end) < 0;
+    }
+
+    /**
+     * Books a consultation starting at the given minute.
+     * @param startMinute The start minute of the consultation.
+     * @return True if the booking succeeded, false if it overlaps another booking or the end of day.
+     */
+    public boolean reserve(int startMinute) {
+        if (!isFree(startMinute)) {
+            return false;
+        }
+        setRange(startMinute, startMinute + consultationMinutes, true);
+        // Only a booking overlapping the first free slot moves it, and only later.
+        if (firstFreeSlot >= 0 && startMinute < firstFreeSlot + consultationMinutes
+                && firstFreeSlot < startMinute + consultationMinutes) {
+            updateFirstFreeSlot(nextFreeSlot(firstFreeSlot));
+        }
+        return true;
+    }
+
+    /**
+     * Frees the consultation that started at the given minute.
+     * @param startMinute The start minute used when the booking was reserved.
+     */
+    public void release(int startMinute) {
+        int end = startMinute + consultationMinutes;
+        if (startMinute < 0 || end > MINUTES_PER_DAY) {
+            return;
+        }
+        setRange(startMinute, end, false);
+        // Slots starting before the freed minutes' reach were not free before and still are not.
+        int reach = Math.max(0, startMinute - consultationMinutes + 1);
+        if (firstFreeSlot < 0 || firstFreeSlot > reach) {
+            updateFirstFreeSlot(nextFreeSlot(reach));
+        }
+    }
+
+    /**
+     * Finds the earliest start minute at or after 'fromMinute' where a whole consultation fits.
+     * @param fromMinute The earliest acceptable start minute.
+     * @return The start minute of the next free slot, or -1 if the rest of the day is full.
+     */
+    public int nextFreeSlot(int fromMinute) {
+        int start = nextClearBit(Math.max(0, fromMinute));
+        while (start >= 0 && start + consultationMinutes <= MINUTES_PER_DAY) {
+            int blocker = nextSetBit(start, start + consultationMinutes);
+            if (blocker < 0) {
+                return start;
+            }
+            start = nextClearBit(blocker);
+        }
+        return -1;
+    }
+
+    /**
+     * Getter for the day's first free slot, i.e. nextFreeSlot(0) without the search.
+     * @return The start minute of the first free slot, or -1 if the day is full.
+     */
+    public int getFirstFreeSlot() {
+        return firstFreeSlot;
+    }
+
+    /**
+     * Setter for the listener told about changes to the first free slot.
+     * A calendar has one listener; setting a new one replaces the previous.
+     * @param listener Receives the new first free slot, or -1 once the day is full; null for none.
+     */
+    public void setFirstFreeSlotListener(IntConsumer listener) {
+        this.firstFreeSlotListener = listener;
+    }
+
+    /**
+     * Getter for the consultation length.
+     * @return The number of minutes each booking occupies.
+     */
+    public int getConsultationMinutes() {
+        return consultationMinutes;
+    }
+
+    /**
+     * Records a new first free slot and tells the listener if it changed.
+     */
+    private void updateFirstFreeSlot(int minute) {
+        if (minute == firstFreeSlot) {
+            return;
+        }
+        firstFreeSlot = minute;
+        if (firstFreeSlotListener != null) {
+            firstFreeSlotListener.accept(minute);
+        }
+    }
+
+    // --- Bitset Helpers ---
+
+    /**
+     * Sets or clears bits [from, to).
+     */
+    private void setRange(int from, int to, boolean value) {
+        int firstWord = from >>> 6;
+        int lastWord = (to - 1) >>> 6;
+        long firstMask = -1L << from;
+        long lastMask = -1L >>> -to;
+        for (int w = firstWord; w <= lastWord; w++) {
+            long mask = -1L;
+            if (w == firstWord) {
+                mask &= firstMask;
+            }
+            if (w == lastWord) {
+                mask &= lastMask;
+            }
+            if (value) {
+                occupied[w] |= mask;
+            } else {
+                occupied[w] &= ~mask;
+            }
+        }
+    }
+
+    /**
+     * Returns the index of the first set bit in [from, to), or -1 if there is none.
+     */
+    private int nextSetBit(int from, int to) {
+        int w = from >>> 6;
+        long word = occupied[w] & (-1L << from);
+        while (true) {
+            if (word != 0) {
+                int bit = (w << 6) + Long.numberOfTrailingZeros(word);
+                return bit < to ? bit : -1;
+            }
+            if (++w > (to - 1) >>> 6) {
+                return -1;
+            }
+            word = occupied[w];
+        }
+    }
+
+    /**
+     * Returns the index of the first clear bit at or after 'from', or -1 if the day is full.
+     */
+    private int nextClearBit(int from) {
+        if (from >= MINUTES_PER_DAY) {
+            return -1;
+        }
+        int w = from >>> 6;
+        long word = ~occupied[w] & (-1L << from);
+        while (true) {
+            if (word != 0) {
+                int bit = (w << 6) + Long.numberOfTrailingZeros(word);
+                return bit < MINUTES_PER_DAY ? bit : -1;
+            }
+            if (++w == occupied.length) {
+                return -1;
+            }
+            word = ~occupied[w];
+        }
+    }
+}
@@ -0,0 +1,372 @@
+import java.util.Collections;
+import java.util.List;
+import java.util.function.Function;
+
+/**
+ * Everything the system needs to know about one kind of HealthProfessional,
+ * declared once by the subclass: its short code, display name, report section
+ * title, the specialty columns that follow the base columns in a roster row,
+ * a factory building a professional from an import record, and the traits
+ * that calendars, availability searches and analytics read.
+ * The column header is rendered from the same column list as the rows, so the
+ * two can no longer drift apart. Each column also exposes its value, in the
+ * order the factory reads the detail fields, so a professional can be written
+ * out and rebuilt without knowing its subclass.
+ * @param <T> The HealthProfessional subclass described.
+ */
+public final class SpecialtyDescriptor<T extends HealthProfessional> {
+
+    // Header of the base columns shared by every professional (ID, Name, Age, Profession).
+    public static final String BASE_HEADER = renderBaseHeader();
+
+    // --- Instance Variables ---
+
+    // The subclass described.
+    private final Class<T> type;
+    // Short code used in import files, e.g. "GP".
+    private final String code;
+    // Name shown for a single professional, e.g. "General Practitioner".
+    private final String displayName;
+    // Title of the roster report section, e.g. "General Practitioners".
+    private final String sectionTitle;
+    // Specialty columns, in display order.
+    private final List<Column<T>> columns;
+    // Rendered column header row, including its line separator.
+    private final String header;
+    // Builds a professional of the subclass from the fields of an import record.
+    private final Factory<T> factory;
+    // Scheduling and search attributes of the subclass.
+    private final Traits<T> traits;
+
+    // --- Constructors ---
+
+    /**
+     * Parameterized constructor.
+     * @param type The HealthProfessional subclass described.
+     * @param code The short code used in import files.
+     * @param displayName The name shown for a single professional.
+     * @param sectionTitle The title of the roster report section.
+     * @param columns The specialty columns, in display order.
+     * @param factory Builds a professional from the fields of an import record.
+     */
+    public SpecialtyDescriptor(Class<T> type, String code, String displayName, String sectionTitle,
+                               List<Column<T>> columns, Factory<T> factory) {
+        this(type, code, displayName, sectionTitle, columns, factory, new Traits<T>() {
+        });
+    }
+
+    /**
+     * Parameterized constructor for a specialty with scheduling or search attributes.
+     * @param type The HealthProfessional subclass described.
+     * @param code The short code used in import files.
+     * @param displayName The name shown for a single professional.
+     * @param sectionTitle The title of the roster report section.
+     * @param columns The specialty columns, in display order.
+     * @param factory Builds a professional from the fields of an import record.
+     * @param traits The attributes read by calendars, availability searches and analytics.
+     */
+    public SpecialtyDescriptor(Class<T> type, String code, String displayName, String sectionTitle,
+                               List<Column<T>> columns, Factory<T> factory, Traits<T> traits) {
+        this.type = type;
+        this.code = code;
+        this.displayName = displayName;
+        this.sectionTitle = sectionTitle;
+        this.columns = Collections.unmodifiableList(columns);
+        StringBuilder out = new StringBuilder(BASE_HEADER);
+        for (Column<T> column : columns) {
+            RowRenderer.column(out, column.getTitle(), column.getWidth());
+        }
+        this.header = out.append(RowRenderer.LINE_SEPARATOR).toString();
+        this.factory = factory;
+        this.traits = traits;
+    }
+
+    // --- Methods ---
+
+    /**
+     * Renders a professional's complete roster row: base columns, specialty columns and line separator.
+     * @param out The buffer to write the row to.
+     * @param doctor The professional.
+     * @return The same buffer, for chaining.
+     */
+    public StringBuilder appendRow(StringBuilder out, T doctor) {
+        doctor.appendBaseDetails(out);
+        for (Column<T> column : columns) {
+            column.renderer.append(out, doctor, column.width);
+        }
+        return out.append(RowRenderer.LINE_SEPARATOR);
+    }
+
+    /**
+     * Builds a professional of the described subclass from an import record.
+     * @param id The professional's ID.
+     * @param name The professional's name.
+     * @param age The professional's age.
+     * @param profession The job title.
+     * @param details The specialty fields of the record.
+     * @return The new professional.
+     * @throws IllegalArgumentException if a specialty field is missing or malformed.
+     */
+    public T create(int id, String name, int age, String profession, DetailFields details) {
+        return factory.create(id, name, age, profession, details);
+    }
+
+    /**
+     * Reads the value of one specialty column, i.e. detail field 'index' of an import record.
+     * @param doctor The professional, of the described subclass.
+     * @param index The column index; 0 is the first specialty column.
+     * @return The value, e.g. an Integer, Boolean or String; null if the professional has none.
+     */
+    public Object getDetail(HealthProfessional doctor, int index) {
+        return columns.get(index).value.apply(type.cast(doctor));
+    }
+
+    /**
+     * Reads the longest consultation a professional offers, which is also the length of one booking.
+     * @param doctor The professional, of the described subclass.
+     * @return The time in minutes, or 0 if the specialty does not define one.
+     */
+    public int getMaxConsultationTime(HealthProfessional doctor) {
+        return traits.getMaxConsultationTime(type.cast(doctor));
+    }
+
+    /**
+     * Reads whether a professional offers bulk billing.
+     * @param doctor The professional, of the described subclass.
+     * @return True if the professional bulk bills.
+     */
+    public boolean isBulkBilling(HealthProfessional doctor) {
+        return traits.isBulkBilling(type.cast(doctor));
+    }
+
+    /**
+     * Reads whether a professional has Cath Lab access.
+     * @param doctor The professional, of the described subclass.
+     * @return True if the professional has access.
+     */
+    public boolean hasCathLabAccess(HealthProfessional doctor) {
+        return traits.hasCathLabAccess(type.cast(doctor));
+    }
+
+    /**
+     * Reads a professional's subspecialty.
+     * @param doctor The professional, of the described subclass.
+     * @return The subspecialty, or null if the professional has none.
+     */
+    public String getSubspecialty(HealthProfessional doctor) {
+        return traits.getSubspecialty(type.cast(doctor));
+    }
+
+    // --- Getters ---
+
+    /**
+     * Getter for the subclass described.
+     * @return The HealthProfessional subclass.
+     */
+    public Class<T> getType() {
+        return type;
+    }
+
+    /**
+     * Getter for the import code.
+     * @return The short code, e.g. "GP".
+     */
+    public String getCode() {
+        return code;
+    }
+
+    /**
+     * Getter for the display name.
+     * @return The name shown for a single professional.
+     */
+    public String getDisplayName() {
+        return displayName;
+    }
+
+    /**
+     * Getter for the report section title.
+     * @return The title of the roster report section.
+     */
+    public String getSectionTitle() {
+        return sectionTitle;
+    }
+
+    /**
+     * Getter for the specialty columns.
+     * @return A read-only list of the columns after the base columns.
+     */
+    public List<Column<T>> getColumns() {
+        return columns;
+    }
+
+    /**
+     * Getter for the column header row.
+     * @return The header of the base and specialty columns, including its line separator.
+     */
+    public String getHeader() {
+        return header;
+    }
+
+    // --- Helper Methods ---
+
+    private static String renderBaseHeader() {
+        StringBuilder out = new StringBuilder();
+        RowRenderer.column(out, "ID", 5);
+        RowRenderer.column(out, "Name", 15);
+        RowRenderer.column(out, "Age", 5);
+        return RowRenderer.column(out, "Profession", 25).toString();
+    }
+
+    // --- Nested Types ---
+
+    /**
+     * Writes one specialty column of a professional's row.
+     * @param <T> The HealthProfessional subclass.
+     */
+    @FunctionalInterface
+    public interface ColumnRenderer<T> {
+
+        /**
+         * Appends the column value, padded to the column width.
+         * @param out The buffer to write to.
+         * @param doctor The professional.
+         * @param width The column width.
+         */
+        void append(StringBuilder out, T doctor, int width);
+    }
+
+    /**
+     * The attributes of a specialty's professionals that calendars, availability searches
+     * and analytics read. Every attribute has a neutral default, so a specialty only
+     * overrides those that apply to it.
+     * @param <T> The HealthProfessional subclass.
+     */
+    public interface Traits<T> {
+
+        /**
+         * Reads the longest consultation the professional offers, which is also the length of one booking.
+         * @param doctor The professional.
+         * @return The time in minutes, or 0 to use the default booking length.
+         */
+        default int getMaxConsultationTime(T doctor) {
+            return 0;
+        }
+
+        /**
+         * Reads whether the professional offers bulk billing.
+         * @param doctor The professional.
+         * @return True if the professional bulk bills.
+         */
+        default boolean isBulkBilling(T doctor) {
+            return false;
+        }
+
+        /**
+         * Reads whether the professional has Cath Lab access.
+         * @param doctor The professional.
+         * @return True if the professional has access.
+         */
+        default boolean hasCathLabAccess(T doctor) {
+            return false;
+        }
+
+        /**
+         * Reads the professional's subspecialty, under which analytics group its bookings.
+         * @param doctor The professional.
+         * @return The subspecialty, or null if the professional has none.
+         */
+        default String getSubspecialty(T doctor) {
+            return null;
+        }
+    }
+
+    /**
+     * The specialty fields of an import record, after the base fields.
+     */
+    public interface DetailFields {
+
+        /**
+         * Reads a field as text.
+         * @param index The field index; 0 is the first specialty field.
+         * @return The text, trimmed unless quoted; empty if the field is missing.
+         */
+        String getString(int index);
+
+        /**
+         * Parses a field as a decimal integer.
+         * @param index The field index; 0 is the first specialty field.
+         * @return The value.
+         * @throws IllegalArgumentException if the field is missing or not an integer.
+         */
+        int getInt(int index);
+
+        /**
+         * Parses a field as a boolean.
+         * @param index The field index; 0 is the first specialty field.
+         * @return The value.
+         * @throws IllegalArgumentException if the field is missing or not a boolean.
+         */
+        boolean getBoolean(int index);
+    }
+
+    /**
+     * Builds a professional of one subclass from the fields of an import record.
+     * @param <T> The HealthProfessional subclass.
+     */
+    @FunctionalInterface
+    public interface Factory<T> {
+
+        /**
+         * Creates the professional.
+         * @param id The professional's ID.
+         * @param name The professional's name.
+         * @param age The professional's age.
+         * @param profession The job title.
+         * @param details The specialty fields of the record.
+         * @return The new professional.
+         */
+        T create(int id, String name, int age, String profession, DetailFields details);
+    }
+
+    /**
+     * One specialty column: its header title, width, renderer and value.
+     * @param <T> The HealthProfessional subclass.
+     */
+    public static final class Column<T> {
+        private final String title;
+        private final int width;
+        private final ColumnRenderer<? super T> renderer;
+        private final Function<? super T, ?> value;
+
+        /**
+         * Parameterized constructor.
+         * @param title The header title.
+         * @param width The column width; longer titles and values are not truncated.
+         * @param renderer Writes the column value of a professional.
+         * @param value Reads the column value of a professional, as the factory expects it back
+         *              in the detail field at the column's index.
+         */
+        public Column(String title, int width, ColumnRenderer<? super T> renderer, Function<? super T, ?> value) {
+            this.title = title;
+            this.width = width;
+            this.renderer = renderer;
+            this.value = value;
+        }
+
+        /**
+         * Getter for the header title.
+         * @return The title.
+         */
+        public String getTitle() {
+            return title;
+        }
+
+        /**
+         * Getter for the column width.
+         * @return The width in characters.
+         */
+        public int getWidth() {
+            return width;
+        }
+    }
+}
@@ -0,0 +1,95 @@
+import java.util.Collections;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.Consumer;
+
+/**
+ * Table of the known specialties, i.e. one SpecialtyDescriptor per HealthProfessional subclass.
+ * The built-in General Practitioner and Cardiologist descriptors are registered first;
+ * a new subclass registers its descriptor once and then appears in roster reports,
+ * appointment details and imports without any type checks at the call sites.
+ * Specialties are listed in registration order, which is also the report order.
+ * Listeners hear about every later registration, e.g. to add its report section.
+ */
+public final class SpecialtyRegistry {
+
+    // --- Static Variables ---
+
+    // Descriptors in registration order.
+    private static final CopyOnWriteArrayList<SpecialtyDescriptor<?>> descriptors = new CopyOnWriteArrayList<>();
+    // Subclass -> descriptor.
+    private static final ConcurrentHashMap<Class<?>, SpecialtyDescriptor<?>> byType = new ConcurrentHashMap<>();
+    // Upper-cased import code -> descriptor.
+    private static final ConcurrentHashMap<String, SpecialtyDescriptor<?>> byCode = new ConcurrentHashMap<>();
+    // Notified of every descriptor registered after they were added.
+    private static final CopyOnWriteArrayList<Consumer<? super SpecialtyDescriptor<?>>> listeners =
+            new CopyOnWriteArrayList<>();
+
+    static {
+        register(GeneralPractitioner.SPECIALTY);
+        register(Cardiologist.SPECIALTY);
+    }
+
+    /**
+     * Private constructor. This class only has static methods.
+     */
+    private SpecialtyRegistry() {
+    }
+
+    // --- Methods ---
+
+    /**
+     * Registers the descriptor of a HealthProfessional subclass.
+     * @param descriptor The descriptor.
+     * @throws IllegalArgumentException if the type or code is already registered.
+     */
+    public static synchronized void register(SpecialtyDescriptor<?> descriptor) {
+        String code = descriptor.getCode().toUpperCase(Locale.ROOT);
+        if (byType.containsKey(descriptor.getType()) || byCode.containsKey(code)) {
+            throw new IllegalArgumentException("Specialty already registered: " + descriptor.getCode());
+        }
+        byType.put(descriptor.getType(), descriptor);
+        byCode.put(code, descriptor);
+        descriptors.add(descriptor);
+        for (Consumer<? super SpecialtyDescriptor<?>> listener : listeners) {
+            listener.accept(descriptor);
+        }
+    }
+
+    /**
+     * Adds a listener notified of every specialty registered from now on.
+     * Specialties registered earlier are available from getAll.
+     * @param listener Receives each newly registered descriptor.
+     */
+    public static void addListener(Consumer<? super SpecialtyDescriptor<?>> listener) {
+        listeners.add(listener);
+    }
+
+    /**
+     * Looks up the descriptor of a subclass.
+     * @param type The concrete HealthProfessional class.
+     * @return The descriptor, or null if the class was not registered.
+     */
+    public static SpecialtyDescriptor<?> find(Class<? extends HealthProfessional> type) {
+        return byType.get(type);
+    }
+
+    /**
+     * Looks up a descriptor by its import code, ignoring case.
+     * @param code The code, e.g. "GP".
+     * @return The descriptor, or null if no specialty uses the code.
+     */
+    public static SpecialtyDescriptor<?> findByCode(String code) {
+        return code == null ? null : byCode.get(code.toUpperCase(Locale.ROOT));
+    }
+
+    /**
+     * Returns every registered descriptor.
+     * @return A read-only list in registration order.
+     */
+    public static List<SpecialtyDescriptor<?>> getAll() {
+        return Collections.unmodifiableList(descriptors);
+    }
+}
@@ -0,0 +1,70 @@
+import java.util.ArrayList;
+import java.util.HashMap;
+
+/**
+ * Assigns a small int ID to every distinct string, so repeated values such as
+ * patient names are stored once and referenced by ID in compact columns.
+ */
+public class StringDictionary {
+
+    // --- Instance Variables ---
+
+    // String -> ID.
+    private final HashMap<String, Integer> ids;
+    // ID -> string.
+    private final ArrayList<String> values;
+
+    // --- Constructors ---
+
+    /**
+     * Default constructor. Creates an empty dictionary.
+     */
+    public StringDictionary() {
+        this.ids = new HashMap<>();
+        this.values = new ArrayList<>();
+    }
+
+    // --- Methods ---
+
+    /**
+     * Returns the ID of a string, assigning the next free ID on first sight.
+     * @param value The string to encode. Must not be null.
+     * @return The string's ID.
+     */
+    public int idOf(String value) {
+        Integer id = ids.get(value);
+        if (id == null) {
+            id = values.size();
+            values.add(value);
+            ids.put(value, id);
+        }
+        return id;
+    }
+
+    /**
+     * Looks up the ID of a string without adding it.
+     * @param value The string to look up.
+     * @return The ID, or -1 if the string was never encoded.
+     */
+    public int find(String value) {
+        Integer id = ids.get(value);
+        return id == null ? -1 : id;
+    }
+
+    /**
+     * Returns the string with the given ID.
+     * @param id An ID returned by idOf.
+     * @return The string.
+     */
+    public String valueOf(int id) {
+        return values.get(id);
+    }
+
+    /**
+     * Getter for the number of distinct strings.
+     * @return The dictionary size.
+     */
+    public int size() {
+        return values.size();
+    }
+}
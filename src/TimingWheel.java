@@ -0,0 +1,256 @@
+import java.util.function.Consumer;
+
+/**
+ * Hierarchical timing wheel holding timers due at whole ticks (e.g. minutes).
+ * Four levels of 64 slots each cover delays of up to 64^4 ticks: level 0 holds
+ * timers due within the next 64 ticks, one slot per tick, and each higher level
+ * holds timers 64 times further out, one slot per 64 ticks of the level below.
+ * Whenever the lower level wraps around, the next slot of the level above is
+ * cascaded down, so a timer is re-filed at most once per level.
+ *
+ * Scheduling and cancelling are constant time (each slot is an intrusive doubly
+ * linked list), and advancing the clock costs constant time per tick plus the
+ * timers that fire or cascade. Timers due further out than the wheel reaches
+ * are parked in the top level and re-filed until they come within range.
+ * Not thread-safe.
+ * @param <T> The type of the task attached to each timer.
+ */
+public class TimingWheel<T> {
+
+    // log2 of the number of slots per level.
+    private static final int SLOT_BITS = 6;
+    // Number of slots per level.
+    private static final int SLOTS = 1 << SLOT_BITS;
+    // Number of levels.
+    private static final int LEVELS = 4;
+    // Longest delay the levels can hold; timers due later are re-filed as the clock advances.
+    private static final long MAX_DELAY = (1L << (SLOT_BITS * LEVELS)) - 1;
+
+    // --- Instance Variables ---
+
+    // Sentinel heads of the circular timer lists, indexed [level][slot].
+    private final Timer<T>[][] wheels;
+    // The next tick to be processed; every pending timer is due at or after it.
+    private long nextTick;
+    // Number of pending timers.
+    private int size;
+
+    // --- Constructors ---
+
+    /**
+     * Parameterized constructor.
+     * @param currentTick The current time; the first tick processed by advanceTo is the one after it.
+     */
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    public TimingWheel(long currentTick) {
+        this.wheels = new Timer[LEVELS][SLOTS];
+        for (Timer<T>[] level : wheels) {
+            for (int slot = 0; slot < SLOTS; slot++) {
+                level[slot] = Timer.sentinel();
+            }
+        }
+        this.nextTick = currentTick + 1;
+        this.size = 0;
+    }
+
+    // --- Methods ---
+
+    /**
+     * Schedules a task. A due tick that has already been processed fires on the next tick.
+     * @param dueTick The tick at which the task fires.
+     * @param task The task handed to advanceTo's action when the timer fires.
+     * @return The timer, for cancellation.
+     */
+    public Timer<T> schedule(long dueTick, T task) {
+        Timer<T> timer = new Timer<>(Math.max(dueTick, nextTick), task);
+        file(timer);
+        size++;
+        return timer;
+    }
+
+    /**
+     * Cancels a pending timer.
+     * @param timer The timer returned by schedule.
+     * @return True if the timer was pending, false if it had already fired or been cancelled.
+     */
+    public boolean cancel(Timer<T> timer) {
+        if (!timer.isPending()) {
+            return false;
+        }
+        timer.unlink();
+        size--;
+        return true;
+    }
+
+    /**
+     * Advances the clock to a tick, firing every timer due up to and including it,
+     * in order of due tick. The action may schedule and cancel timers.
+     * @param tick The new current time; ticks already processed are ignored.
+     * @param action Receives the task of each timer as it fires.
+     * @return The number of timers fired.
+     */
+    public int advanceTo(long tick, Consumer<? super T> action) {
+        int fired = 0;
+        Timer<T> due = Timer.sentinel();
+        while (nextTick <= tick) {
+            if (size == 0) {
+                // Nothing can fire or cascade: jump straight to the target.
+                nextTick = tick + 1;
+                break;
+            }
+            long current = nextTick;
+            for (int level = LEVELS - 1; level > 0; level--) {
+                if ((current & ((1L << (SLOT_BITS * level)) - 1)) == 0) {
+                    cascade(level, (int) (current >>> (SLOT_BITS * level)) & (SLOTS - 1));
+                }
+            }
+            nextTick = current + 1;
+
+            // Detach the slot first, so timers scheduled by the action cannot join this round.
+            due.takeAll(wheels[0][(int) current & (SLOTS - 1)]);
+            Timer<T> timer;
+            while ((timer = due.next) != due) {
+                timer.unlink();
+                size--;
+                fired++;
+                action.accept(timer.task);
+            }
+        }
+        return fired;
+    }
+
+    /**
+     * Getter for the current time.
+     * @return The last tick processed.
+     */
+    public long getCurrentTick() {
+        return nextTick - 1;
+    }
+
+    /**
+     * Getter for the number of pending timers.
+     * @return The timer count.
+     */
+    public int size() {
+        return size;
+    }
+
+    // --- Helper Methods ---
+
+    /**
+     * Links a timer into the slot matching its distance from the next tick.
+     */
+    private void file(Timer<T> timer) {
+        long delay = Math.min(timer.dueTick - nextTick, MAX_DELAY);
+        long at = nextTick + delay;
+        int level = 0;
+        while (delay >= SLOTS) {
+            delay >>>= SLOT_BITS;
+            level++;
+        }
+        wheels[level][(int) (at >>> (SLOT_BITS * level)) & (SLOTS - 1)].linkLast(timer);
+    }
+
+    /**
+     * Re-files every timer of one slot relative to the next tick, moving it to a lower level.
+     */
+    private void cascade(int level, int slot) {
+        Timer<T> moving = Timer.sentinel();
+        moving.takeAll(wheels[level][slot]);
+        Timer<T> timer;
+        while ((timer = moving.next) != moving) {
+            timer.unlink();
+            file(timer);
+        }
+    }
+
+    // --- Nested Types ---
+
+    /**
+     * A scheduled task. Returned by schedule so that it can be cancelled.
+     * @param <T> The type of the task.
+     */
+    public static final class Timer<T> {
+        // Tick at which the timer fires.
+        private final long dueTick;
+        // Task handed to the action when the timer fires; null for list sentinels.
+        private final T task;
+        // Neighbours in the slot list; null while the timer is not linked.
+        private Timer<T> prev;
+        private Timer<T> next;
+
+        private Timer(long dueTick, T task) {
+            this.dueTick = dueTick;
+            this.task = task;
+        }
+
+        /**
+         * Creates an empty circular list head.
+         */
+        private static <T> Timer<T> sentinel() {
+            Timer<T> head = new Timer<>(0, null);
+            head.prev = head;
+            head.next = head;
+            return head;
+        }
+
+        /**
+         * Appends a timer to the list headed by this sentinel.
+         */
+        private void linkLast(Timer<T> timer) {
+            timer.prev = prev;
+            timer.next = this;
+            prev.next = timer;
+            prev = timer;
+        }
+
+        /**
+         * Moves every timer of the list headed by 'other' into this empty list.
+         */
+        private void takeAll(Timer<T> other) {
+            if (other.next == other) {
+                return;
+            }
+            next = other.next;
+            prev = other.prev;
+            next.prev = this;
+            prev.next = this;
+            other.next = other;
+            other.prev = other;
+        }
+
+        /**
+         * Removes this timer from its list.
+         */
+        private void unlink() {
+            prev.next = next;
+            next.prev = prev;
+            prev = null;
+            next = null;
+        }
+
+        /**
+         * Getter for the due tick.
+         * @return The tick at which the timer fires (or fired).
+         */
+        public long getDueTick() {
+            return dueTick;
+        }
+
+        /**
+         * Getter for the task.
+         * @return The task attached to the timer.
+         */
+        public T getTask() {
+            return task;
+        }
+
+        /**
+         * Checks whether the timer is still waiting to fire.
+         * @return True if it has neither fired nor been cancelled.
+         */
+        public boolean isPending() {
+            return next != null;
+        }
+    }
+}